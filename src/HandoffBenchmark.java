@@ -0,0 +1,90 @@
+import functions.basic.Log;
+import threads.Task;
+
+import java.util.Arrays;
+
+/**
+ * Сравнение задержки передачи задания от генератора интегратору
+ * через объект {@link Task} при двух способах ожидания:
+ * опрос с Thread.sleep(1) (прежняя реализация Generator/Integrator)
+ * и парковка с пробуждением при публикации задания.
+ */
+public class HandoffBenchmark {
+    private static final int WARMUP_TASKS = 200;
+    private static final int MEASURED_TASKS = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== СРАВНЕНИЕ СПОСОБОВ ПЕРЕДАЧИ ЗАДАНИЯ ===\n");
+        System.out.printf("Количество заданий: %d (после %d для прогрева)%n%n", MEASURED_TASKS, WARMUP_TASKS);
+        System.out.printf("%-22s %-14s %-14s %-14s %-14s%n",
+            "Способ", "Среднее, мкс", "Медиана, мкс", "99%, мкс", "Всего, мс");
+        System.out.println("--------------------------------------------------------------------------------");
+
+        run("Опрос со sleep(1)", true, WARMUP_TASKS);
+        printResult("Опрос со sleep(1)", run("Опрос со sleep(1)", true, MEASURED_TASKS));
+
+        run("Парковка", false, WARMUP_TASKS);
+        printResult("Парковка", run("Парковка", false, MEASURED_TASKS));
+    }
+
+    /**
+     * Передаёт заданное количество заданий и возвращает задержки в наносекундах
+     * от публикации задания до его получения интегратором. Последний элемент
+     * массива - общее время передачи всех заданий.
+     */
+    private static long[] run(String name, boolean polling, int tasksCount) throws InterruptedException {
+        Task task = new Task();
+        task.setTasksCount(tasksCount);
+        long[] publishTimes = new long[tasksCount];
+        long[] latencies = new long[tasksCount + 1];
+
+        Thread integrator = new Thread(() -> {
+            try {
+                for (int i = 0; i < tasksCount; i++) {
+                    Task.TaskData data;
+                    while ((data = task.getTaskData()) == null) {
+                        if (polling) {
+                            Thread.sleep(1);
+                        } else {
+                            task.awaitTaskAvailable();
+                        }
+                    }
+                    latencies[i] = System.nanoTime() - publishTimes[i];
+                    task.setProcessed(true);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, name + "-integrator");
+        integrator.start();
+
+        Log log = new Log(2.0);
+        long start = System.nanoTime();
+        for (int i = 0; i < tasksCount; i++) {
+            task.setProcessed(false);
+            publishTimes[i] = System.nanoTime();
+            task.setTask(log, 1.0, 2.0, 0.1);
+            if (polling) {
+                while (!task.isProcessed()) {
+                    Thread.sleep(1);
+                }
+            } else {
+                task.awaitProcessed();
+            }
+        }
+        integrator.join();
+        latencies[tasksCount] = System.nanoTime() - start;
+        return latencies;
+    }
+
+    private static void printResult(String name, long[] result) {
+        long total = result[result.length - 1];
+        long[] latencies = Arrays.copyOf(result, result.length - 1);
+        Arrays.sort(latencies);
+        double mean = Arrays.stream(latencies).average().orElse(0);
+        long median = latencies[latencies.length / 2];
+        long p99 = latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)];
+        System.out.printf("%-22s %-14.1f %-14.1f %-14.1f %-14.1f%n",
+            name, mean / 1e3, median / 1e3, p99 / 1e3, total / 1e6);
+    }
+}
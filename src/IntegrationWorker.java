@@ -0,0 +1,40 @@
+import threads.RemoteIntegrator;
+
+import java.io.IOException;
+
+/**
+ * Процесс-интегратор: подключается к координатору заданий
+ * ({@link threads.IntegrationCoordinator}) и выполняет полученные задания.
+ *
+ * Запуск: {@code java IntegrationWorker <адрес> <порт> [количество потоков]}.
+ * По умолчанию используется столько потоков, сколько доступно процессоров.
+ */
+public class IntegrationWorker {
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Использование: java IntegrationWorker <адрес> <порт> [количество потоков]");
+            System.exit(2);
+        }
+        try {
+            String host = args[0];
+            int port = Integer.parseInt(args[1]);
+            int threadsCount = args.length == 3
+                ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            RemoteIntegrator integrator = new RemoteIntegrator(host, port, threadsCount);
+            System.out.printf("[IntegrationWorker] Подключение к %s:%d, потоков: %d%n", host, port, threadsCount);
+            int completed = integrator.run();
+            System.out.println("[IntegrationWorker] Работа завершена. Обработано заданий: " + completed);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Некорректные параметры: " + e.getMessage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("[IntegrationWorker] Соединение с координатором потеряно: "
+                + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+            System.exit(1);
+        } catch (InterruptedException e) {
+            System.err.println("[IntegrationWorker] Работа прервана");
+            System.exit(1);
+        }
+    }
+}
@@ -2,19 +2,62 @@ import functions.Function;
 import functions.TabulatedFunction;
 import functions.TabulatedFunctions;
 import functions.Functions;
+import functions.StepSelector;
+import functions.CancellationToken;
+import functions.PartialIntegral;
+import functions.TrapezoidKernels;
+import functions.IntegrationCache;
 import functions.basic.Sin;
 import functions.basic.Cos;
 import functions.basic.Exp;
 import functions.basic.Log;
+import functions.basic.Tan;
 import threads.Task;
 import threads.SimpleGenerator;
 import threads.SimpleIntegrator;
 import threads.Generator;
 import threads.Integrator;
 import threads.ReadWriteSemaphore;
+import threads.TaskQueue;
+import threads.QueueGenerator;
+import threads.IntegratorPool;
+import threads.PipelineMetrics;
+import threads.ForkJoinIntegrator;
+import threads.SeededTaskSource;
+import threads.ResultSink;
+import threads.ConsoleResultSink;
+import threads.BatchGenerator;
+import threads.BatchIntegrator;
+import threads.IntegrationService;
+import threads.TaskPublisher;
+import threads.IntegrationProcessor;
+import threads.ResultAggregator;
+import threads.ResultSubscriber;
+import threads.TaskLogWriter;
+import threads.TaskLogReader;
+import threads.ReplayGenerator;
+import threads.ResultLogSink;
+import threads.ResultLogComparison;
+import threads.PriorityTaskScheduler;
+import threads.InMemoryResultSink;
+import threads.IntegrationCoordinator;
+import threads.SharedTaskRing;
+import threads.IntegrationPipeline;
+import threads.PoolAutoscaler;
+import threads.VirtualPipelines;
+import threads.PipelineScope;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class    Main {
     private static final double PI = Math.PI;
@@ -51,6 +94,57 @@ public class    Main {
             // Тест 10: Многопоточное выполнение с семафором
             complicatedThreads();
 
+            // Тест 11: Многопоточное выполнение с очередью заданий
+            queueThreads();
+
+            // Тест 12: Пакетная публикация заданий
+            batchThreads();
+
+            // Тест 13: Асинхронное интегрирование
+            asyncIntegration();
+
+            // Тест 14: Конвейер на Flow с управлением спросом
+            flowPipeline();
+
+            // Тест 15: Воспроизводимая параллельная генерация заданий
+            seededGeneration();
+
+            // Тест 16: Запись и воспроизведение заданий
+            recordAndReplay();
+
+            // Тест 17: Планирование заданий с учётом стоимости
+            costAwareScheduling();
+
+            // Тест 18: Сроки выполнения и отбрасывание заданий при перегрузке
+            deadlineShedding();
+
+            // Тест 19: Интеграторы в отдельных процессах
+            remoteIntegration();
+
+            // Тест 20: Кольцо заданий в отображённом в память файле
+            sharedRing();
+
+            // Тест 21: Управление жизненным циклом конвейера
+            pipelineLifecycle();
+
+            // Тест 22: Автоматическое изменение количества интеграторов
+            poolAutoscaling();
+
+            // Тест 23: Множество независимых конвейеров в виртуальных потоках
+            virtualPipelines();
+
+            // Тест 24: Специализированные ядра интегрирования
+            trapezoidKernels();
+
+            // Тест 25: Кэширование результатов повторяющихся заданий
+            cachedIntegration();
+
+            // Тест 26: Точное интегрирование по формуле Ньютона-Лейбница
+            exactIntegration();
+
+            // Тест 27: Интегрирование множества интервалов одной функции
+            batchIntervals();
+
         } catch (Exception e) {
             System.err.println("Ошибка: " + e.getMessage());
             e.printStackTrace();
@@ -361,30 +455,16 @@ public class    Main {
         
         double targetError = 1e-7;
         
-        // Проверка с различными шагами для определения минимального шага
-        // Проверяем от большего к меньшему, чтобы найти наибольший шаг, который еще дает нужную точность
-        System.out.println("Проверка различных шагов (от большего к меньшему):");
-        double[] testSteps = {0.001, 0.0005, 0.0001, 0.00005, 0.00001, 0.000005, 0.000001};
+        // Подбор шага последовательным делением пополам с оценкой погрешности по Ричардсону
+        // (значения функции с предыдущего уровня переиспользуются)
+        StepSelector stepSelector = new StepSelector();
         double foundStep = -1;
-        
-        for (double step : testSteps) {
-            try {
-                double computedValue = Functions.integrate(exp, leftBound, rightBound, step);
-                double error = Math.abs(computedValue - theoreticalValue);
-                boolean meetsTarget = error < targetError;
-                String status = meetsTarget ? "✓ (достигнута)" : "✗";
-                System.out.printf("Шаг: %.6f, Погрешность: %.15f (%s)%n", 
-                    step, error, status);
-                
-                // Находим первый (наибольший) шаг, который дает нужную точность
-                if (meetsTarget && foundStep < 0) {
-                    foundStep = step;
-                }
-            } catch (Exception e) {
-                System.err.println("Ошибка при шаге " + step + ": " + e.getMessage());
-            }
+        try {
+            foundStep = stepSelector.selectStep(exp, leftBound, rightBound, 7);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка при подборе шага: " + e.getMessage());
         }
-        
+
         // Вывод результата
         if (foundStep > 0) {
             System.out.printf("\n✓ Найден шаг для точности в 7 знаке: %.6f%n", foundStep);
@@ -416,6 +496,7 @@ public class    Main {
 
         Random random = new Random();
         Task task = new Task();
+        ResultSink resultSink = new ConsoleResultSink();
         
         // Устанавливаем количество заданий (минимум 100)
         int tasksCount = 100;
@@ -471,8 +552,7 @@ public class    Main {
                 );
                 
                 // Выводим сообщение Result
-                System.out.printf("Result %.6f %.6f %.6f %.15f%n", 
-                    task.getLeftBound(), task.getRightBound(), task.getStep(), result);
+                resultSink.accept(task.getLeftBound(), task.getRightBound(), task.getStep(), result);
                 
             } catch (Exception e) {
                 System.err.printf("Ошибка при выполнении задания %d: %s%n", i + 1, e.getMessage());
@@ -576,4 +656,750 @@ public class    Main {
             System.out.println("[Main] Предупреждение: некоторые потоки все еще активны, но программа завершается.");
         }
     }
+
+    /**
+     * Многопоточная версия программы с использованием очереди заданий.
+     * Сценарий complicatedThreads(), в котором одноместное задание с семафором заменено
+     * ограниченной неблокирующей очередью: несколько генераторов и пул интеграторов
+     * работают одновременно, не дожидаясь друг друга после каждого задания.
+     */
+    private static void queueThreads() {
+        System.out.println("=== ТЕСТ 11: МНОГОПОТОЧНОЕ ВЫПОЛНЕНИЕ С ОЧЕРЕДЬЮ ЗАДАНИЙ ===\n");
+
+        TaskQueue<Task.TaskData> queue = new TaskQueue<>(16);
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.register("queueThreads");
+
+        // Два генератора по 50 заданий (всего 100) и пул из двух интеграторов
+        int tasksPerGenerator = 50;
+        QueueGenerator[] generators = {
+            new QueueGenerator(queue, tasksPerGenerator, metrics),
+            new QueueGenerator(queue, tasksPerGenerator, metrics)
+        };
+        IntegratorPool pool = new IntegratorPool(queue, 2, metrics);
+        // Задания дороже 65536 узлов делятся на части, выполняемые параллельно
+        ForkJoinIntegrator splitter = new ForkJoinIntegrator();
+        pool.setForkJoinIntegrator(splitter);
+
+        System.out.println("Количество заданий: " + tasksPerGenerator * generators.length + "\n");
+
+        pool.start();
+        for (QueueGenerator generator : generators) {
+            generator.start();
+        }
+
+        int completedTasks = 0;
+        try {
+            // После завершения всех генераторов закрываем очередь -
+            // интеграторы завершатся, обработав оставшиеся задания
+            for (QueueGenerator generator : generators) {
+                generator.join();
+            }
+            pool.generationFinished();
+            completedTasks = pool.awaitCompletion();
+        } catch (InterruptedException e) {
+            System.err.println("Ошибка при ожидании завершения потоков: " + e.getMessage());
+            pool.interrupt();
+            Thread.currentThread().interrupt();
+        }
+
+        System.out.println("\n[Main] Обработано заданий: " + completedTasks);
+        for (IntegratorPool.WorkerStatistics statistics : pool.getStatistics()) {
+            System.out.println("  " + statistics);
+        }
+        System.out.println("[Main] Разделено трудоёмких заданий: " + splitter.getSplitTasks());
+        System.out.println("[Main] Метрики конвейера: " + metrics.snapshot());
+        metrics.unregister();
+        System.out.println("Выполнение заданий завершено.\n");
+    }
+
+    /**
+     * Тест 12: пакетная публикация заданий.
+     * Генератор публикует задания пакетами, размер которых подстраивается
+     * под скорость интеграторов, а интеграторы захватывают пакеты целиком.
+     */
+    private static void batchThreads() {
+        System.out.println("=== ТЕСТ 12: ПАКЕТНАЯ ПУБЛИКАЦИЯ ЗАДАНИЙ ===\n");
+
+        TaskQueue<Task.TaskData[]> queue = new TaskQueue<>(8);
+        BatchGenerator generator = new BatchGenerator(queue, 100, 1, 16);
+        BatchIntegrator[] integrators = {
+            new BatchIntegrator(queue),
+            new BatchIntegrator(queue)
+        };
+
+        System.out.println("Количество заданий: 100\n");
+
+        for (BatchIntegrator integrator : integrators) {
+            integrator.start();
+        }
+        generator.start();
+
+        int completedTasks = 0;
+        try {
+            generator.join();
+            queue.close();
+            for (BatchIntegrator integrator : integrators) {
+                integrator.join();
+                completedTasks += integrator.getCompletedTasks();
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Ошибка при ожидании завершения потоков: " + e.getMessage());
+            generator.interrupt();
+            for (BatchIntegrator integrator : integrators) {
+                integrator.interrupt();
+            }
+            Thread.currentThread().interrupt();
+        }
+
+        System.out.printf("%n[Main] Обработано заданий: %d, опубликовано пакетов: %d, средний размер пакета: %.2f%n",
+            completedTasks, generator.getPublishedBatches(), generator.getAverageBatchSize());
+        System.out.println("Выполнение заданий завершено.\n");
+    }
+
+    /**
+     * Тест 13: асинхронное интегрирование через {@link IntegrationService}.
+     * Несколько интегрирований запускаются параллельно, результаты собираются
+     * из CompletableFuture, а длительное интегрирование отменяется.
+     */
+    private static void asyncIntegration() {
+        System.out.println("=== ТЕСТ 13: АСИНХРОННОЕ ИНТЕГРИРОВАНИЕ ===\n");
+
+        IntegrationService service = new IntegrationService();
+        Exp exp = new Exp();
+        Sin sin = new Sin();
+
+        CompletableFuture<Double> expFuture = service.submit(exp, 0, 1, 0.001);
+        CompletableFuture<Double> sinFuture = service.submitWithPrecision(sin, 0, PI, 7);
+        CompletableFuture<Double> longFuture = service.submit(sin, 0, 1e7, 1e-4);
+
+        try {
+            System.out.printf("Интеграл exp(x) на [0, 1] с шагом 0.001: %.10f%n", expFuture.get());
+            System.out.printf("Интеграл sin(x) на [0, π] с точностью 1e-7: %.10f%n", sinFuture.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Ошибка интегрирования: " + e.getCause().getMessage());
+        }
+
+        longFuture.cancel(true);
+        System.out.println("Длительное интегрирование отменено: " + longFuture.isCancelled());
+        System.out.println();
+    }
+
+    /**
+     * Тест 14: конвейер генерация → интегрирование → агрегация → вывод
+     * на {@link java.util.concurrent.Flow} с управлением спросом.
+     */
+    private static void flowPipeline() {
+        System.out.println("=== ТЕСТ 14: КОНВЕЙЕР НА FLOW С УПРАВЛЕНИЕМ СПРОСОМ ===\n");
+
+        TaskPublisher publisher = new TaskPublisher(100);
+        IntegrationProcessor integration = new IntegrationProcessor();
+        ResultAggregator aggregation = new ResultAggregator();
+        ResultSubscriber sink = new ResultSubscriber();
+
+        System.out.println("Количество заданий: 100\n");
+
+        // Конвейер собирается от источника к потребителю; задания начинают
+        // генерироваться, только когда у каждой стадии появится подписчик
+        publisher.subscribe(integration);
+        integration.subscribe(aggregation);
+        aggregation.subscribe(sink);
+
+        try {
+            if (!sink.awaitCompletion(30, TimeUnit.SECONDS)) {
+                System.err.println("Конвейер не завершился за отведённое время");
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Ошибка при ожидании завершения конвейера: " + e.getMessage());
+            integration.close();
+            Thread.currentThread().interrupt();
+        }
+
+        System.out.printf("%n[Main] Сгенерировано заданий: %d, получено результатов: %d%n",
+            publisher.getGeneratedTasks(), sink.getReceivedResults());
+        System.out.printf("Сумма интегралов: %.6f, минимум: %.6f, максимум: %.6f%n",
+            aggregation.getSum(), aggregation.getMinimum(), aggregation.getMaximum());
+        System.out.println("  " + integration.getStatistics());
+        System.out.println("  " + aggregation.getStatistics());
+        System.out.println("  " + sink.getStatistics());
+        System.out.println("Выполнение заданий завершено.\n");
+    }
+
+    /**
+     * Тест 15: воспроизводимая параллельная генерация заданий.
+     * Задания с одним и тем же начальным значением генерируются одним и четырьмя
+     * потоками, и наборы заданий сравниваются.
+     */
+    private static void seededGeneration() {
+        System.out.println("=== ТЕСТ 15: ВОСПРОИЗВОДИМАЯ ПАРАЛЛЕЛЬНАЯ ГЕНЕРАЦИЯ ЗАДАНИЙ ===\n");
+
+        long seed = 2025;
+        int tasksCount = 100_000;
+        try {
+            long startTime = System.nanoTime();
+            Task.TaskData[] single = new SeededTaskSource(seed, tasksCount).generateAll(1);
+            long singleNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            Task.TaskData[] parallel = new SeededTaskSource(seed, tasksCount).generateAll(4);
+            long parallelNanos = System.nanoTime() - startTime;
+
+            boolean identical = true;
+            for (int i = 0; i < tasksCount && identical; i++) {
+                identical = ((Log) single[i].function).getBase() == ((Log) parallel[i].function).getBase()
+                        && single[i].leftBound == parallel[i].leftBound
+                        && single[i].rightBound == parallel[i].rightBound
+                        && single[i].step == parallel[i].step;
+            }
+
+            System.out.printf("Начальное значение: %d, заданий: %d%n", seed, tasksCount);
+            System.out.printf("Один поток: %.1f мс, четыре потока: %.1f мс%n", singleNanos / 1e6, parallelNanos / 1e6);
+            System.out.printf("Первое задание: Source %.6f %.6f %.6f%n",
+                single[0].leftBound, single[0].rightBound, single[0].step);
+            System.out.println("Наборы заданий совпадают: " + identical);
+        } catch (InterruptedException e) {
+            System.err.println("Генерация прервана: " + e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+        System.out.println();
+    }
+
+    /**
+     * Тест 16: запись и воспроизведение заданий.
+     * Задания, сгенерированные при работе пула из двух интеграторов, записываются
+     * в журнал и воспроизводятся для пула из одного интегратора; журналы результатов
+     * обоих запусков сравниваются.
+     */
+    private static void recordAndReplay() throws IOException {
+        System.out.println("=== ТЕСТ 16: ЗАПИСЬ И ВОСПРОИЗВЕДЕНИЕ ЗАДАНИЙ ===\n");
+
+        ByteArrayOutputStream taskLogBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream recordedResults = new ByteArrayOutputStream();
+        ByteArrayOutputStream replayedResults = new ByteArrayOutputStream();
+
+        try {
+            // Запись: генератор пишет задания в журнал, пул из двух интеграторов - результаты
+            TaskQueue<Task.TaskData> queue = new TaskQueue<>(16);
+            QueueGenerator generator = new QueueGenerator(queue, 50);
+            try (TaskLogWriter taskLog = new TaskLogWriter(taskLogBytes);
+                 ResultLogSink resultLog = new ResultLogSink(recordedResults)) {
+                generator.setTaskLog(taskLog);
+                IntegratorPool pool = new IntegratorPool(queue, 2, null, resultLog);
+                pool.start();
+                generator.start();
+                generator.join();
+                pool.generationFinished();
+                pool.awaitCompletion();
+            }
+
+            // Воспроизведение тех же заданий с максимальной скоростью для одного интегратора
+            List<TaskLogReader.Entry> entries =
+                TaskLogReader.readAll(new ByteArrayInputStream(taskLogBytes.toByteArray()));
+            TaskQueue<Task.TaskData> replayQueue = new TaskQueue<>(16);
+            ReplayGenerator replay = new ReplayGenerator(entries, replayQueue, false);
+            try (ResultLogSink resultLog = new ResultLogSink(replayedResults)) {
+                IntegratorPool pool = new IntegratorPool(replayQueue, 1, null, resultLog);
+                pool.start();
+                replay.start();
+                replay.join();
+                pool.generationFinished();
+                pool.awaitCompletion();
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Ошибка при ожидании завершения потоков: " + e.getMessage());
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        ResultLogComparison comparison = ResultLogComparison.compare(
+            new ByteArrayInputStream(recordedResults.toByteArray()),
+            new ByteArrayInputStream(replayedResults.toByteArray()), 0.0);
+        System.out.printf("%n[Main] Размер журнала заданий: %d байт%n", taskLogBytes.size());
+        System.out.println("[Main] Сравнение результатов: " + comparison);
+        System.out.println("[Main] Результаты совпадают: " + comparison.isIdentical());
+        System.out.println();
+    }
+
+    /**
+     * Тест 17: планирование заданий с учётом стоимости.
+     * Один и тот же набор заданий со сроками выполнения обрабатывается одним интегратором
+     * при каждой политике {@link PriorityTaskScheduler}; сравниваются время ожидания
+     * по классам стоимости и количество просроченных заданий.
+     */
+    private static void costAwareScheduling() throws InterruptedException {
+        System.out.println("=== ТЕСТ 17: ПЛАНИРОВАНИЕ ЗАДАНИЙ С УЧЁТОМ СТОИМОСТИ ===\n");
+
+        int tasksCount = 400;
+        Task.TaskData[] tasks = new SeededTaskSource(2025, tasksCount).generateAll(1);
+        // Допустимая задержка каждого задания - от 1 до 50 мс после публикации
+        long[] slackNanos = new long[tasksCount];
+        SplittableRandom random = new SplittableRandom(2025);
+        for (int i = 0; i < tasksCount; i++) {
+            slackNanos[i] = TimeUnit.MICROSECONDS.toNanos(1000 + random.nextInt(49_000));
+        }
+        System.out.println("Количество заданий: " + tasksCount + "\n");
+
+        for (PriorityTaskScheduler.Policy policy : PriorityTaskScheduler.Policy.values()) {
+            // Все задания публикуются до запуска интегратора, поэтому планировщик выбирает из всего набора
+            PriorityTaskScheduler scheduler = new PriorityTaskScheduler(policy, tasksCount);
+            long publishTime = System.nanoTime();
+            for (int i = 0; i < tasksCount; i++) {
+                scheduler.put(tasks[i].withDeadline(publishTime + slackNanos[i]));
+            }
+            IntegratorPool pool = new IntegratorPool(scheduler, 1, null, new InMemoryResultSink());
+            pool.start();
+            pool.generationFinished();
+            pool.awaitCompletion();
+
+            System.out.printf("%n[Main] Политика %s: среднее ожидание %.3f мс, просрочено заданий: %d%n",
+                policy, scheduler.getMeanWaitNanos() / 1e6, scheduler.getExpiredTasks());
+            for (PriorityTaskScheduler.ClassStatistics statistics : scheduler.getWaitStatistics()) {
+                System.out.println("  " + statistics);
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Тест 18: сроки выполнения и отбрасывание заданий при перегрузке.
+     * Длительное интегрирование с ограничением по времени возвращает частичный результат,
+     * а пул, получивший больше заданий, чем успевает обработать до их сроков,
+     * отбрасывает просроченные задания вместо того, чтобы обрабатывать их с опозданием.
+     */
+    private static void deadlineShedding() throws InterruptedException {
+        System.out.println("=== ТЕСТ 18: СРОКИ ВЫПОЛНЕНИЯ И ОТБРАСЫВАНИЕ ЗАДАНИЙ ===\n");
+
+        PartialIntegral partial = Functions.integratePartial(new Sin(), 0, 1e3, 1e-5,
+            CancellationToken.withTimeout(20, TimeUnit.MILLISECONDS));
+        System.out.println("Интеграл sin(x) на [0, 1000] с шагом 1e-5 за 20 мс: " + partial);
+
+        // Каждое сотое задание заведомо не укладывается в свой срок 5 мс,
+        // остальные задания должны быть выполнены за 20 мс
+        int tasksCount = 1000;
+        Task.TaskData[] tasks = new SeededTaskSource(2025, tasksCount).generateAll(1);
+        TaskQueue<Task.TaskData> queue = new TaskQueue<>(tasksCount);
+        long publishTime = System.nanoTime();
+        for (int i = 0; i < tasksCount; i++) {
+            Task.TaskData task = i % 100 == 0
+                ? new Task.TaskData(new Sin(), 0, 1e6, 1e-3, publishTime + TimeUnit.MILLISECONDS.toNanos(5))
+                : tasks[i].withDeadline(publishTime + TimeUnit.MILLISECONDS.toNanos(20));
+            queue.put(task);
+        }
+        IntegratorPool pool = new IntegratorPool(queue, 1, null, new InMemoryResultSink());
+        pool.start();
+        pool.generationFinished();
+        int processed = pool.awaitCompletion();
+
+        System.out.printf("%n[Main] Заданий: %d, обработано: %d, частичных результатов: %d, "
+            + "отброшено: %d%n", tasksCount, processed, pool.getPartialTasks(), pool.getShedTasks());
+        System.out.println();
+    }
+
+    /**
+     * Тест 19: интеграторы в отдельных процессах.
+     * Координатор раздаёт задания двум процессам {@link IntegrationWorker} по TCP;
+     * после трёхсотого результата один из процессов принудительно завершается,
+     * и его невыполненные задания переназначаются оставшемуся.
+     */
+    private static void remoteIntegration() throws IOException, InterruptedException {
+        System.out.println("=== ТЕСТ 19: ИНТЕГРАТОРЫ В ОТДЕЛЬНЫХ ПРОЦЕССАХ ===\n");
+
+        int tasksCount = 1000;
+        TaskQueue<Task.TaskData> queue = new TaskQueue<>(tasksCount);
+        for (Task.TaskData task : new SeededTaskSource(2025, tasksCount).generateAll(1)) {
+            queue.put(task);
+        }
+        queue.close();
+
+        Process[] workers = new Process[2];
+        InMemoryResultSink results = new InMemoryResultSink();
+        AtomicInteger received = new AtomicInteger();
+        ResultSink sink = (leftBound, rightBound, step, result) -> {
+            results.accept(leftBound, rightBound, step, result);
+            if (received.incrementAndGet() == 300) {
+                workers[0].destroyForcibly(); // Имитируем отказ интегратора
+            }
+        };
+
+        try (IntegrationCoordinator coordinator = new IntegrationCoordinator(queue, sink, 64)) {
+            int port = coordinator.start();
+            System.out.println("Количество заданий: " + tasksCount + ", порт координатора: " + port + "\n");
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    "IntegrationWorker", "127.0.0.1", String.valueOf(port), "1").inheritIO().start();
+            }
+
+            if (!coordinator.awaitCompletion(60, TimeUnit.SECONDS)) {
+                System.err.println("Задания не выполнены за отведённое время");
+            }
+            System.out.printf("%n[Main] Выполнено заданий: %d, с ошибкой: %d, переназначено: %d, "
+                    + "получено результатов: %d%n", coordinator.getCompletedTasks(), coordinator.getFailedTasks(),
+                coordinator.getReassignedTasks(), results.size());
+        } finally {
+            for (Process worker : workers) {
+                if (worker != null && !worker.waitFor(10, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly();
+                }
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Тест 20: кольцо заданий в отображённом в память файле.
+     * Генератор публикует задания в кольцо через одно отображение файла,
+     * а пул интеграторов забирает их через другое, как это делали бы разные процессы.
+     */
+    private static void sharedRing() throws IOException, InterruptedException {
+        System.out.println("=== ТЕСТ 20: КОЛЬЦО ЗАДАНИЙ В ОТОБРАЖЁННОМ ФАЙЛЕ ===\n");
+
+        int tasksCount = 1000;
+        Path path = Files.createTempFile("task-ring", ".bin");
+        try {
+            SharedTaskRing producerView = SharedTaskRing.create(path, 64);
+            SharedTaskRing consumerView = SharedTaskRing.open(path);
+            System.out.println("Количество заданий: " + tasksCount + ", вместимость кольца: "
+                + producerView.capacity() + "\n");
+
+            InMemoryResultSink results = new InMemoryResultSink();
+            IntegratorPool pool = new IntegratorPool(consumerView, 2, null, results);
+            pool.start();
+            for (Task.TaskData task : new SeededTaskSource(2025, tasksCount).generateAll(1)) {
+                producerView.put(task);
+            }
+            producerView.close();
+            int completedTasks = pool.awaitCompletion();
+
+            System.out.printf("%n[Main] Обработано заданий: %d, получено результатов: %d%n",
+                completedTasks, results.size());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Тест 21: управление жизненным циклом конвейера.
+     * Первый запуск завершается сам, обработав все задания; второй запуск того же
+     * конвейера с бесконечным генератором трудоёмких заданий останавливается по сроку:
+     * интеграторы прерываются с частичным результатом, а задания из очереди бросаются.
+     * После каждой остановки все потоки конвейера завершены.
+     */
+    private static void pipelineLifecycle() throws InterruptedException {
+        System.out.println("=== ТЕСТ 21: ЖИЗНЕННЫЙ ЦИКЛ КОНВЕЙЕРА ===\n");
+
+        int tasksCount = 500;
+        int threadsBefore = Thread.activeCount();
+        InMemoryResultSink results = new InMemoryResultSink();
+        IntegrationPipeline pipeline = new IntegrationPipeline("lifecycle", 64, 2, results);
+        boolean[] heavy = new boolean[1];
+        pipeline.addProducer(buffer -> new Thread(() -> {
+            try {
+                if (heavy[0]) {
+                    // Задания, которые не успеть выполнить до остановки
+                    while (true) {
+                        buffer.put(new Task.TaskData(new Sin(), 0, 1e6, 1e-3));
+                    }
+                }
+                for (Task.TaskData task : new SeededTaskSource(2025, tasksCount).generateAll(1)) {
+                    buffer.put(task);
+                }
+            } catch (InterruptedException e) {
+                // Конвейер останавливается
+            }
+        }));
+
+        pipeline.start();
+        System.out.println("[Main] " + pipeline.getHealth());
+        if (!pipeline.awaitTermination(30, TimeUnit.SECONDS)) {
+            System.err.println("Конвейер не завершился за отведённое время");
+        }
+        System.out.println("[Main] " + pipeline.getHealth());
+        System.out.printf("[Main] Получено результатов: %d, потоков до запуска: %d, после остановки: %d%n%n",
+            results.size(), threadsBefore, Thread.activeCount());
+
+        heavy[0] = true;
+        pipeline.start();
+        Thread.sleep(100);
+        System.out.println("[Main] " + pipeline.getHealth());
+        IntegrationPipeline.ShutdownReport report = pipeline.shutdown(50, TimeUnit.MILLISECONDS);
+        System.out.println("[Main] " + pipeline.getHealth());
+        System.out.printf("[Main] Остановка %s, потоков до запуска: %d, после остановки: %d%n",
+            report.graceful ? "корректная" : "принудительная", threadsBefore, Thread.activeCount());
+        System.out.println();
+    }
+
+    /**
+     * Тест 22: автоматическое изменение количества интеграторов.
+     * Пул с одним интегратором получает задания сильно различающейся трудоёмкости;
+     * {@link PoolAutoscaler} добавляет интеграторы, пока это увеличивает скорость
+     * выполнения заданий, и выводит их из работы, когда очередь опустевает.
+     */
+    private static void poolAutoscaling() throws InterruptedException {
+        System.out.println("=== ТЕСТ 22: АВТОМАТИЧЕСКОЕ ИЗМЕНЕНИЕ КОЛИЧЕСТВА ИНТЕГРАТОРОВ ===\n");
+
+        int tasksCount = 300;
+        int maxWorkers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        TaskQueue<Task.TaskData> queue = new TaskQueue<>(tasksCount);
+        SplittableRandom random = new SplittableRandom(2025);
+        for (int i = 0; i < tasksCount; i++) {
+            // Длина отрезка от 1 до 200 - трудоёмкость заданий различается в 200 раз
+            queue.put(new Task.TaskData(new Sin(), 0, 1 + random.nextInt(200), 1e-4));
+        }
+        queue.close();
+        System.out.println("Количество заданий: " + tasksCount + ", интеграторов: от 1 до " + maxWorkers + "\n");
+
+        IntegratorPool pool = new IntegratorPool(queue, 1, null, new InMemoryResultSink());
+        PoolAutoscaler autoscaler = new PoolAutoscaler(pool, 1, maxWorkers, 50, TimeUnit.MILLISECONDS,
+            0.85, 0.5, 2, 5);
+        pool.start();
+        autoscaler.start();
+        int completedTasks = pool.awaitCompletion();
+        autoscaler.join();
+
+        System.out.printf("%n[Main] Обработано заданий: %d, решений автомасштабирования: %d%n",
+            completedTasks, autoscaler.getDecisions().size());
+        for (IntegratorPool.WorkerStatistics statistics : pool.getStatistics()) {
+            System.out.println("  " + statistics);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Тест 23: множество независимых конвейеров "генератор - интегратор".
+     * Каждый конвейер связан собственным одноместным буфером; все потоки принадлежат
+     * одной области и не переживают её. Проверяется, что обработаны все задания.
+     */
+    private static void virtualPipelines() throws InterruptedException, TimeoutException {
+        System.out.println("=== ТЕСТ 23: НЕЗАВИСИМЫЕ КОНВЕЙЕРЫ В ВИРТУАЛЬНЫХ ПОТОКАХ ===\n");
+
+        int pipelinesCount = 1000;
+        int tasksPerPipeline = 10;
+        System.out.println("Конвейеров: " + pipelinesCount + ", заданий в каждом: " + tasksPerPipeline
+            + ", виртуальные потоки: " + (PipelineScope.isVirtualThreadsSupported() ? "да" : "нет"));
+
+        long start = System.nanoTime();
+        int completedTasks = VirtualPipelines.run(pipelinesCount, tasksPerPipeline, 5, TimeUnit.MINUTES);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int expectedTasks = pipelinesCount * tasksPerPipeline;
+        System.out.printf("%n[Main] Обработано заданий: %d из %d за %d мс%n",
+            completedTasks, expectedTasks, elapsedMillis);
+        System.out.println("Все задания обработаны: " + (completedTasks == expectedTasks));
+        System.out.println();
+    }
+
+    /**
+     * Тест 24: специализированные ядра интегрирования.
+     * Для базовых функций и их линейных комбинаций {@link Functions#integrate(Function, double, double, double)}
+     * выбирает блочное ядро {@link TrapezoidKernels}. Та же функция, обёрнутая в анонимный класс,
+     * ядру не видна и интегрируется обычным циклом с виртуальными вызовами; сравниваются
+     * значения и лучшее время из нескольких запусков.
+     */
+    private static void trapezoidKernels() {
+        System.out.println("=== ТЕСТ 24: СПЕЦИАЛИЗИРОВАННЫЕ ЯДРА ИНТЕГРИРОВАНИЯ ===\n");
+
+        Function[] functions = {
+            new Exp(),
+            new Log(2),
+            Functions.sum(new Sin(), new Cos()),
+            Functions.shift(Functions.scale(new Exp(), 1, 2), 0, 3)
+        };
+        String[] names = {"exp(x)", "log2(x)", "sin(x) + cos(x)", "2 exp(x) + 3"};
+        double leftBound = 1;
+        double rightBound = 10;
+        double step = 1e-5;
+        int runs = 5;
+
+        System.out.printf("Отрезок [%.0f, %.0f], шаг %.0e, лучшее время из %d запусков%n%n",
+            leftBound, rightBound, step, runs);
+        for (int i = 0; i < functions.length; i++) {
+            Function kernelFunction = functions[i];
+            Function scalarFunction = opaque(kernelFunction);
+            double kernelValue = 0;
+            double scalarValue = 0;
+            long kernelNanos = Long.MAX_VALUE;
+            long scalarNanos = Long.MAX_VALUE;
+            for (int run = 0; run < runs; run++) {
+                long start = System.nanoTime();
+                kernelValue = Functions.integrate(kernelFunction, leftBound, rightBound, step);
+                kernelNanos = Math.min(kernelNanos, System.nanoTime() - start);
+                start = System.nanoTime();
+                scalarValue = Functions.integrate(scalarFunction, leftBound, rightBound, step);
+                scalarNanos = Math.min(scalarNanos, System.nanoTime() - start);
+            }
+            double deviation = Math.abs(kernelValue - scalarValue) / Math.max(1e-300, Math.abs(scalarValue));
+            System.out.printf("%-16s ядро: %s, цикл: %.15f, отклонение %.1e, время %.2f мс / %.2f мс%n",
+                names[i], TrapezoidKernels.isSupported(kernelFunction) ? String.format("%.15f", kernelValue) : "нет",
+                scalarValue, deviation, kernelNanos / 1e6, scalarNanos / 1e6);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Оборачивает функцию так, чтобы её тип был неизвестен специализированным ядрам.
+     * @param function исходная функция
+     * @return функция с теми же значениями и областью определения
+     */
+    private static Function opaque(Function function) {
+        return new Function() {
+            @Override
+            public double getLeftDomainBorder() {
+                return function.getLeftDomainBorder();
+            }
+
+            @Override
+            public double getRightDomainBorder() {
+                return function.getRightDomainBorder();
+            }
+
+            @Override
+            public double getFunctionValue(double x) {
+                return function.getFunctionValue(x);
+            }
+        };
+    }
+
+    /**
+     * Тест 25: кэширование результатов повторяющихся заданий.
+     * Задания выбираются случайно из небольшого набора, поэтому многие повторяются;
+     * кэш меньше набора, поэтому часть записей вытесняется. Счётчики попаданий,
+     * промахов и вытеснений показывают, подходит ли вместимость кэша для нагрузки.
+     */
+    private static void cachedIntegration() throws InterruptedException {
+        System.out.println("=== ТЕСТ 25: КЭШИРОВАНИЕ РЕЗУЛЬТАТОВ ПОВТОРЯЮЩИХСЯ ЗАДАНИЙ ===\n");
+
+        int tasksCount = 500;
+        int distinctTasks = 60;
+        int cacheCapacity = 40;
+        SplittableRandom random = new SplittableRandom(2025);
+        TaskQueue<Task.TaskData> queue = new TaskQueue<>(tasksCount);
+        for (int i = 0; i < tasksCount; i++) {
+            // Новый объект функции для каждого задания: логарифмы сравниваются в кэше по основанию
+            int k = random.nextInt(distinctTasks);
+            queue.put(new Task.TaskData(new Log(2 + k % 5), 1 + k, 101 + k, 1e-3));
+        }
+        queue.close();
+        System.out.println("Количество заданий: " + tasksCount + ", различных: " + distinctTasks
+            + ", вместимость кэша: " + cacheCapacity + "\n");
+
+        IntegrationCache cache = new IntegrationCache(cacheCapacity);
+        InMemoryResultSink results = new InMemoryResultSink();
+        IntegratorPool pool = new IntegratorPool(queue, 2, null, results, cache);
+        pool.start();
+        int completedTasks = pool.awaitCompletion();
+
+        System.out.printf("[Main] Обработано заданий: %d, получено результатов: %d%n", completedTasks, results.size());
+        System.out.printf("Попаданий: %d, промахов: %d, вытеснений: %d, доля попаданий: %.1f%%, записей: %d из %d%n",
+            cache.getHitCount(), cache.getMissCount(), cache.getEvictionCount(), cache.getHitRate() * 100,
+            cache.size(), cache.getCapacity());
+        System.out.println("Каждое задание учтено ровно один раз: "
+            + (cache.getHitCount() + cache.getMissCount() == tasksCount));
+        System.out.println();
+    }
+
+    /**
+     * Тест 26: точное интегрирование по формуле Ньютона-Лейбница.
+     * Сначала точные значения сравниваются с методом трапеций для отдельных функций,
+     * в том числе для логарифма у нуля и тангенса на отрезке с полюсом (там первообразная
+     * разрывна, и используется метод трапеций). Затем одни и те же задания генератора
+     * обрабатываются пулом с точным интегрированием и без него.
+     */
+    private static void exactIntegration() throws InterruptedException {
+        System.out.println("=== ТЕСТ 26: ТОЧНОЕ ИНТЕГРИРОВАНИЕ ПО ФОРМУЛЕ НЬЮТОНА-ЛЕЙБНИЦА ===\n");
+
+        Function[] functions = {new Exp(), new Sin(), new Log(Math.E), new Log(10), new Tan(), new Tan()};
+        double[][] bounds = {{0, 1}, {0, PI}, {1, 10}, {1e-6, 1}, {0, 1}, {1, 2}};
+        String[] names = {"exp(x)", "sin(x)", "ln(x)", "lg(x) у нуля", "tg(x)", "tg(x) через полюс"};
+        double step = 1e-5;
+        for (int i = 0; i < functions.length; i++) {
+            double left = bounds[i][0];
+            double right = bounds[i][1];
+            double trapezoid = Functions.integrate(functions[i], left, right, step);
+            double exact = Functions.integrate(functions[i], left, right, step, true);
+            String method = Functions.hasExactIntegral(functions[i], left, right)
+                ? "Ньютон-Лейбниц" : "первообразная разрывна, метод трапеций";
+            System.out.printf("%-18s [%.6f, %.6f]: трапеции %.12f, точно %.12f, разница %.1e (%s)%n",
+                names[i], left, right, trapezoid, exact, Math.abs(exact - trapezoid), method);
+        }
+
+        int tasksCount = 200;
+        Task.TaskData[] tasks = new SeededTaskSource(2025, tasksCount).generateAll(1);
+        InMemoryResultSink trapezoidResults = new InMemoryResultSink();
+        InMemoryResultSink exactResults = new InMemoryResultSink();
+        long start = System.nanoTime();
+        runSingleWorkerPool(tasks, trapezoidResults, false);
+        long trapezoidNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        IntegratorPool exactPool = runSingleWorkerPool(tasks, exactResults, true);
+        long exactNanos = System.nanoTime() - start;
+
+        double maxDeviation = 0;
+        for (int i = 0; i < exactResults.size(); i++) {
+            double reference = trapezoidResults.getResult(i);
+            maxDeviation = Math.max(maxDeviation,
+                Math.abs(exactResults.getResult(i) - reference) / Math.max(1e-300, Math.abs(reference)));
+        }
+        System.out.printf("%n[Main] Заданий генератора: %d, вычислено точно: %d%n", tasksCount, exactPool.getExactTasks());
+        System.out.printf("Время: метод трапеций %.1f мс, точно %.1f мс; наибольшее относительное отклонение %.1e%n",
+            trapezoidNanos / 1e6, exactNanos / 1e6, maxDeviation);
+        System.out.println();
+    }
+
+    /**
+     * Обрабатывает задания пулом из одного интегратора, поэтому результаты
+     * поступают в порядке заданий и могут сравниваться по индексу.
+     * @return пул, завершивший обработку
+     */
+    private static IntegratorPool runSingleWorkerPool(Task.TaskData[] tasks, ResultSink sink, boolean exact)
+            throws InterruptedException {
+        TaskQueue<Task.TaskData> queue = new TaskQueue<>(tasks.length);
+        for (Task.TaskData task : tasks) {
+            queue.put(task);
+        }
+        queue.close();
+        IntegratorPool pool = new IntegratorPool(queue, 1, null, sink);
+        pool.setExactIntegration(exact);
+        pool.start();
+        pool.awaitCompletion();
+        return pool;
+    }
+
+    /**
+     * Тест 27: интегрирование множества интервалов одной функции.
+     * Интервалы пересекаются, не пересекаются, вложены друг в друга и касаются в одной точке;
+     * {@link Functions#integrateBatch(Function, double[], double[], double)} сравнивается
+     * с интегрированием каждого интервала отдельно. Отклонение сопоставляется с погрешностью
+     * метода трапеций относительно точного значения.
+     */
+    private static void batchIntervals() {
+        System.out.println("=== ТЕСТ 27: ИНТЕГРИРОВАНИЕ МНОЖЕСТВА ИНТЕРВАЛОВ ОДНОЙ ФУНКЦИИ ===\n");
+
+        Function function = new Sin();
+        double step = 1e-3;
+        String[] kinds = {"пересекаются", "пересекаются", "не пересекаются", "не пересекаются",
+            "внешний", "вложенный", "касаются", "касаются"};
+        double[] leftBounds = {0.0, 2.0005, 10.1234, 20.0, 30.0, 32.00037, 50.0, 52.0};
+        double[] rightBounds = {3.0, 5.0, 11.0, 21.5, 40.0, 35.3, 52.0, 54.0};
+
+        double[] batch = Functions.integrateBatch(function, leftBounds, rightBounds, step);
+        double maxDeviation = 0;
+        double maxMethodError = 0;
+        for (int i = 0; i < batch.length; i++) {
+            double single = Functions.integrate(function, leftBounds[i], rightBounds[i], step);
+            double exact = Functions.integrate(function, leftBounds[i], rightBounds[i], step, true);
+            double deviation = Math.abs(batch[i] - single);
+            maxDeviation = Math.max(maxDeviation, deviation);
+            maxMethodError = Math.max(maxMethodError, Math.abs(single - exact));
+            System.out.printf("%-16s [%.5f, %.5f]: пакетно %.12f, по отдельности %.12f, отклонение %.1e%n",
+                kinds[i], leftBounds[i], rightBounds[i], batch[i], single, deviation);
+        }
+        System.out.printf("%n[Main] Наибольшее отклонение пакетного интегрирования: %.1e, "
+            + "наибольшая погрешность метода трапеций: %.1e%n", maxDeviation, maxMethodError);
+        System.out.println("Отклонение в пределах погрешности метода: " + (maxDeviation <= maxMethodError));
+        System.out.println();
+    }
 }
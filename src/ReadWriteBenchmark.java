@@ -0,0 +1,157 @@
+import threads.ReadWriteSemaphore;
+import threads.StampedReadWriteSemaphore;
+import threads.StampedReadWriteSemaphore.FairnessPolicy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сравнение пропускной способности {@link ReadWriteSemaphore} и
+ * {@link StampedReadWriteSemaphore} при конкурентном доступе читателей и писателей.
+ * Каждый поток в течение заданного времени выполняет операции над общими данными
+ * (90% чтений, 10% записей).
+ */
+public class ReadWriteBenchmark {
+    private static final long DURATION_MILLIS = 500;
+    private static final int WRITE_PERCENT = 10;
+    private static final int[] THREAD_COUNTS = {2, 4, 8};
+
+    /**
+     * Общие данные, защищаемые семафором: две границы, которые всегда записываются вместе.
+     */
+    private static final class SharedData {
+        double leftBound;
+        double rightBound = 1.0;
+    }
+
+    /**
+     * Способ синхронизации доступа к общим данным.
+     */
+    private interface Access {
+        double read(SharedData data) throws InterruptedException;
+
+        void write(SharedData data, double value) throws InterruptedException;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== ПРОПУСКНАЯ СПОСОБНОСТЬ СЕМАФОРОВ ЧТЕНИЯ-ЗАПИСИ ===\n");
+        System.out.printf("Длительность замера: %d мс, доля записей: %d%%%n%n", DURATION_MILLIS, WRITE_PERCENT);
+        System.out.printf("%-28s", "Семафор \\ потоков");
+        for (int threads : THREAD_COUNTS) {
+            System.out.printf("%14d", threads);
+        }
+        System.out.println();
+        System.out.println("------------------------------------------------------------------------");
+
+        ReadWriteSemaphore classic = new ReadWriteSemaphore();
+        measure("ReadWriteSemaphore", new Access() {
+            public double read(SharedData data) throws InterruptedException {
+                classic.startRead();
+                try {
+                    return data.rightBound - data.leftBound;
+                } finally {
+                    classic.endRead();
+                }
+            }
+
+            public void write(SharedData data, double value) throws InterruptedException {
+                classic.startWrite();
+                try {
+                    data.leftBound = value;
+                    data.rightBound = value + 1.0;
+                } finally {
+                    classic.endWrite();
+                }
+            }
+        });
+
+        for (FairnessPolicy policy : FairnessPolicy.values()) {
+            measure("Stamped " + policy, stampedAccess(new StampedReadWriteSemaphore(policy), false));
+        }
+        measure("Stamped WRITER_PREF. + opt.",
+            stampedAccess(new StampedReadWriteSemaphore(FairnessPolicy.WRITER_PREFERRING), true));
+
+        System.out.println("\n(операций в секунду)");
+    }
+
+    private static Access stampedAccess(StampedReadWriteSemaphore semaphore, boolean optimistic) {
+        return new Access() {
+            public double read(SharedData data) throws InterruptedException {
+                if (optimistic) {
+                    return semaphore.read(() -> data.rightBound - data.leftBound);
+                }
+                semaphore.startRead();
+                try {
+                    return data.rightBound - data.leftBound;
+                } finally {
+                    semaphore.endRead();
+                }
+            }
+
+            public void write(SharedData data, double value) throws InterruptedException {
+                semaphore.startWrite();
+                try {
+                    data.leftBound = value;
+                    data.rightBound = value + 1.0;
+                } finally {
+                    semaphore.endWrite();
+                }
+            }
+        };
+    }
+
+    private static void measure(String name, Access access) throws InterruptedException {
+        System.out.printf("%-28s", name);
+        for (int threads : THREAD_COUNTS) {
+            System.out.printf("%14.0f", run(access, threads));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Запускает потоки на время DURATION_MILLIS и возвращает количество операций в секунду.
+     */
+    private static double run(Access access, int threadsCount) throws InterruptedException {
+        SharedData data = new SharedData();
+        LongAdder operations = new LongAdder();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadsCount];
+        final long[] deadline = new long[1];
+
+        for (int i = 0; i < threadsCount; i++) {
+            threads[i] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                double sink = 0;
+                long count = 0;
+                try {
+                    startSignal.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        if (random.nextInt(100) < WRITE_PERCENT) {
+                            access.write(data, random.nextDouble());
+                        } else {
+                            sink += access.read(data);
+                        }
+                        count++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                operations.add(count);
+                if (sink == 42.0) {
+                    System.out.print(""); // Не даём JIT удалить чтения
+                }
+            });
+            threads[i].start();
+        }
+
+        long start = System.nanoTime();
+        deadline[0] = start + DURATION_MILLIS * 1_000_000L;
+        startSignal.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return operations.sum() / seconds;
+    }
+}
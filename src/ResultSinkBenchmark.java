@@ -0,0 +1,72 @@
+import functions.Functions;
+import functions.basic.Log;
+import threads.AsyncBatchingResultSink;
+import threads.BinaryResultSink;
+import threads.ConsoleResultSink;
+import threads.InMemoryResultSink;
+import threads.ResultSink;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+/**
+ * Сравнение затрат на вывод результатов заданий разными получателями.
+ * Несколько потоков интегрируют небольшие задания и передают результаты
+ * получателю; вывод направляется в пустой поток, чтобы измерялось только
+ * форматирование и синхронизация, а не скорость консоли.
+ */
+public class ResultSinkBenchmark {
+    private static final int THREADS = 4;
+    private static final int RESULTS_PER_THREAD = 50_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=== СРАВНЕНИЕ ПОЛУЧАТЕЛЕЙ РЕЗУЛЬТАТОВ ===\n");
+        System.out.printf("Потоков: %d, результатов: %d%n%n", THREADS, THREADS * RESULTS_PER_THREAD);
+        System.out.printf("%-28s %-16s %-16s%n", "Получатель", "Всего, мс", "На результат, нс");
+        System.out.println("------------------------------------------------------------");
+
+        measure("printf (ConsoleResultSink)",
+            () -> new ConsoleResultSink(new PrintStream(OutputStream.nullOutputStream())));
+        measure("AsyncBatchingResultSink",
+            () -> new AsyncBatchingResultSink(OutputStream.nullOutputStream(), 1024, 10));
+        measure("BinaryResultSink", () -> new BinaryResultSink(OutputStream.nullOutputStream()));
+        measure("InMemoryResultSink", InMemoryResultSink::new);
+    }
+
+    /**
+     * Выполняет несколько раундов с новым получателем и выводит время лучшего раунда.
+     */
+    private static void measure(String name, Supplier<ResultSink> sinks) throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            best = Math.min(best, run(sinks.get()));
+        }
+        System.out.printf("%-28s %-16.1f %-16.1f%n",
+            name, best / 1e6, (double) best / (THREADS * RESULTS_PER_THREAD));
+    }
+
+    private static long run(ResultSink sink) throws InterruptedException {
+        Log log = new Log(2.0);
+        Thread[] workers = new Thread[THREADS];
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int seed = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < RESULTS_PER_THREAD; i++) {
+                    double left = 1.0 + (seed * RESULTS_PER_THREAD + i) * 1e-6;
+                    double right = left + 1.0;
+                    double result = Functions.integrate(log, left, right, 0.1);
+                    sink.accept(left, right, 0.1, result);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        sink.close();
+        return System.nanoTime() - start;
+    }
+}
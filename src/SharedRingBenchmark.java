@@ -0,0 +1,115 @@
+import functions.basic.Log;
+import threads.SharedTaskRing;
+import threads.Task;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Скорость обмена заданиями через {@link SharedTaskRing} между процессами.
+ * Процесс-генератор публикует задания в кольцо в отображённом файле, а несколько
+ * процессов-потребителей забирают их; интегрирование не выполняется, поэтому
+ * измеряется только передача заданий. Для сравнения те же потребители
+ * запускаются потоками одного процесса.
+ */
+public class SharedRingBenchmark {
+    private static final int TASKS = 2_000_000;
+    private static final int CAPACITY = 4096;
+    private static final int CONSUMERS = 2;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 2 && args[0].equals("consume")) {
+            System.out.println("TAKEN " + consume(SharedTaskRing.open(Path.of(args[1]))));
+            return;
+        }
+
+        System.out.println("=== ОБМЕН ЗАДАНИЯМИ ЧЕРЕЗ ОТОБРАЖЁННЫЙ ФАЙЛ ===\n");
+        System.out.printf("Заданий: %d, вместимость кольца: %d, потребителей: %d%n%n", TASKS, CAPACITY, CONSUMERS);
+        Path path = Files.createTempFile("task-ring", ".bin");
+        try {
+            runThreads(path);
+            runProcesses(path);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void runThreads(Path path) throws IOException, InterruptedException {
+        SharedTaskRing ring = SharedTaskRing.create(path, CAPACITY);
+        long[] taken = new long[CONSUMERS];
+        Thread[] consumers = new Thread[CONSUMERS];
+        for (int i = 0; i < CONSUMERS; i++) {
+            SharedTaskRing view = SharedTaskRing.open(path); // Отдельное отображение, как в другом процессе
+            int index = i;
+            consumers[i] = new Thread(() -> {
+                try {
+                    taken[index] = consume(view);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            consumers[i].start();
+        }
+        long start = System.nanoTime();
+        produce(ring);
+        long total = 0;
+        for (int i = 0; i < CONSUMERS; i++) {
+            consumers[i].join();
+            total += taken[i];
+        }
+        report("Потоки одного процесса", total, System.nanoTime() - start);
+    }
+
+    private static void runProcesses(Path path) throws IOException, InterruptedException {
+        SharedTaskRing ring = SharedTaskRing.create(path, CAPACITY);
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process[] consumers = new Process[CONSUMERS];
+        for (int i = 0; i < CONSUMERS; i++) {
+            consumers[i] = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "SharedRingBenchmark", "consume", path.toString()).redirectErrorStream(true).start();
+        }
+        long start = System.nanoTime();
+        produce(ring);
+        long total = 0;
+        for (Process consumer : consumers) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(consumer.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("TAKEN ")) {
+                        total += Long.parseLong(line.substring(6));
+                    } else {
+                        System.out.println(line);
+                    }
+                }
+            }
+            consumer.waitFor();
+        }
+        report("Отдельные процессы", total, System.nanoTime() - start);
+    }
+
+    private static void produce(SharedTaskRing ring) throws InterruptedException {
+        Log log = new Log(2.0);
+        for (int i = 0; i < TASKS; i++) {
+            double left = 1.0 + (i & 1023);
+            ring.put(new Task.TaskData(log, left, left + 1.0, 0.01));
+        }
+        ring.close();
+    }
+
+    private static long consume(SharedTaskRing ring) throws InterruptedException {
+        long taken = 0;
+        while (ring.take() != null) {
+            taken++;
+        }
+        return taken;
+    }
+
+    private static void report(String name, long taken, long nanos) {
+        System.out.printf("%-24s получено %d из %d, %.1f мс, %.2f млн заданий/с%n",
+            name, taken, TASKS, nanos / 1e6, taken / (nanos / 1e3));
+    }
+}
@@ -0,0 +1,410 @@
+import threads.LatencyHistogram;
+import threads.ReadWriteSemaphore;
+import threads.Semaphore;
+import threads.StampedReadWriteSemaphore;
+import threads.StampedReadWriteSemaphore.FairnessPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Конкуренция и справедливость синхронизаторов чтения-записи.
+ *
+ * Для каждого синхронизатора проекта ({@link Semaphore}, {@link ReadWriteSemaphore},
+ * {@link StampedReadWriteSemaphore}) и для аналогов из java.util.concurrent
+ * потоки-читатели и потоки-писатели в течение заданного времени захватывают
+ * синхронизатор и выполняют короткую операцию над общими данными. Выводятся
+ * пропускная способность и время захвата по ролям: медиана, 99-й процентиль
+ * и максимум; максимум показывает голодание роли (например, писателей
+ * при приоритете читателей).
+ *
+ * Параметры (необязательные): {@code threads=1,2,4,...} - количество потоков,
+ * {@code writes=10,50} - доля писателей в процентах, {@code millis=200} -
+ * длительность замера. Например:
+ * {@code java SynchronizerBenchmark threads=4,64 writes=5 millis=500}.
+ *
+ * Время захвата измеряется двумя вызовами {@link System#nanoTime()}, поэтому
+ * значения меньше ~50 нс отражают в основном стоимость самого измерения.
+ */
+public class SynchronizerBenchmark {
+    private static final int[] DEFAULT_THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int[] DEFAULT_WRITE_PERCENTS = {10, 50};
+    private static final long DEFAULT_DURATION_MILLIS = 200;
+
+    /**
+     * Общие данные: две границы, которые всегда записываются вместе.
+     */
+    private static final class SharedData {
+        double leftBound;
+        double rightBound = 1.0;
+    }
+
+    /**
+     * Захват и освобождение синхронизатора для каждой роли.
+     */
+    private interface Synchronizer {
+        void startRead() throws InterruptedException;
+
+        void endRead();
+
+        void startWrite() throws InterruptedException;
+
+        void endWrite();
+    }
+
+    /**
+     * Именованная фабрика синхронизаторов: каждый замер получает новый экземпляр.
+     */
+    private static final class Candidate {
+        final String name;
+        final Supplier<Synchronizer> factory;
+
+        Candidate(String name, Supplier<Synchronizer> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * Результат одного замера.
+     */
+    private static final class Measurement {
+        final double operationsPerSecond;
+        final double fairness;
+        final LatencyHistogram readAcquire;
+        final LatencyHistogram writeAcquire;
+
+        Measurement(double operationsPerSecond, double fairness, LatencyHistogram readAcquire,
+                    LatencyHistogram writeAcquire) {
+            this.operationsPerSecond = operationsPerSecond;
+            this.fairness = fairness;
+            this.readAcquire = readAcquire;
+            this.writeAcquire = writeAcquire;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] threadCounts = DEFAULT_THREAD_COUNTS;
+        int[] writePercents = DEFAULT_WRITE_PERCENTS;
+        long durationMillis = DEFAULT_DURATION_MILLIS;
+        for (String arg : args) {
+            try {
+                if (arg.startsWith("threads=")) {
+                    threadCounts = parseList(arg.substring(8), 1, 1024);
+                } else if (arg.startsWith("writes=")) {
+                    writePercents = parseList(arg.substring(7), 0, 100);
+                } else if (arg.startsWith("millis=")) {
+                    durationMillis = parseList(arg.substring(7), 1, 600_000)[0];
+                } else {
+                    throw new IllegalArgumentException("неизвестный параметр " + arg);
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Некорректные параметры: " + e.getMessage());
+                System.err.println("Использование: java SynchronizerBenchmark [threads=1,2,4] [writes=10,50] [millis=200]");
+                System.exit(2);
+            }
+        }
+
+        System.out.println("=== КОНКУРЕНЦИЯ И СПРАВЕДЛИВОСТЬ СИНХРОНИЗАТОРОВ ===\n");
+        System.out.printf("Длительность замера: %d мс, доступно процессоров: %d%n",
+            durationMillis, Runtime.getRuntime().availableProcessors());
+        System.out.println("Время захвата - в микросекундах: медиана / 99% / максимум");
+        System.out.println("Справедливость - отношение операций самого медленного потока к самому быстрому в роли\n");
+
+        List<Candidate> candidates = candidates();
+        for (int writePercent : writePercents) {
+            System.out.printf("--- Писателей: %d%% ---%n", writePercent);
+            System.out.printf("%-30s %7s %14s %8s   %-26s %-26s%n",
+                "Синхронизатор", "Потоков", "Операций/с", "Справ.", "Захват чтения", "Захват записи");
+            for (Candidate candidate : candidates) {
+                for (int threads : threadCounts) {
+                    Measurement m = run(candidate.factory.get(), threads, writePercent, durationMillis);
+                    System.out.printf("%-30s %7d %14.0f %8.2f   %-26s %-26s%n", candidate.name, threads,
+                        m.operationsPerSecond, m.fairness, format(m.readAcquire), format(m.writeAcquire));
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    private static List<Candidate> candidates() {
+        List<Candidate> candidates = new ArrayList<>();
+        candidates.add(new Candidate("threads.Semaphore", () -> {
+            Semaphore semaphore = new Semaphore();
+            return new Synchronizer() {
+                @Override
+                public void startRead() throws InterruptedException {
+                    semaphore.beginRead();
+                }
+
+                @Override
+                public void endRead() {
+                    semaphore.endRead();
+                }
+
+                @Override
+                public void startWrite() throws InterruptedException {
+                    semaphore.beginWrite();
+                }
+
+                @Override
+                public void endWrite() {
+                    semaphore.endWrite(); // Помечает данные готовыми - читатели не ждут первой записи бесконечно
+                }
+            };
+        }));
+        candidates.add(new Candidate("threads.ReadWriteSemaphore", () -> {
+            ReadWriteSemaphore semaphore = new ReadWriteSemaphore();
+            return new Synchronizer() {
+                @Override
+                public void startRead() throws InterruptedException {
+                    semaphore.startRead();
+                }
+
+                @Override
+                public void endRead() {
+                    semaphore.endRead();
+                }
+
+                @Override
+                public void startWrite() throws InterruptedException {
+                    semaphore.startWrite();
+                }
+
+                @Override
+                public void endWrite() {
+                    semaphore.endWrite();
+                }
+            };
+        }));
+        for (FairnessPolicy policy : FairnessPolicy.values()) {
+            candidates.add(new Candidate("Stamped " + policy, () -> {
+                StampedReadWriteSemaphore semaphore = new StampedReadWriteSemaphore(policy);
+                return new Synchronizer() {
+                    @Override
+                    public void startRead() throws InterruptedException {
+                        semaphore.startRead();
+                    }
+
+                    @Override
+                    public void endRead() {
+                        semaphore.endRead();
+                    }
+
+                    @Override
+                    public void startWrite() throws InterruptedException {
+                        semaphore.startWrite();
+                    }
+
+                    @Override
+                    public void endWrite() {
+                        semaphore.endWrite();
+                    }
+                };
+            }));
+        }
+        candidates.add(new Candidate("ReentrantReadWriteLock", () -> readWriteLock(new ReentrantReadWriteLock())));
+        candidates.add(new Candidate("ReentrantReadWriteLock (fair)",
+            () -> readWriteLock(new ReentrantReadWriteLock(true))));
+        candidates.add(new Candidate("StampedLock", () -> {
+            StampedLock lock = new StampedLock();
+            return new Synchronizer() {
+                @Override
+                public void startRead() throws InterruptedException {
+                    lock.readLockInterruptibly();
+                }
+
+                @Override
+                public void endRead() {
+                    lock.tryUnlockRead();
+                }
+
+                @Override
+                public void startWrite() throws InterruptedException {
+                    lock.writeLockInterruptibly();
+                }
+
+                @Override
+                public void endWrite() {
+                    lock.tryUnlockWrite();
+                }
+            };
+        }));
+        candidates.add(new Candidate("j.u.c.Semaphore(1)", () -> {
+            java.util.concurrent.Semaphore semaphore = new java.util.concurrent.Semaphore(1);
+            return new Synchronizer() {
+                @Override
+                public void startRead() throws InterruptedException {
+                    semaphore.acquire();
+                }
+
+                @Override
+                public void endRead() {
+                    semaphore.release();
+                }
+
+                @Override
+                public void startWrite() throws InterruptedException {
+                    semaphore.acquire();
+                }
+
+                @Override
+                public void endWrite() {
+                    semaphore.release();
+                }
+            };
+        }));
+        return candidates;
+    }
+
+    private static Synchronizer readWriteLock(ReentrantReadWriteLock lock) {
+        return new Synchronizer() {
+            @Override
+            public void startRead() throws InterruptedException {
+                lock.readLock().lockInterruptibly();
+            }
+
+            @Override
+            public void endRead() {
+                lock.readLock().unlock();
+            }
+
+            @Override
+            public void startWrite() throws InterruptedException {
+                lock.writeLock().lockInterruptibly();
+            }
+
+            @Override
+            public void endWrite() {
+                lock.writeLock().unlock();
+            }
+        };
+    }
+
+    /**
+     * Запускает потоки на заданное время. При нескольких потоках каждый поток - либо читатель,
+     * либо писатель (писателей не меньше одного и не больше количества потоков минус один,
+     * если доля писателей не равна 0 или 100%); единственный поток выбирает роль
+     * для каждой операции случайно.
+     */
+    private static Measurement run(Synchronizer synchronizer, int threadsCount, int writePercent, long durationMillis)
+            throws InterruptedException {
+        SharedData data = new SharedData();
+        // Первая запись до замера: threads.Semaphore не пускает читателей, пока данные не готовы
+        synchronizer.startWrite();
+        synchronizer.endWrite();
+
+        int writers = (int) Math.round(threadsCount * writePercent / 100.0);
+        if (threadsCount > 1 && writePercent > 0 && writePercent < 100) {
+            writers = Math.max(1, Math.min(threadsCount - 1, writers));
+        }
+        LatencyHistogram readAcquire = new LatencyHistogram();
+        LatencyHistogram writeAcquire = new LatencyHistogram();
+        long[] operations = new long[threadsCount];
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadsCount];
+        final long[] deadline = new long[1];
+
+        for (int i = 0; i < threadsCount; i++) {
+            int index = i;
+            boolean mixed = threadsCount == 1;
+            boolean writer = i < writers;
+            threads[i] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                double sink = 0;
+                long count = 0;
+                try {
+                    startSignal.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        boolean write = mixed ? random.nextInt(100) < writePercent : writer;
+                        long start = System.nanoTime();
+                        if (write) {
+                            synchronizer.startWrite();
+                            writeAcquire.record(System.nanoTime() - start);
+                            try {
+                                double value = random.nextDouble();
+                                data.leftBound = value;
+                                data.rightBound = value + 1.0;
+                            } finally {
+                                synchronizer.endWrite();
+                            }
+                        } else {
+                            synchronizer.startRead();
+                            readAcquire.record(System.nanoTime() - start);
+                            try {
+                                sink += data.rightBound - data.leftBound;
+                            } finally {
+                                synchronizer.endRead();
+                            }
+                        }
+                        count++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                operations[index] = count;
+                if (sink == 42.0) {
+                    System.out.print(""); // Не даём JIT удалить чтения
+                }
+            });
+            threads[i].start();
+        }
+
+        long start = System.nanoTime();
+        deadline[0] = start + durationMillis * 1_000_000L;
+        startSignal.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = 0;
+        for (long count : operations) {
+            total += count;
+        }
+        // Читатели и писатели выполняют разную работу, поэтому сравниваются только потоки одной роли
+        double fairness = Math.min(fairness(operations, 0, writers), fairness(operations, writers, threadsCount));
+        return new Measurement(total / seconds, fairness, readAcquire, writeAcquire);
+    }
+
+    /**
+     * Отношение минимального количества операций к максимальному среди потоков [from, to):
+     * 1 - потоки продвигались одинаково, 0 - хотя бы один поток голодал весь замер.
+     */
+    private static double fairness(long[] operations, int from, int to) {
+        if (to - from < 2) {
+            return 1.0;
+        }
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, operations[i]);
+            max = Math.max(max, operations[i]);
+        }
+        return max == 0 ? 1.0 : (double) min / max;
+    }
+
+    private static String format(LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return "-";
+        }
+        return String.format("%.1f / %.1f / %.1f", histogram.getQuantileNanos(0.5) / 1e3,
+            histogram.getQuantileNanos(0.99) / 1e3, histogram.getMaxNanos() / 1e3);
+    }
+
+    private static int[] parseList(String value, int min, int max) {
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+            if (result[i] < min || result[i] > max) {
+                throw new IllegalArgumentException("значение " + result[i] + " вне диапазона [" + min + ", " + max + "]");
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package functions;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Признак отмены длительного вычисления.
+ *
+ * Вычисление периодически проверяет признак через {@link #isCancelled()} или
+ * {@link #throwIfCancelled()} и прекращается, как только отмена запрошена из другого
+ * потока, истёк срок выполнения или был прерван поток, которому принадлежит признак.
+ * Срок задаётся по часам {@link System#nanoTime()}, поэтому не зависит от перевода
+ * системного времени.
+ */
+public class CancellationToken {
+    /** Значение срока выполнения для вычисления без ограничения по времени. */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private final Thread owner;
+    private volatile boolean cancelled;
+
+    /**
+     * Создаёт признак, отменяемый только вызовом {@link #cancel()}.
+     */
+    public CancellationToken() {
+        this(NO_DEADLINE, null);
+    }
+
+    /**
+     * Создаёт признак со сроком выполнения.
+     * @param deadlineNanos срок выполнения по часам {@link System#nanoTime()} или {@link #NO_DEADLINE}
+     */
+    public CancellationToken(long deadlineNanos) {
+        this(deadlineNanos, null);
+    }
+
+    /**
+     * Создаёт признак со сроком выполнения, который также срабатывает при прерывании потока.
+     * @param deadlineNanos срок выполнения по часам {@link System#nanoTime()} или {@link #NO_DEADLINE}
+     * @param owner поток, прерывание которого отменяет вычисление, или null
+     */
+    public CancellationToken(long deadlineNanos, Thread owner) {
+        this.deadlineNanos = deadlineNanos;
+        this.owner = owner;
+    }
+
+    /**
+     * Создаёт признак, срок выполнения которого истекает через заданное время.
+     * @param timeout допустимое время выполнения
+     * @param unit единица измерения времени
+     * @return признак отмены
+     * @throws IllegalArgumentException если время отрицательно
+     */
+    public static CancellationToken withTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        return new CancellationToken(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Запрашивает отмену вычисления.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Проверяет, запрошена ли отмена, истёк ли срок выполнения или прерван ли поток-владелец.
+     * @return true, если вычисление следует прекратить
+     */
+    public boolean isCancelled() {
+        return cancelled || isDeadlineExceeded() || (owner != null && owner.isInterrupted());
+    }
+
+    /**
+     * Проверяет, истёк ли срок выполнения.
+     * @return true, если срок задан и истёк
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Возвращает срок выполнения.
+     * @return срок выполнения по часам {@link System#nanoTime()} или {@link #NO_DEADLINE}
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Прерывает вычисление, если его следует прекратить.
+     * @throws CancellationException если запрошена отмена, истёк срок выполнения или прерван поток-владелец
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Вычисление отменено");
+        }
+        if (isDeadlineExceeded()) {
+            throw new CancellationException("Истёк срок выполнения вычисления");
+        }
+        if (owner != null && owner.isInterrupted()) {
+            throw new CancellationException("Поток вычисления прерван");
+        }
+    }
+}
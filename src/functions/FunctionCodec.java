@@ -0,0 +1,241 @@
+package functions;
+
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.basic.Tan;
+import functions.meta.Composition;
+import functions.meta.Mult;
+import functions.meta.Power;
+import functions.meta.Scale;
+import functions.meta.Shift;
+import functions.meta.Sum;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Компактное двоичное представление функций для передачи заданий между потоками,
+ * процессами и запусками программы.
+ *
+ * Функция записывается как дерево в прямом порядке обхода: байт вида узла, затем
+ * параметры узла (double) и поддеревья. Поддерживаются базовые функции
+ * ({@link Exp}, {@link Log}, {@link Sin}, {@link Cos}, {@link Tan}), мета-функции
+ * ({@link Sum}, {@link Mult}, {@link Composition}, {@link Power}, {@link Scale},
+ * {@link Shift}) и табулированные функции (записываются точки, восстанавливается
+ * {@link ArrayTabulatedFunction}). Наследники этих классов могут переопределять
+ * поведение, поэтому кодируются только точные классы. Например, логарифм
+ * занимает 9 байт, а сумма двух логарифмов - 19.
+ */
+public class FunctionCodec {
+    private static final byte EXP = 1;
+    private static final byte LOG = 2;
+    private static final byte SIN = 3;
+    private static final byte COS = 4;
+    private static final byte TAN = 5;
+    private static final byte SUM = 16;
+    private static final byte MULT = 17;
+    private static final byte COMPOSITION = 18;
+    private static final byte POWER = 19;
+    private static final byte SCALE = 20;
+    private static final byte SHIFT = 21;
+    private static final byte TABULATED = 32;
+
+    private static final int MAX_DEPTH = 256; // Защита от переполнения стека на повреждённых данных
+    private static final int MAX_POINTS = 1 << 24; // Защита от выделения огромного массива на повреждённых данных
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров класса.
+     */
+    private FunctionCodec() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    /**
+     * Проверяет, может ли функция быть закодирована.
+     * @param function функция
+     * @return true, если все узлы дерева функции поддерживаются
+     */
+    public static boolean isEncodable(Function function) {
+        return isEncodable(function, 0);
+    }
+
+    /**
+     * Записывает функцию в двоичном виде.
+     * @param function функция
+     * @param out поток вывода
+     * @throws IllegalArgumentException если функция или один из её узлов не поддерживается
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    public static void writeFunction(Function function, DataOutput out) throws IOException {
+        if (!isEncodable(function)) {
+            throw new IllegalArgumentException("Функция не может быть закодирована: "
+                    + (function == null ? "null" : function.getClass().getName()));
+        }
+        write(function, out);
+    }
+
+    /**
+     * Считывает функцию, записанную {@link #writeFunction(Function, DataOutput)}.
+     * @param in поток ввода
+     * @return восстановленная функция
+     * @throws IOException если возникает ошибка ввода-вывода или данные повреждены
+     */
+    public static Function readFunction(DataInput in) throws IOException {
+        return read(in, 0);
+    }
+
+    private static boolean isEncodable(Function function, int depth) {
+        if (function == null || depth >= MAX_DEPTH) {
+            return false;
+        }
+        Class<?> type = function.getClass();
+        if (type == Exp.class || type == Log.class || type == Sin.class || type == Cos.class
+                || type == Tan.class || type == ArrayTabulatedFunction.class
+                || type == LinkedListTabulatedFunction.class) {
+            return true;
+        }
+        if (type == Sum.class) {
+            Sum sum = (Sum) function;
+            return isEncodable(sum.getFirstFunction(), depth + 1) && isEncodable(sum.getSecondFunction(), depth + 1);
+        }
+        if (type == Mult.class) {
+            Mult mult = (Mult) function;
+            return isEncodable(mult.getFirstFunction(), depth + 1) && isEncodable(mult.getSecondFunction(), depth + 1);
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            return isEncodable(composition.getFirstFunction(), depth + 1)
+                    && isEncodable(composition.getSecondFunction(), depth + 1);
+        }
+        if (type == Power.class) {
+            return isEncodable(((Power) function).getFunction(), depth + 1);
+        }
+        if (type == Scale.class) {
+            return isEncodable(((Scale) function).getFunction(), depth + 1);
+        }
+        if (type == Shift.class) {
+            return isEncodable(((Shift) function).getFunction(), depth + 1);
+        }
+        return false;
+    }
+
+    private static void write(Function function, DataOutput out) throws IOException {
+        Class<?> type = function.getClass();
+        if (type == Exp.class) {
+            out.writeByte(EXP);
+        } else if (type == Log.class) {
+            out.writeByte(LOG);
+            out.writeDouble(((Log) function).getBase());
+        } else if (type == Sin.class) {
+            out.writeByte(SIN);
+        } else if (type == Cos.class) {
+            out.writeByte(COS);
+        } else if (type == Tan.class) {
+            out.writeByte(TAN);
+        } else if (type == Sum.class) {
+            out.writeByte(SUM);
+            write(((Sum) function).getFirstFunction(), out);
+            write(((Sum) function).getSecondFunction(), out);
+        } else if (type == Mult.class) {
+            out.writeByte(MULT);
+            write(((Mult) function).getFirstFunction(), out);
+            write(((Mult) function).getSecondFunction(), out);
+        } else if (type == Composition.class) {
+            out.writeByte(COMPOSITION);
+            write(((Composition) function).getFirstFunction(), out);
+            write(((Composition) function).getSecondFunction(), out);
+        } else if (type == Power.class) {
+            Power power = (Power) function;
+            out.writeByte(POWER);
+            out.writeDouble(power.getPower());
+            write(power.getFunction(), out);
+        } else if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            out.writeByte(SCALE);
+            out.writeDouble(scale.getScaleX());
+            out.writeDouble(scale.getScaleY());
+            write(scale.getFunction(), out);
+        } else if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            out.writeByte(SHIFT);
+            out.writeDouble(shift.getShiftX());
+            out.writeDouble(shift.getShiftY());
+            write(shift.getFunction(), out);
+        } else {
+            // Табулированная функция: количество точек и сами точки, как в TabulatedFunctions
+            TabulatedFunction tabulated = (TabulatedFunction) function;
+            int pointsCount = tabulated.getPointsCount();
+            out.writeByte(TABULATED);
+            out.writeInt(pointsCount);
+            for (int i = 0; i < pointsCount; i++) {
+                out.writeDouble(tabulated.getPointX(i));
+                out.writeDouble(tabulated.getPointY(i));
+            }
+        }
+    }
+
+    private static Function read(DataInput in, int depth) throws IOException {
+        if (depth >= MAX_DEPTH) {
+            throw new IOException("Превышена допустимая глубина дерева функции: " + MAX_DEPTH);
+        }
+        byte tag = in.readByte();
+        try {
+            switch (tag) {
+                case EXP:
+                    return new Exp();
+                case LOG:
+                    return new Log(in.readDouble());
+                case SIN:
+                    return new Sin();
+                case COS:
+                    return new Cos();
+                case TAN:
+                    return new Tan();
+                case SUM:
+                    return new Sum(read(in, depth + 1), read(in, depth + 1));
+                case MULT:
+                    return new Mult(read(in, depth + 1), read(in, depth + 1));
+                case COMPOSITION:
+                    return new Composition(read(in, depth + 1), read(in, depth + 1));
+                case POWER: {
+                    double power = in.readDouble();
+                    return new Power(read(in, depth + 1), power);
+                }
+                case SCALE: {
+                    double scaleX = in.readDouble();
+                    double scaleY = in.readDouble();
+                    return new Scale(read(in, depth + 1), scaleX, scaleY);
+                }
+                case SHIFT: {
+                    double shiftX = in.readDouble();
+                    double shiftY = in.readDouble();
+                    return new Shift(read(in, depth + 1), shiftX, shiftY);
+                }
+                case TABULATED:
+                    return readTabulated(in);
+                default:
+                    throw new IOException("Неизвестный вид функции: " + tag);
+            }
+        } catch (IllegalArgumentException e) {
+            // Конструкторы отвергли параметры - данные повреждены
+            throw new IOException("Некорректные параметры функции: " + e.getMessage(), e);
+        }
+    }
+
+    private static Function readTabulated(DataInput in) throws IOException {
+        int pointsCount = in.readInt();
+        if (pointsCount < 2 || pointsCount > MAX_POINTS) {
+            throw new IOException("Invalid points count: " + pointsCount);
+        }
+        FunctionPoint[] points = new FunctionPoint[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            double x = in.readDouble();
+            double y = in.readDouble();
+            points[i] = new FunctionPoint(x, y);
+        }
+        return new ArrayTabulatedFunction(points);
+    }
+}
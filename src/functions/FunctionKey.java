@@ -0,0 +1,93 @@
+package functions;
+
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.basic.Tan;
+
+/**
+ * Ключ, идентифицирующий функцию при кэшировании результатов вычислений.
+ * Для базовых функций ({@link Exp}, {@link Sin}, {@link Cos}, {@link Tan}, {@link Log})
+ * сравнение выполняется по значению: две функции одного класса (и, для логарифма,
+ * с одинаковым основанием) считаются одинаковыми. Для всех остальных функций
+ * используется сравнение по ссылке, поскольку их значения могут зависеть
+ * от изменяемого состояния (например, табулированные функции).
+ */
+public final class FunctionKey {
+    private final Function function;
+    private final Class<?> type;
+    private final double parameter;
+    private final boolean valueBased;
+
+    private FunctionKey(Function function, Class<?> type, double parameter, boolean valueBased) {
+        this.function = function;
+        this.type = type;
+        this.parameter = parameter;
+        this.valueBased = valueBased;
+    }
+
+    /**
+     * Создаёт ключ для заданной функции.
+     * @param function функция
+     * @return ключ функции
+     * @throws IllegalArgumentException если функция равна null
+     */
+    public static FunctionKey of(Function function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function must not be null");
+        }
+        // Наследники базовых классов могут переопределять поведение,
+        // поэтому по значению сравниваются только точные классы
+        Class<?> type = function.getClass();
+        if (type == Log.class) {
+            return new FunctionKey(null, Log.class, ((Log) function).getBase(), true);
+        }
+        if (type == Exp.class || type == Sin.class || type == Cos.class || type == Tan.class) {
+            return new FunctionKey(null, type, 0.0, true);
+        }
+        return new FunctionKey(function, type, 0.0, false);
+    }
+
+    /**
+     * Проверяет, сравнивается ли ключ по значению функции, а не по ссылке.
+     * @return true, если ключ построен по значению
+     */
+    public boolean isValueBased() {
+        return valueBased;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FunctionKey)) {
+            return false;
+        }
+        FunctionKey that = (FunctionKey) o;
+        if (valueBased != that.valueBased) {
+            return false;
+        }
+        if (!valueBased) {
+            return function == that.function;
+        }
+        return type == that.type && Double.compare(parameter, that.parameter) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        if (!valueBased) {
+            return System.identityHashCode(function);
+        }
+        return 31 * type.hashCode() + Double.hashCode(parameter);
+    }
+
+    @Override
+    public String toString() {
+        if (!valueBased) {
+            return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(function));
+        }
+        return type == Log.class ? "Log(" + parameter + ")" : type.getSimpleName();
+    }
+}
@@ -2,11 +2,18 @@ package functions;
 
 import functions.meta.*;
 
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
 /**
  * Утилитарный класс, содержащий вспомогательные статические методы
  * для работы с функциями. Нельзя создать объект этого класса.
  */
 public class Functions {
+    /**
+     * Количество участков между проверками признака отмены при интегрировании.
+     */
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
 
     /**
      * Приватный конструктор для предотвращения создания экземпляров класса.
@@ -87,38 +94,309 @@ public class Functions {
      * @throws IllegalArgumentException если интервал выходит за границы области определения функции
      */
     public static double integrate(Function function, double leftBound, double rightBound, double step) {
-        if (leftBound >= rightBound) {
-            throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
-        }
-        if (step <= 0) {
-            throw new IllegalArgumentException("Шаг дискретизации должен быть положительным");
+        return integrate(function, leftBound, rightBound, step, (CancellationToken) null);
+    }
+
+    /**
+     * Вычисляет определенный интеграл функции на заданном интервале методом трапеций
+     * с возможностью отмены. Признак отмены проверяется каждые
+     * {@value #CANCELLATION_CHECK_INTERVAL} участков.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @param token признак отмены (null, если отмена не требуется)
+     * @return значение интеграла
+     * @throws IllegalArgumentException если интервал выходит за границы области определения функции
+     * @throws java.util.concurrent.CancellationException если вычисление было отменено
+     */
+    public static double integrate(Function function, double leftBound, double rightBound, double step,
+                                   CancellationToken token) {
+        PartialIntegral integral = integratePartial(function, leftBound, rightBound, step, token);
+        if (!integral.isComplete()) {
+            token.throwIfCancelled();
+            throw new CancellationException("Вычисление отменено");
         }
+        return integral.value;
+    }
 
-        // Проверка границ области определения
-        if (leftBound < function.getLeftDomainBorder() || rightBound > function.getRightDomainBorder()) {
-            throw new IllegalArgumentException("Интервал интегрирования [" + leftBound + ", " + rightBound +
-                    "] выходит за границы области определения функции [" +
-                    function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]");
+    /**
+     * Вычисляет определенный интеграл функции методом трапеций, прекращая вычисление
+     * при отмене вместо выброса исключения. Признак отмены (в том числе срок выполнения)
+     * проверяется каждые {@value #CANCELLATION_CHECK_INTERVAL} участков; при отмене
+     * возвращается интеграл на уже пройденной части отрезка. Для функций, поддерживаемых
+     * {@link TrapezoidKernels}, используется специализированное ядро по той же сетке.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @param token признак отмены (null, если отмена не требуется)
+     * @return значение интеграла и пройденная часть отрезка
+     * @throws IllegalArgumentException если интервал выходит за границы области определения функции
+     */
+    public static PartialIntegral integratePartial(Function function, double leftBound, double rightBound,
+                                                   double step, CancellationToken token) {
+        checkIntegrationArguments(function, leftBound, rightBound, step);
+        // Для линейных комбинаций базовых функций - блочное ядро без виртуальных вызовов
+        PartialIntegral kernel = TrapezoidKernels.integratePartial(function, leftBound, rightBound, step, token);
+        if (kernel != null) {
+            return kernel;
         }
 
         double integral = 0.0;
         double x = leftBound;
+        // Значение в правой точке участка переиспользуется как значение в левой точке
+        // следующего участка, поэтому каждая точка сетки вычисляется ровно один раз
+        double f_x = function.getFunctionValue(x);
+        int untilCheck = CANCELLATION_CHECK_INTERVAL;
 
         while (x < rightBound) {
+            if (--untilCheck == 0) {
+                untilCheck = CANCELLATION_CHECK_INTERVAL;
+                if (token != null && token.isCancelled()) {
+                    return new PartialIntegral(integral, leftBound, x, rightBound);
+                }
+            }
             double xNext = Math.min(x + step, rightBound);
             double h = xNext - x; // длина текущего участка
 
             // Площадь трапеции: h * (f(x) + f(xNext)) / 2
-            double f_x = function.getFunctionValue(x);
             double f_xNext = function.getFunctionValue(xNext);
             integral += h * (f_x + f_xNext) / 2.0;
 
             x = xNext;
+            f_x = f_xNext;
         }
 
-        return integral;
+        return new PartialIntegral(integral, leftBound, rightBound, rightBound);
     }
-}
 
+    /**
+     * Вычисляет определенный интеграл функции на заданном интервале.
+     * В точном режиме для функций, реализующих {@link IntegrableFunction}, интеграл
+     * вычисляется по формуле Ньютона-Лейбница за константное время; в остальных случаях
+     * (а также если первообразная разрывна на интервале) используется метод трапеций.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации (используется при численном интегрировании)
+     * @param exact true, если следует по возможности использовать первообразную
+     * @return значение интеграла
+     * @throws IllegalArgumentException если интервал выходит за границы области определения функции
+     */
+    public static double integrate(Function function, double leftBound, double rightBound, double step, boolean exact) {
+        if (exact && hasExactIntegral(function, leftBound, rightBound)) {
+            IntegrableFunction integrable = (IntegrableFunction) function;
+            checkIntegrationArguments(function, leftBound, rightBound, step);
+            return integrable.getAntiderivativeValue(rightBound) - integrable.getAntiderivativeValue(leftBound);
+        }
+        return integrate(function, leftBound, rightBound, step);
+    }
 
+    /**
+     * Проверяет, можно ли вычислить интеграл функции на отрезке по формуле Ньютона-Лейбница.
+     * @param function функция
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @return true, если функция реализует {@link IntegrableFunction} и её первообразная
+     * непрерывна на отрезке
+     */
+    public static boolean hasExactIntegral(Function function, double leftBound, double rightBound) {
+        return function instanceof IntegrableFunction
+                && ((IntegrableFunction) function).hasAntiderivativeOn(leftBound, rightBound);
+    }
 
+    /**
+     * Вычисляет интегралы одной функции на множестве интервалов с общим шагом дискретизации.
+     *
+     * Все интервалы интегрируются по общей сетке с узлами origin + k * step, где origin -
+     * наименьшая левая граница. Интервалы сортируются по левой границе и объединяются
+     * в непересекающиеся участки; на каждом участке значения функции в узлах сетки
+     * вычисляются один раз, а площади трапеций накапливаются в префиксные суммы.
+     * Интеграл по интервалу получается как разность префиксных сумм плюс две неполные
+     * трапеции у его концов. Поскольку сетка привязана к origin, а не к левой границе
+     * каждого интервала, результат может немного отличаться от
+     * {@link #integrate(Function, double, double, double)} (в пределах погрешности метода).
+     *
+     * @param function функция для интегрирования
+     * @param leftBounds левые границы интервалов
+     * @param rightBounds правые границы интервалов
+     * @param step шаг дискретизации
+     * @return массив значений интегралов в порядке следования интервалов
+     * @throws IllegalArgumentException если массивы границ имеют разную длину или какой-либо
+     * интервал некорректен либо выходит за границы области определения функции
+     */
+    public static double[] integrateBatch(Function function, double[] leftBounds, double[] rightBounds, double step) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function must not be null");
+        }
+        if (leftBounds == null || rightBounds == null || leftBounds.length != rightBounds.length) {
+            throw new IllegalArgumentException("Массивы границ должны быть заданы и иметь одинаковую длину");
+        }
+        int count = leftBounds.length;
+        double[] results = new double[count];
+        if (count == 0) {
+            return results;
+        }
+        for (int i = 0; i < count; i++) {
+            try {
+                checkIntegrationArguments(function, leftBounds[i], rightBounds[i], step);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Интервал " + i + ": " + e.getMessage(), e);
+            }
+        }
+
+        // Сортируем интервалы по левой границе
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(leftBounds[a], leftBounds[b]));
+        double origin = leftBounds[order[0]];
+
+        int blockStart = 0;
+        while (blockStart < count) {
+            // Объединяем перекрывающиеся интервалы в один участок
+            double blockLeft = leftBounds[order[blockStart]];
+            double blockRight = rightBounds[order[blockStart]];
+            int blockEnd = blockStart + 1;
+            while (blockEnd < count && leftBounds[order[blockEnd]] <= blockRight) {
+                blockRight = Math.max(blockRight, rightBounds[order[blockEnd]]);
+                blockEnd++;
+            }
+
+            integrateBlock(function, origin, step, blockLeft, blockRight,
+                    order, blockStart, blockEnd, leftBounds, rightBounds, results);
+            blockStart = blockEnd;
+        }
+
+        return results;
+    }
+
+    /**
+     * Вычисляет интегралы для интервалов одного участка общей сетки.
+     *
+     * Узлы участка обходятся один раз с накоплением префиксной суммы площадей трапеций;
+     * сумма и значение функции запоминаются только в узлах, ближайших к границам
+     * интервалов. Поэтому память не зависит от количества узлов, и участок любой длины
+     * обрабатывается так же, как последовательным {@link #integrate(Function, double, double, double)}.
+     */
+    private static void integrateBlock(Function function, double origin, double step,
+                                       double blockLeft, double blockRight,
+                                       Integer[] order, int from, int to,
+                                       double[] leftBounds, double[] rightBounds, double[] results) {
+        long firstNode = firstNodeAtOrAfter(origin, step, blockLeft);
+        long lastNode = lastNodeAtOrBefore(origin, step, blockRight);
+
+        // Для интервала с номером k в участке: узел 2k - первый узел внутри интервала, 2k + 1 - последний
+        int intervalsCount = to - from;
+        long[] queryNodes = new long[2 * intervalsCount];
+        for (int k = 0; k < intervalsCount; k++) {
+            int index = order[from + k];
+            long a = firstNodeAtOrAfter(origin, step, leftBounds[index]);
+            long b = lastNodeAtOrBefore(origin, step, rightBounds[index]);
+            // Интервалу без узлов сетки суммы не нужны
+            queryNodes[2 * k] = a <= b ? a : Long.MAX_VALUE;
+            queryNodes[2 * k + 1] = a <= b ? b : Long.MAX_VALUE;
+        }
+        Integer[] queries = new Integer[queryNodes.length];
+        for (int q = 0; q < queries.length; q++) {
+            queries[q] = q;
+        }
+        Arrays.sort(queries, (x, y) -> Long.compare(queryNodes[x], queryNodes[y]));
+
+        double[] queryPrefix = new double[queryNodes.length];
+        double[] queryValues = new double[queryNodes.length];
+        int next = 0;
+        double prefix = 0.0;
+        double previousX = 0.0;
+        double previousValue = 0.0;
+        for (long node = firstNode; node <= lastNode && next < queries.length; node++) {
+            double x = origin + node * step;
+            double value = function.getFunctionValue(x);
+            if (node > firstNode) {
+                prefix += (x - previousX) * (previousValue + value) / 2.0;
+            }
+            while (next < queries.length && queryNodes[queries[next]] == node) {
+                queryPrefix[queries[next]] = prefix;
+                queryValues[queries[next]] = value;
+                next++;
+            }
+            previousX = x;
+            previousValue = value;
+        }
+
+        for (int k = 0; k < intervalsCount; k++) {
+            int index = order[from + k];
+            double left = leftBounds[index];
+            double right = rightBounds[index];
+            double f_left = function.getFunctionValue(left);
+            double f_right = function.getFunctionValue(right);
+
+            if (queryNodes[2 * k] == Long.MAX_VALUE) {
+                // Внутри интервала нет узлов сетки - одна трапеция
+                results[index] = (right - left) * (f_left + f_right) / 2.0;
+                continue;
+            }
+            double xa = origin + queryNodes[2 * k] * step;
+            double xb = origin + queryNodes[2 * k + 1] * step;
+            results[index] = (xa - left) * (f_left + queryValues[2 * k]) / 2.0
+                    + (queryPrefix[2 * k + 1] - queryPrefix[2 * k])
+                    + (right - xb) * (queryValues[2 * k + 1] + f_right) / 2.0;
+        }
+    }
+
+    /**
+     * Возвращает номер первого узла сетки origin + k * step, не меньшего x.
+     */
+    private static long firstNodeAtOrAfter(double origin, double step, double x) {
+        long k = (long) Math.ceil((x - origin) / step);
+        // Корректируем погрешность округления при делении
+        while (origin + k * step < x) {
+            k++;
+        }
+        while (k > 0 && origin + (k - 1) * step >= x) {
+            k--;
+        }
+        return k;
+    }
+
+    /**
+     * Возвращает номер последнего узла сетки origin + k * step, не большего x.
+     */
+    private static long lastNodeAtOrBefore(double origin, double step, double x) {
+        long k = (long) Math.floor((x - origin) / step);
+        while (origin + k * step > x) {
+            k--;
+        }
+        while (origin + (k + 1) * step <= x) {
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * Проверяет параметры интегрирования.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @throws IllegalArgumentException если параметры некорректны или интервал выходит
+     * за границы области определения функции
+     */
+    static void checkIntegrationArguments(Function function, double leftBound, double rightBound, double step) {
+        if (leftBound >= rightBound) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
+        }
+        if (step <= 0) {
+            throw new IllegalArgumentException("Шаг дискретизации должен быть положительным");
+        }
+
+        // Проверка границ области определения
+        if (leftBound < function.getLeftDomainBorder() || rightBound > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException("Интервал интегрирования [" + leftBound + ", " + rightBound +
+                    "] выходит за границы области определения функции [" +
+                    function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package functions;
+
+/**
+ * Функция, для которой известна первообразная в элементарных функциях.
+ * Позволяет вычислять определённый интеграл точно по формуле Ньютона-Лейбница
+ * вместо численного интегрирования.
+ */
+public interface IntegrableFunction extends Function {
+    /**
+     * Возвращает значение первообразной в заданной точке.
+     * @param x точка, в которой вычисляется значение первообразной
+     * @return значение первообразной в точке x
+     */
+    double getAntiderivativeValue(double x);
+
+    /**
+     * Проверяет, что первообразная непрерывна на отрезке и формула Ньютона-Лейбница применима.
+     * @param leftBound левая граница отрезка
+     * @param rightBound правая граница отрезка
+     * @return true, если интеграл на отрезке можно вычислить через первообразную
+     */
+    default boolean hasAntiderivativeOn(double leftBound, double rightBound) {
+        return true;
+    }
+}
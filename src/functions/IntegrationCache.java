@@ -0,0 +1,259 @@
+package functions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный по размеру потокобезопасный кэш результатов интегрирования.
+ * Ключом служит набор (функция, левая граница, правая граница, шаг),
+ * где функция сравнивается с помощью {@link FunctionKey}.
+ *
+ * Кэш разбит на сегменты, каждый из которых защищён собственной блокировкой
+ * и вытесняет давно не использовавшиеся записи (LRU). Вытеснение выполняется
+ * в пределах сегмента, поэтому порядок LRU для кэша в целом соблюдается приближённо.
+ * Само интегрирование выполняется вне блокировки, поэтому при одновременном
+ * промахе по одному ключу значение может быть вычислено несколько раз
+ * (с одинаковым результатом).
+ */
+public class IntegrationCache {
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Создаёт кэш заданной вместимости.
+     * @param capacity максимальное количество хранимых результатов
+     * @throws IllegalArgumentException если вместимость не положительна
+     */
+    public IntegrationCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        int segmentsCount = Math.min(DEFAULT_SEGMENTS, capacity);
+        this.segments = new Segment[segmentsCount];
+        for (int i = 0; i < segmentsCount; i++) {
+            // Распределяем вместимость так, чтобы суммарно получилось ровно capacity
+            int segmentCapacity = capacity / segmentsCount + (i < capacity % segmentsCount ? 1 : 0);
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Возвращает значение интеграла из кэша или вычисляет его
+     * с помощью {@link Functions#integrate(Function, double, double, double)}.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @return значение интеграла
+     * @throws IllegalArgumentException если параметры интегрирования некорректны
+     */
+    public double integrate(Function function, double leftBound, double rightBound, double step) {
+        Key key = new Key(FunctionKey.of(function), leftBound, rightBound, step);
+        Segment segment = segmentFor(key);
+
+        Double cached = segment.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        double result = Functions.integrate(function, leftBound, rightBound, step);
+        segment.put(key, result);
+        return result;
+    }
+
+    /**
+     * Возвращает значение интеграла из кэша, не вычисляя его при промахе.
+     * Обращение учитывается в статистике попаданий и промахов. Используется
+     * вместе с {@link #put(Function, double, double, double, double)}, когда
+     * интегрирование выполняет вызывающий (например, с признаком отмены).
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @return значение интеграла или null, если его нет в кэше
+     */
+    public Double lookup(Function function, double leftBound, double rightBound, double step) {
+        Key key = new Key(FunctionKey.of(function), leftBound, rightBound, step);
+        Double cached = segmentFor(key).get(key);
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * Сохраняет в кэше полностью вычисленное значение интеграла.
+     * @param function функция
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @param value значение интеграла
+     */
+    public void put(Function function, double leftBound, double rightBound, double step, double value) {
+        Key key = new Key(FunctionKey.of(function), leftBound, rightBound, step);
+        segmentFor(key).put(key, value);
+    }
+
+    /**
+     * Удаляет все записи из кэша. Счётчики статистики не сбрасываются.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Возвращает текущее количество записей в кэше.
+     * @return количество записей
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Возвращает максимальное количество записей в кэше.
+     * @return вместимость кэша
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Возвращает количество попаданий в кэш.
+     * @return количество попаданий
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Возвращает количество промахов кэша.
+     * @return количество промахов
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Возвращает количество вытесненных записей.
+     * @return количество вытеснений
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Возвращает долю попаданий среди всех обращений к кэшу.
+     * @return доля попаданий от 0 до 1 (0, если обращений не было)
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IntegrationCache[size=%d, capacity=%d, hits=%d, misses=%d, evictions=%d]",
+                size(), capacity, getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16); // Перемешиваем старшие биты, чтобы сегменты заполнялись равномерно
+        return segments[(h & 0x7fffffff) % segments.length];
+    }
+
+    /**
+     * Сегмент кэша: LinkedHashMap в режиме порядка доступа под собственной блокировкой.
+     */
+    private final class Segment {
+        private final LinkedHashMap<Key, Double> map;
+
+        Segment(int segmentCapacity) {
+            this.map = new LinkedHashMap<Key, Double>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+                    if (size() > segmentCapacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Double get(Key key) {
+            return map.get(key);
+        }
+
+        synchronized void put(Key key, double value) {
+            map.put(key, value);
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+
+    /**
+     * Ключ кэша: функция и параметры интегрирования.
+     */
+    private static final class Key {
+        private final FunctionKey function;
+        private final double leftBound;
+        private final double rightBound;
+        private final double step;
+
+        Key(FunctionKey function, double leftBound, double rightBound, double step) {
+            this.function = function;
+            this.leftBound = leftBound;
+            this.rightBound = rightBound;
+            this.step = step;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return Double.compare(leftBound, that.leftBound) == 0
+                    && Double.compare(rightBound, that.rightBound) == 0
+                    && Double.compare(step, that.step) == 0
+                    && function.equals(that.function);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = function.hashCode();
+            result = 31 * result + Double.hashCode(leftBound);
+            result = 31 * result + Double.hashCode(rightBound);
+            result = 31 * result + Double.hashCode(step);
+            return result;
+        }
+    }
+}
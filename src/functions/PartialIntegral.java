@@ -0,0 +1,44 @@
+package functions;
+
+/**
+ * Результат интегрирования, которое могло быть прекращено до достижения правой границы.
+ *
+ * Хранит значение интеграла на отрезке [leftBound, coveredBound], который успели
+ * пройти до отмены, и долю покрытия исходного отрезка [leftBound, rightBound].
+ * Если вычисление не прерывалось, coveredBound совпадает с rightBound.
+ */
+public class PartialIntegral {
+    public final double value;
+    public final double leftBound;
+    public final double coveredBound;
+    public final double rightBound;
+
+    public PartialIntegral(double value, double leftBound, double coveredBound, double rightBound) {
+        this.value = value;
+        this.leftBound = leftBound;
+        this.coveredBound = coveredBound;
+        this.rightBound = rightBound;
+    }
+
+    /**
+     * Проверяет, пройден ли весь отрезок интегрирования.
+     * @return true, если интеграл вычислен полностью
+     */
+    public boolean isComplete() {
+        return coveredBound >= rightBound;
+    }
+
+    /**
+     * Возвращает долю отрезка интегрирования, на которой интеграл вычислен.
+     * @return доля покрытия от 0 до 1
+     */
+    public double getCoverage() {
+        return isComplete() ? 1.0 : (coveredBound - leftBound) / (rightBound - leftBound);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.15f на [%.6f, %.6f] из [%.6f, %.6f] (покрытие %.1f%%)",
+                value, leftBound, coveredBound, leftBound, rightBound, getCoverage() * 100);
+    }
+}
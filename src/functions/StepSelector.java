@@ -0,0 +1,211 @@
+package functions;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Подбор шага дискретизации для интегрирования методом трапеций с заданной точностью.
+ *
+ * Интервал последовательно делится пополам: на каждом уровне вычисляются только
+ * значения функции в серединах участков предыдущего уровня, а значения в остальных
+ * узлах берутся из уже накопленной суммы. Погрешность оценивается по правилу Рунге
+ * (разность результатов соседних уровней, метод Ричардсона). Выбирается наибольший шаг
+ * вида (rightBound - leftBound) / 2^k, оценка погрешности для которого не превышает
+ * 10^(-digits).
+ *
+ * Результаты подбора можно кэшировать, чтобы повторные задания над той же функцией
+ * и тем же интервалом не выполняли поиск заново. Кэш ограничен по размеру и вытесняет
+ * давно не использовавшиеся записи (LRU), поэтому не удерживает в памяти все функции,
+ * когда-либо переданные долгоживущему объекту.
+ */
+public class StepSelector {
+    private static final int MIN_LEVEL = 2;  // Минимум 4 участка, чтобы оценка погрешности была надёжной
+    private static final int MAX_LEVEL = 30; // Не более 2^30 участков
+    private static final long CANCELLATION_CHECK_MASK = 1023; // Проверка отмены каждые 1024 узла
+    private static final int DEFAULT_CACHE_CAPACITY = 1024;
+
+    private final Map<Key, Double> cache;
+
+    /**
+     * Создаёт объект подбора шага без кэширования результатов.
+     */
+    public StepSelector() {
+        this(false);
+    }
+
+    /**
+     * Создаёт объект подбора шага.
+     * @param caching true, если найденные шаги нужно кэшировать
+     * (не более {@value #DEFAULT_CACHE_CAPACITY} записей)
+     */
+    public StepSelector(boolean caching) {
+        this(caching ? DEFAULT_CACHE_CAPACITY : 0);
+    }
+
+    /**
+     * Создаёт объект подбора шага с кэшем заданной вместимости.
+     * @param cacheCapacity максимальное количество сохранённых результатов подбора;
+     * 0 отключает кэширование
+     * @throws IllegalArgumentException если вместимость отрицательна
+     */
+    public StepSelector(int cacheCapacity) {
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("Cache capacity must not be negative");
+        }
+        if (cacheCapacity == 0) {
+            this.cache = null;
+        } else {
+            // Порядок доступа: при чтении запись становится последней, вытесняется первая
+            this.cache = Collections.synchronizedMap(new LinkedHashMap<Key, Double>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+                    return size() > cacheCapacity;
+                }
+            });
+        }
+    }
+
+    /**
+     * Находит наибольший шаг дискретизации, обеспечивающий заданное количество
+     * верных знаков после запятой.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param digits количество верных знаков после запятой
+     * @return найденный шаг дискретизации
+     * @throws IllegalArgumentException если параметры некорректны или требуемая точность
+     * не достигается при допустимом количестве разбиений
+     */
+    public double selectStep(Function function, double leftBound, double rightBound, int digits) {
+        return selectStep(function, leftBound, rightBound, digits, null);
+    }
+
+    /**
+     * Находит наибольший шаг дискретизации, обеспечивающий заданное количество
+     * верных знаков после запятой, с возможностью отмены поиска.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param digits количество верных знаков после запятой
+     * @param token признак отмены (null, если отмена не требуется)
+     * @return найденный шаг дискретизации
+     * @throws IllegalArgumentException если параметры некорректны или требуемая точность
+     * не достигается при допустимом количестве разбиений
+     * @throws java.util.concurrent.CancellationException если поиск был отменён
+     */
+    public double selectStep(Function function, double leftBound, double rightBound, int digits,
+                             CancellationToken token) {
+        if (digits < 0) {
+            throw new IllegalArgumentException("Количество знаков должно быть неотрицательным");
+        }
+        if (cache == null) {
+            return search(function, leftBound, rightBound, digits, token);
+        }
+        Key key = new Key(FunctionKey.of(function), leftBound, rightBound, digits);
+        Double cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        double step = search(function, leftBound, rightBound, digits, token);
+        cache.put(key, step);
+        return step;
+    }
+
+    /**
+     * Удаляет все сохранённые результаты подбора.
+     */
+    public void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Возвращает количество сохранённых результатов подбора.
+     * @return количество записей в кэше (0, если кэширование отключено)
+     */
+    public int getCacheSize() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    private static double search(Function function, double leftBound, double rightBound, int digits,
+                                 CancellationToken token) {
+        // Шаг здесь не используется, передаём длину интервала
+        Functions.checkIntegrationArguments(function, leftBound, rightBound, rightBound - leftBound);
+        double tolerance = Math.pow(10, -digits);
+        double length = rightBound - leftBound;
+
+        // Уровень 0: одна трапеция
+        long segments = 1;
+        double previous = length * (function.getFunctionValue(leftBound)
+                + function.getFunctionValue(rightBound)) / 2.0;
+
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            double h = length / segments;
+            double midpointsSum = 0.0;
+            for (long i = 0; i < segments; i++) {
+                if (token != null && (i & CANCELLATION_CHECK_MASK) == CANCELLATION_CHECK_MASK) {
+                    token.throwIfCancelled();
+                }
+                midpointsSum += function.getFunctionValue(leftBound + (i + 0.5) * h);
+            }
+            double current = previous / 2.0 + h / 2.0 * midpointsSum;
+
+            // Погрешность T(h) ≈ 4/3 * |T(h/2) - T(h)|
+            double error = 4.0 / 3.0 * Math.abs(current - previous);
+            if (level > MIN_LEVEL && error < tolerance) {
+                return h;
+            }
+
+            previous = current;
+            segments *= 2;
+        }
+
+        throw new IllegalArgumentException("Не удалось достичь точности 1e-" + digits
+                + " при разбиении интервала на 2^" + MAX_LEVEL + " участков");
+    }
+
+    /**
+     * Ключ кэша: функция, интервал и требуемая точность.
+     */
+    private static final class Key {
+        private final FunctionKey function;
+        private final double leftBound;
+        private final double rightBound;
+        private final int digits;
+
+        Key(FunctionKey function, double leftBound, double rightBound, int digits) {
+            this.function = function;
+            this.leftBound = leftBound;
+            this.rightBound = rightBound;
+            this.digits = digits;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return digits == that.digits
+                    && Double.compare(leftBound, that.leftBound) == 0
+                    && Double.compare(rightBound, that.rightBound) == 0
+                    && function.equals(that.function);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = function.hashCode();
+            result = 31 * result + Double.hashCode(leftBound);
+            result = 31 * result + Double.hashCode(rightBound);
+            result = 31 * result + digits;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package functions;
+
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.basic.Tan;
+import functions.meta.Scale;
+import functions.meta.Shift;
+import functions.meta.Sum;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Утилитарный класс со специализированными ядрами интегрирования методом трапеций.
+ * Нельзя создать объект этого класса.
+ *
+ * Для базовых функций ({@link Exp}, {@link Log}, {@link Sin}, {@link Cos}, {@link Tan})
+ * и их линейных комбинаций (суммы, умножение на константу через {@link Scale} с
+ * единичным масштабом по оси абсцисс, прибавление константы через {@link Shift}
+ * без сдвига по оси абсцисс) точки сетки вычисляются блоками: сначала заполняется
+ * массив абсцисс, затем для каждого слагаемого выполняется отдельный плотный цикл
+ * без виртуальных вызовов, который JIT-компилятор может векторизовать.
+ * Каждая точка сетки вычисляется ровно один раз. Ядро выбирается автоматически
+ * в {@link Functions#integratePartial(Function, double, double, double, CancellationToken)},
+ * поэтому им пользуются все интеграторы; для остальных функций используется обычный цикл.
+ */
+public class TrapezoidKernels {
+    private static final int BLOCK_SIZE = 256;
+    /** Количество блоков между проверками признака отмены (как в Functions - около 1024 участков). */
+    private static final int CHECK_BLOCKS = 4;
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров класса.
+     */
+    private TrapezoidKernels() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    /**
+     * Вычисляет определенный интеграл функции методом трапеций,
+     * используя специализированное ядро, если оно доступно для данной функции.
+     * Сетка совпадает с сеткой {@link Functions#integrate(Function, double, double, double)},
+     * поэтому результат отличается от неё не более чем порядком сложения слагаемых.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @return значение интеграла
+     * @throws IllegalArgumentException если интервал выходит за границы области определения функции
+     */
+    public static double integrate(Function function, double leftBound, double rightBound, double step) {
+        Functions.checkIntegrationArguments(function, leftBound, rightBound, step);
+        PartialIntegral integral = integratePartial(function, leftBound, rightBound, step, null);
+        return integral != null ? integral.value : Functions.integrate(function, leftBound, rightBound, step);
+    }
+
+    /**
+     * Вычисляет интеграл специализированным ядром с возможностью отмены.
+     * Признак отмены проверяется перед каждыми {@value #CHECK_BLOCKS} блоками точек;
+     * при отмене возвращается интеграл на уже пройденной части отрезка.
+     * Аргументы должны быть уже проверены вызывающим методом.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @param token признак отмены (null, если отмена не требуется)
+     * @return значение интеграла и пройденная часть отрезка или null, если для функции нет ядра
+     */
+    static PartialIntegral integratePartial(Function function, double leftBound, double rightBound,
+                                            double step, CancellationToken token) {
+        LinearCombination combination = LinearCombination.decompose(function);
+        if (combination == null) {
+            return null;
+        }
+
+        double[] xs = new double[BLOCK_SIZE];
+        double[] hs = new double[BLOCK_SIZE];
+        double[] values = new double[BLOCK_SIZE];
+
+        double integral = 0.0;
+        double x = leftBound;
+        double f_x = combination.value(x);
+        int untilCheck = CHECK_BLOCKS;
+
+        while (x < rightBound) {
+            if (--untilCheck == 0) {
+                untilCheck = CHECK_BLOCKS;
+                if (token != null && token.isCancelled()) {
+                    return new PartialIntegral(integral, leftBound, x, rightBound);
+                }
+            }
+            // Заполняем блок абсцисс тем же способом, что и в Functions.integrate
+            int n = 0;
+            while (n < BLOCK_SIZE && x < rightBound) {
+                double xNext = Math.min(x + step, rightBound);
+                xs[n] = xNext;
+                hs[n] = xNext - x;
+                x = xNext;
+                n++;
+            }
+
+            combination.evaluate(xs, values, n);
+
+            for (int i = 0; i < n; i++) {
+                integral += hs[i] * (f_x + values[i]) / 2.0;
+                f_x = values[i];
+            }
+        }
+
+        return new PartialIntegral(integral, leftBound, rightBound, rightBound);
+    }
+
+    /**
+     * Проверяет, может ли функция быть проинтегрирована специализированным ядром.
+     * @param function функция
+     * @return true, если для функции есть специализированное ядро
+     */
+    public static boolean isSupported(Function function) {
+        return LinearCombination.decompose(function) != null;
+    }
+
+    /**
+     * Вид базовой функции, для которого есть специализированный цикл.
+     */
+    private enum Kind {
+        EXP, LOG, SIN, COS, TAN
+    }
+
+    /**
+     * Слагаемое линейной комбинации: coefficient * f(x).
+     */
+    private static final class Term {
+        final Kind kind;
+        final double coefficient;
+        final double logBase; // Натуральный логарифм основания (только для LOG)
+
+        Term(Kind kind, double coefficient, double logBase) {
+            this.kind = kind;
+            this.coefficient = coefficient;
+            this.logBase = logBase;
+        }
+
+        double value(double x) {
+            switch (kind) {
+                case EXP:
+                    return coefficient * Math.exp(x);
+                case LOG:
+                    return coefficient * (x <= 0 ? Double.NaN : Math.log(x) / logBase);
+                case SIN:
+                    return coefficient * Math.sin(x);
+                case COS:
+                    return coefficient * Math.cos(x);
+                default:
+                    return coefficient * Math.tan(x);
+            }
+        }
+
+        void addTo(double[] xs, double[] out, int n) {
+            // Отдельный цикл для каждого вида функции, чтобы тело цикла было мономорфным
+            switch (kind) {
+                case EXP:
+                    for (int i = 0; i < n; i++) {
+                        out[i] += coefficient * Math.exp(xs[i]);
+                    }
+                    break;
+                case LOG:
+                    for (int i = 0; i < n; i++) {
+                        double x = xs[i];
+                        out[i] += coefficient * (x <= 0 ? Double.NaN : Math.log(x) / logBase);
+                    }
+                    break;
+                case SIN:
+                    for (int i = 0; i < n; i++) {
+                        out[i] += coefficient * Math.sin(xs[i]);
+                    }
+                    break;
+                case COS:
+                    for (int i = 0; i < n; i++) {
+                        out[i] += coefficient * Math.cos(xs[i]);
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < n; i++) {
+                        out[i] += coefficient * Math.tan(xs[i]);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Линейная комбинация базовых функций: constant + sum(coefficient_i * f_i(x)).
+     */
+    private static final class LinearCombination {
+        private final Term[] terms;
+        private final double constant;
+
+        private LinearCombination(Term[] terms, double constant) {
+            this.terms = terms;
+            this.constant = constant;
+        }
+
+        /**
+         * Раскладывает функцию на линейную комбинацию базовых функций.
+         * @return линейная комбинация или null, если разложение невозможно
+         */
+        static LinearCombination decompose(Function function) {
+            List<Term> terms = new ArrayList<>();
+            double[] constant = {0.0};
+            if (!collect(function, 1.0, terms, constant)) {
+                return null;
+            }
+            return new LinearCombination(terms.toArray(new Term[0]), constant[0]);
+        }
+
+        private static boolean collect(Function function, double coefficient, List<Term> terms, double[] constant) {
+            // Сравниваются точные классы: наследники могут переопределять значения функции
+            Class<?> type = function.getClass();
+            if (type == Exp.class) {
+                terms.add(new Term(Kind.EXP, coefficient, 0.0));
+            } else if (type == Log.class) {
+                terms.add(new Term(Kind.LOG, coefficient, Math.log(((Log) function).getBase())));
+            } else if (type == Sin.class) {
+                terms.add(new Term(Kind.SIN, coefficient, 0.0));
+            } else if (type == Cos.class) {
+                terms.add(new Term(Kind.COS, coefficient, 0.0));
+            } else if (type == Tan.class) {
+                terms.add(new Term(Kind.TAN, coefficient, 0.0));
+            } else if (type == Sum.class) {
+                Sum sum = (Sum) function;
+                return collect(sum.getFirstFunction(), coefficient, terms, constant)
+                        && collect(sum.getSecondFunction(), coefficient, terms, constant);
+            } else if (type == Scale.class && ((Scale) function).getScaleX() == 1.0) {
+                Scale scale = (Scale) function;
+                return collect(scale.getFunction(), coefficient * scale.getScaleY(), terms, constant);
+            } else if (type == Shift.class && ((Shift) function).getShiftX() == 0.0) {
+                Shift shift = (Shift) function;
+                constant[0] += coefficient * shift.getShiftY();
+                return collect(shift.getFunction(), coefficient, terms, constant);
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        double value(double x) {
+            double result = constant;
+            for (Term term : terms) {
+                result += term.value(x);
+            }
+            return result;
+        }
+
+        void evaluate(double[] xs, double[] out, int n) {
+            for (int i = 0; i < n; i++) {
+                out[i] = constant;
+            }
+            for (Term term : terms) {
+                term.addTo(xs, out, n);
+            }
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package functions.basic;
 
+import functions.IntegrableFunction;
+
 /**
  * Класс для вычисления косинуса.
  * Наследуется от TrigonometricFunction.
  */
-public class Cos extends TrigonometricFunction {
+public class Cos extends TrigonometricFunction implements IntegrableFunction {
     @Override
     public double getFunctionValue(double x) {
         return Math.cos(x);
     }
+
+    @Override
+    public double getAntiderivativeValue(double x) {
+        // ∫ cos(x) dx = sin(x)
+        return Math.sin(x);
+    }
 }
 
 
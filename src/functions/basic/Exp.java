@@ -1,12 +1,12 @@
 package functions.basic;
 
-import functions.Function;
+import functions.IntegrableFunction;
 
 /**
  * Класс для вычисления экспоненты e^x.
- * Реализует интерфейс Function.
+ * Реализует интерфейс IntegrableFunction.
  */
-public class Exp implements Function {
+public class Exp implements IntegrableFunction {
     @Override
     public double getLeftDomainBorder() {
         return Double.NEGATIVE_INFINITY;
@@ -21,6 +21,12 @@ public class Exp implements Function {
     public double getFunctionValue(double x) {
         return Math.exp(x);
     }
+
+    @Override
+    public double getAntiderivativeValue(double x) {
+        // ∫ e^x dx = e^x
+        return Math.exp(x);
+    }
 }
 
 
@@ -1,12 +1,12 @@
 package functions.basic;
 
-import functions.Function;
+import functions.IntegrableFunction;
 
 /**
  * Класс для вычисления логарифма по заданному основанию.
- * Реализует интерфейс Function.
+ * Реализует интерфейс IntegrableFunction.
  */
-public class Log implements Function {
+public class Log implements IntegrableFunction {
     private static final double EPSILON = 1e-10;
     private final double base;
 
@@ -21,6 +21,14 @@ public class Log implements Function {
         this.base = base;
     }
 
+    /**
+     * Возвращает основание логарифма.
+     * @return основание логарифма
+     */
+    public double getBase() {
+        return base;
+    }
+
     @Override
     public double getLeftDomainBorder() {
         return 0;
@@ -39,5 +47,17 @@ public class Log implements Function {
         // log_base(x) = ln(x) / ln(base)
         return Math.log(x) / Math.log(base);
     }
+
+    @Override
+    public double getAntiderivativeValue(double x) {
+        if (x < 0) {
+            return Double.NaN;
+        }
+        if (x == 0) {
+            return 0; // Предел x * ln(x) при x -> 0 равен 0
+        }
+        // ∫ log_base(x) dx = (x * ln(x) - x) / ln(base)
+        return (x * Math.log(x) - x) / Math.log(base);
+    }
 }
 
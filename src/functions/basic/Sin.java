@@ -1,14 +1,22 @@
 package functions.basic;
 
+import functions.IntegrableFunction;
+
 /**
  * Класс для вычисления синуса.
  * Наследуется от TrigonometricFunction.
  */
-public class Sin extends TrigonometricFunction {
+public class Sin extends TrigonometricFunction implements IntegrableFunction {
     @Override
     public double getFunctionValue(double x) {
         return Math.sin(x);
     }
+
+    @Override
+    public double getAntiderivativeValue(double x) {
+        // ∫ sin(x) dx = -cos(x)
+        return -Math.cos(x);
+    }
 }
 
 
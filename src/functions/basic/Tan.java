@@ -1,14 +1,30 @@
 package functions.basic;
 
+import functions.IntegrableFunction;
+
 /**
  * Класс для вычисления тангенса.
  * Наследуется от TrigonometricFunction.
  */
-public class Tan extends TrigonometricFunction {
+public class Tan extends TrigonometricFunction implements IntegrableFunction {
     @Override
     public double getFunctionValue(double x) {
         return Math.tan(x);
     }
+
+    @Override
+    public double getAntiderivativeValue(double x) {
+        // ∫ tg(x) dx = -ln|cos(x)|
+        return -Math.log(Math.abs(Math.cos(x)));
+    }
+
+    @Override
+    public boolean hasAntiderivativeOn(double leftBound, double rightBound) {
+        // Первообразная разрывна в точках π/2 + kπ, где тангенс не определён
+        double firstPole = Math.ceil((leftBound - Math.PI / 2) / Math.PI);
+        double lastPole = Math.floor((rightBound - Math.PI / 2) / Math.PI);
+        return firstPole > lastPole;
+    }
 }
 
 
@@ -24,6 +24,22 @@ public class Composition implements Function {
         this.f2 = f2;
     }
 
+    /**
+     * Возвращает внутреннюю функцию композиции.
+     * @return первая функция (внутренняя)
+     */
+    public Function getFirstFunction() {
+        return f1;
+    }
+
+    /**
+     * Возвращает внешнюю функцию композиции.
+     * @return вторая функция (внешняя)
+     */
+    public Function getSecondFunction() {
+        return f2;
+    }
+
     @Override
     public double getLeftDomainBorder() {
         // Область определения совпадает с областью определения первой функции
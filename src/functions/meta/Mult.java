@@ -23,6 +23,22 @@ public class Mult implements Function {
         this.f2 = f2;
     }
 
+    /**
+     * Возвращает первый множитель.
+     * @return первая функция
+     */
+    public Function getFirstFunction() {
+        return f1;
+    }
+
+    /**
+     * Возвращает второй множитель.
+     * @return вторая функция
+     */
+    public Function getSecondFunction() {
+        return f2;
+    }
+
     @Override
     public double getLeftDomainBorder() {
         // Пересечение областей определения: максимум левых границ
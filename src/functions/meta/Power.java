@@ -23,6 +23,22 @@ public class Power implements Function {
         this.power = power;
     }
 
+    /**
+     * Возвращает базовую функцию.
+     * @return базовая функция
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Возвращает степень, в которую возводятся значения функции.
+     * @return степень
+     */
+    public double getPower() {
+        return power;
+    }
+
     @Override
     public double getLeftDomainBorder() {
         // Область определения совпадает с областью определения исходной функции
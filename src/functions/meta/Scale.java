@@ -31,6 +31,30 @@ public class Scale implements Function {
         this.scaleY = scaleY;
     }
 
+    /**
+     * Возвращает исходную функцию.
+     * @return исходная функция
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Возвращает коэффициент масштабирования вдоль оси абсцисс.
+     * @return коэффициент масштабирования вдоль оси абсцисс
+     */
+    public double getScaleX() {
+        return scaleX;
+    }
+
+    /**
+     * Возвращает коэффициент масштабирования вдоль оси ординат.
+     * @return коэффициент масштабирования вдоль оси ординат
+     */
+    public double getScaleY() {
+        return scaleY;
+    }
+
     @Override
     public double getLeftDomainBorder() {
         // Масштабирование области определения вдоль оси абсцисс
@@ -27,6 +27,30 @@ public class Shift implements Function {
         this.shiftY = shiftY;
     }
 
+    /**
+     * Возвращает исходную функцию.
+     * @return исходная функция
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Возвращает величину сдвига вдоль оси абсцисс.
+     * @return величина сдвига вдоль оси абсцисс
+     */
+    public double getShiftX() {
+        return shiftX;
+    }
+
+    /**
+     * Возвращает величину сдвига вдоль оси ординат.
+     * @return величина сдвига вдоль оси ординат
+     */
+    public double getShiftY() {
+        return shiftY;
+    }
+
     @Override
     public double getLeftDomainBorder() {
         // Сдвиг области определения вдоль оси абсцисс
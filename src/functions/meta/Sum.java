@@ -23,6 +23,22 @@ public class Sum implements Function {
         this.f2 = f2;
     }
 
+    /**
+     * Возвращает первое слагаемое.
+     * @return первая функция
+     */
+    public Function getFirstFunction() {
+        return f1;
+    }
+
+    /**
+     * Возвращает второе слагаемое.
+     * @return вторая функция
+     */
+    public Function getSecondFunction() {
+        return f2;
+    }
+
     @Override
     public double getLeftDomainBorder() {
         // Пересечение областей определения: максимум левых границ
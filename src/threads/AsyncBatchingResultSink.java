@@ -0,0 +1,258 @@
+package threads;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Асинхронный получатель результатов, выводящий их блоками.
+ *
+ * Рабочий поток лишь копирует четыре числа в буфер под короткой блокировкой.
+ * Форматированием и выводом занимается отдельный поток записи: он забирает
+ * заполненный буфер целиком, подставляя вместо него свободный (двойная буферизация),
+ * форматирует числа в многократно используемый буфер символов без
+ * {@link java.util.Formatter} и записывает блок в поток вывода одной операцией.
+ * Формат строки тот же, что и у {@link ConsoleResultSink}.
+ *
+ * Неполный буфер записывается не позже чем через {@code lingerMillis}. Если поток
+ * записи не успевает, рабочие потоки ждут освобождения буфера, поэтому объём
+ * невыведенных результатов ограничен.
+ */
+public class AsyncBatchingResultSink implements ResultSink {
+    private static final int FIELDS = 4;
+    private static final int DEFAULT_BATCH_SIZE = 1024;
+    private static final long DEFAULT_LINGER_MILLIS = 10;
+
+    private final OutputStream out;
+    private final long lingerNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchReady = lock.newCondition();
+    private final Condition bufferAvailable = lock.newCondition();
+    private final Condition written = lock.newCondition();
+    private final Thread writer;
+    private double[] active;
+    private double[] spare;
+    private int activeCount;        // Количество чисел (не записей) в активном буфере
+    private long acceptedRecords;
+    private long writtenRecords;
+    private boolean flushRequested;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * Создаёт получатель, выводящий результаты в {@link System#out}
+     * блоками по {@value #DEFAULT_BATCH_SIZE} записей.
+     */
+    public AsyncBatchingResultSink() {
+        this(System.out, DEFAULT_BATCH_SIZE, DEFAULT_LINGER_MILLIS);
+    }
+
+    /**
+     * Создаёт получатель с заданными параметрами.
+     * @param out поток вывода
+     * @param batchSize максимальное количество записей в блоке
+     * @param lingerMillis максимальное время ожидания заполнения блока в миллисекундах
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public AsyncBatchingResultSink(OutputStream out, int batchSize, long lingerMillis) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream must not be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (lingerMillis <= 0) {
+            throw new IllegalArgumentException("Linger time must be positive");
+        }
+        this.out = out;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.active = new double[batchSize * FIELDS];
+        this.spare = new double[batchSize * FIELDS];
+        this.writer = new Thread(this::writeLoop, "AsyncBatchingResultSink-Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void accept(double leftBound, double rightBound, double step, double result) {
+        lock.lock();
+        try {
+            while (activeCount == active.length && !closed) {
+                // Оба буфера заняты - ждём, пока поток записи освободит один из них
+                bufferAvailable.awaitUninterruptibly();
+            }
+            if (closed) {
+                throw new IllegalStateException("Получатель результатов закрыт");
+            }
+            active[activeCount++] = leftBound;
+            active[activeCount++] = rightBound;
+            active[activeCount++] = step;
+            active[activeCount++] = result;
+            acceptedRecords++;
+            if (activeCount == FIELDS || activeCount == active.length) {
+                batchReady.signal(); // Первая запись запускает отсчёт ожидания, последняя - запись блока
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Дожидается, пока все принятые результаты будут записаны.
+     * @throws UncheckedIOException если при записи произошла ошибка ввода-вывода
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            long target = acceptedRecords;
+            if (writtenRecords < target) {
+                flushRequested = true;
+                batchReady.signal();
+            }
+            while (writtenRecords < target && failure == null) {
+                written.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Ошибка записи результатов", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Записывает оставшиеся результаты и останавливает поток записи.
+     * @throws UncheckedIOException если при записи произошла ошибка ввода-вывода
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            batchReady.signal();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true; // Поток записи завершится сам, дожидаемся его
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Ошибка записи результатов", failure);
+        }
+    }
+
+    /**
+     * Возвращает количество записанных результатов.
+     * @return количество результатов
+     */
+    public long getWrittenRecords() {
+        lock.lock();
+        try {
+            return writtenRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        StringBuilder text = new StringBuilder(active.length * 16);
+        byte[] bytes = new byte[0];
+        while (true) {
+            double[] batch;
+            int count;
+            boolean last;
+            lock.lock();
+            try {
+                long deadline = System.nanoTime() + lingerNanos;
+                while (activeCount < active.length && !flushRequested && !closed) {
+                    if (activeCount == 0) {
+                        // Результатов нет - ждём первого без ограничения по времени
+                        batchReady.awaitUninterruptibly();
+                        deadline = System.nanoTime() + lingerNanos;
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    try {
+                        batchReady.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        // Поток записи не прерывается извне - завершение только через close()
+                    }
+                }
+                flushRequested = false;
+                last = closed;
+                batch = active;
+                count = activeCount;
+                active = spare;
+                spare = null;
+                activeCount = 0;
+                bufferAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            if (count > 0 && failure == null) {
+                text.setLength(0);
+                for (int i = 0; i < count; i += FIELDS) {
+                    text.append("Result ");
+                    FixedPointFormatter.append(text, batch[i], 6);
+                    text.append(' ');
+                    FixedPointFormatter.append(text, batch[i + 1], 6);
+                    text.append(' ');
+                    FixedPointFormatter.append(text, batch[i + 2], 6);
+                    text.append(' ');
+                    FixedPointFormatter.append(text, batch[i + 3], 15);
+                    text.append(System.lineSeparator());
+                }
+                // Все символы - ASCII, поэтому копируем их в байты без кодировщика
+                int length = text.length();
+                if (bytes.length < length) {
+                    bytes = new byte[length];
+                }
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = (byte) text.charAt(i);
+                }
+                try {
+                    out.write(bytes, 0, length);
+                    out.flush();
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                }
+                spare = batch;
+                writtenRecords += count / FIELDS;
+                written.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (last) {
+                return;
+            }
+        }
+    }
+}
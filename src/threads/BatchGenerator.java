@@ -0,0 +1,169 @@
+package threads;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * Генератор, публикующий задания в очередь пакетами.
+ *
+ * Вместо одной операции синхронизации на задание выполняется одна операция на пакет
+ * из K заданий. Размер пакета выбирается по измеренной стоимости: генератор замеряет
+ * время публикации пакета без ожидания (стоимость синхронизации) и время обработки
+ * одного задания по скорости, с которой интеграторы забирают пакеты из очереди.
+ * K подбирается так, чтобы синхронизация занимала не больше {@link #MAX_SYNC_SHARE}
+ * времени обработки пакета: для дешёвых заданий пакеты растут, для трудоёмких
+ * остаются маленькими, и задания не задерживаются в ожидании заполнения пакета.
+ */
+public class BatchGenerator extends Thread {
+    /** Допустимая доля синхронизации во времени обработки пакета. */
+    private static final double MAX_SYNC_SHARE = 0.05;
+    /** Вес последнего замера в сглаженных оценках стоимости. */
+    private static final double SMOOTHING = 0.3;
+    /** Минимальное количество извлечённых заданий, по которому оценивается время обработки. */
+    private static final int MIN_SAMPLE_TASKS = 8;
+
+    private final TaskQueue<Task.TaskData[]> queue;
+    private final int tasksCount;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final Random random;
+    private volatile int batchSize;
+    private volatile int generatedTasks;
+    private volatile int publishedBatches;
+    // Размеры опубликованных пакетов, ещё не извлечённых из очереди (в порядке публикации)
+    private final ArrayDeque<Integer> pendingBatches = new ArrayDeque<>();
+    private long consumedTasks;
+    private long lastConsumedTasks;
+    private long lastSampleNanos;
+    private double syncNanos = -1;
+    private double taskNanos = -1;
+
+    /**
+     * Конструктор класса BatchGenerator.
+     * @param queue очередь пакетов заданий
+     * @param tasksCount количество заданий, которое нужно сгенерировать
+     * @param minBatchSize минимальный размер пакета
+     * @param maxBatchSize максимальный размер пакета
+     * @throws IllegalArgumentException если границы размера пакета некорректны
+     */
+    public BatchGenerator(TaskQueue<Task.TaskData[]> queue, int tasksCount, int minBatchSize, int maxBatchSize) {
+        if (minBatchSize <= 0 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("Batch size bounds must satisfy 0 < min <= max");
+        }
+        this.queue = queue;
+        this.tasksCount = tasksCount;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSize = minBatchSize;
+        this.random = new Random();
+    }
+
+    /**
+     * Конструктор класса BatchGenerator с размером пакета от 1 до 64.
+     * @param queue очередь пакетов заданий
+     * @param tasksCount количество заданий, которое нужно сгенерировать
+     */
+    public BatchGenerator(TaskQueue<Task.TaskData[]> queue, int tasksCount) {
+        this(queue, tasksCount, 1, 64);
+    }
+
+    @Override
+    public void run() {
+        lastSampleNanos = System.nanoTime();
+        while (generatedTasks < tasksCount) {
+            if (Thread.currentThread().isInterrupted()) {
+                System.out.printf("[BatchGenerator] Поток прерван. Сгенерировано заданий: %d из %d%n", generatedTasks, tasksCount);
+                break;
+            }
+
+            adaptBatchSize();
+            int size = Math.min(batchSize, tasksCount - generatedTasks);
+            Task.TaskData[] batch = new Task.TaskData[size];
+            for (int i = 0; i < size; i++) {
+                batch[i] = Task.TaskData.random(random);
+                // Выводим до публикации, как Generator: иначе Result может опередить свой Source
+                System.out.printf("Source %.6f %.6f %.6f%n", batch[i].leftBound, batch[i].rightBound, batch[i].step);
+            }
+
+            try {
+                long publishStart = System.nanoTime();
+                if (queue.offer(batch)) {
+                    // Публикация без ожидания - это чистая стоимость синхронизации
+                    syncNanos = smooth(syncNanos, System.nanoTime() - publishStart);
+                } else {
+                    queue.put(batch);
+                }
+            } catch (InterruptedException e) {
+                System.out.printf("[BatchGenerator] Поток прерван во время публикации. Сгенерировано заданий: %d из %d%n", generatedTasks, tasksCount);
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pendingBatches.addLast(size);
+            generatedTasks += size;
+            publishedBatches++;
+        }
+        System.out.printf("[BatchGenerator] Выполнение заданий завершено. Сгенерировано заданий: %d, пакетов: %d%n",
+            generatedTasks, publishedBatches);
+    }
+
+    /**
+     * Подбирает размер пакета по стоимости синхронизации и времени обработки задания.
+     * Пустая очередь сама по себе не уменьшает пакет: для дешёвых заданий она пуста
+     * почти всегда, и уменьшение вернуло бы по операции синхронизации на задание.
+     */
+    private void adaptBatchSize() {
+        // Очередь упорядочена, поэтому пакеты сверх оставшихся в ней уже извлечены интеграторами
+        int queued = queue.size();
+        while (pendingBatches.size() > queued) {
+            consumedTasks += pendingBatches.pollFirst();
+        }
+        long consumed = consumedTasks - lastConsumedTasks;
+        if (consumed < MIN_SAMPLE_TASKS || syncNanos < 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        // Время на задание по скорости извлечения - стоимость узкого места конвейера
+        taskNanos = smooth(taskNanos, (double) (now - lastSampleNanos) / consumed);
+        lastSampleNanos = now;
+        lastConsumedTasks = consumedTasks;
+        double target = Math.ceil(syncNanos / (MAX_SYNC_SHARE * taskNanos));
+        batchSize = (int) Math.max(minBatchSize, Math.min(maxBatchSize, target));
+    }
+
+    private static double smooth(double average, double sample) {
+        return average < 0 ? sample : average + SMOOTHING * (sample - average);
+    }
+
+    /**
+     * Возвращает текущий размер пакета.
+     * @return размер пакета
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Возвращает количество сгенерированных заданий.
+     * @return количество заданий
+     */
+    public int getGeneratedTasks() {
+        return generatedTasks;
+    }
+
+    /**
+     * Возвращает количество опубликованных пакетов (операций синхронизации с очередью).
+     * @return количество пакетов
+     */
+    public int getPublishedBatches() {
+        return publishedBatches;
+    }
+
+    /**
+     * Возвращает средний размер опубликованного пакета.
+     * @return средний размер пакета (0, если пакетов не было)
+     */
+    public double getAverageBatchSize() {
+        int batches = publishedBatches;
+        return batches == 0 ? 0.0 : (double) generatedTasks / batches;
+    }
+}
@@ -0,0 +1,71 @@
+package threads;
+
+import functions.Functions;
+
+/**
+ * Интегратор, извлекающий из очереди целые пакеты заданий.
+ * Пакет захватывается одной операцией над очередью и обрабатывается целиком
+ * без дальнейшей синхронизации. Поток завершается, когда очередь закрыта и пуста.
+ */
+public class BatchIntegrator extends Thread {
+    private final TaskQueue<Task.TaskData[]> queue;
+    private volatile int completedTasks;
+    private volatile int claimedBatches;
+
+    /**
+     * Конструктор класса BatchIntegrator.
+     * @param queue очередь пакетов заданий
+     */
+    public BatchIntegrator(TaskQueue<Task.TaskData[]> queue) {
+        this.queue = queue;
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Task.TaskData[] batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                System.out.printf("[BatchIntegrator] Поток прерван во время ожидания. Выполнено заданий: %d%n", completedTasks);
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (batch == null) {
+                break; // Очередь закрыта и все пакеты обработаны
+            }
+            claimedBatches++;
+
+            for (Task.TaskData taskData : batch) {
+                try {
+                    double result = Functions.integrate(taskData.function,
+                        taskData.leftBound, taskData.rightBound, taskData.step);
+                    System.out.printf("Result %.6f %.6f %.6f %.15f%n",
+                        taskData.leftBound, taskData.rightBound, taskData.step, result);
+                } catch (Exception e) {
+                    System.err.printf("Ошибка при интегрировании задания %d: %s%n",
+                        completedTasks + 1, e.getMessage());
+                }
+                completedTasks++;
+            }
+        }
+        System.out.printf("[BatchIntegrator] Выполнение заданий завершено. Обработано заданий: %d, пакетов: %d%n",
+            completedTasks, claimedBatches);
+    }
+
+    /**
+     * Возвращает количество обработанных заданий.
+     * @return количество обработанных заданий
+     */
+    public int getCompletedTasks() {
+        return completedTasks;
+    }
+
+    /**
+     * Возвращает количество захваченных пакетов.
+     * @return количество пакетов
+     */
+    public int getClaimedBatches() {
+        return claimedBatches;
+    }
+}
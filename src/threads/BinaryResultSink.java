@@ -0,0 +1,70 @@
+package threads;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Получатель результатов, записывающий их в двоичном виде: четыре числа double
+ * (левая граница, правая граница, шаг, значение) на каждый результат.
+ * Не тратит времени на форматирование и используется для измерений и сравнения
+ * результатов между запусками.
+ */
+public class BinaryResultSink implements ResultSink {
+    private final DataOutputStream out;
+
+    /**
+     * Создаёт получатель, записывающий результаты в заданный поток.
+     * @param out поток вывода
+     */
+    public BinaryResultSink(OutputStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream must not be null");
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UncheckedIOException если при записи произошла ошибка ввода-вывода
+     */
+    @Override
+    public synchronized void accept(double leftBound, double rightBound, double step, double result) {
+        try {
+            out.writeDouble(leftBound);
+            out.writeDouble(rightBound);
+            out.writeDouble(step);
+            out.writeDouble(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи результата", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UncheckedIOException если при записи произошла ошибка ввода-вывода
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи результатов", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UncheckedIOException если при записи произошла ошибка ввода-вывода
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка закрытия потока результатов", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package threads;
+
+import java.io.PrintStream;
+
+/**
+ * Получатель результатов, выводящий каждый результат сразу через printf
+ * в формате "Result левая правая шаг значение", как это делают интеграторы.
+ * Частичные результаты выводятся строками "Partial", отброшенные задания - строками "Shed".
+ */
+public class ConsoleResultSink implements ResultSink {
+    /** Формат строки Result по умолчанию: границы и шаг с 6 знаками, значение с 15 знаками. */
+    public static final String DEFAULT_RESULT_FORMAT = "Result %.6f %.6f %.6f %.15f%n";
+
+    private final PrintStream out;
+    private final String resultFormat;
+
+    /**
+     * Создаёт получатель, выводящий результаты в {@link System#out}.
+     */
+    public ConsoleResultSink() {
+        this(System.out);
+    }
+
+    /**
+     * Создаёт получатель, выводящий результаты в заданный поток.
+     * @param out поток вывода
+     */
+    public ConsoleResultSink(PrintStream out) {
+        this(out, DEFAULT_RESULT_FORMAT);
+    }
+
+    /**
+     * Создаёт получатель, выводящий результаты в заданный поток в заданном формате.
+     * @param out поток вывода
+     * @param resultFormat формат строки Result для printf с четырьмя аргументами:
+     * левая граница, правая граница, шаг и значение
+     */
+    public ConsoleResultSink(PrintStream out, String resultFormat) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream must not be null");
+        }
+        if (resultFormat == null) {
+            throw new IllegalArgumentException("Result format must not be null");
+        }
+        this.out = out;
+        this.resultFormat = resultFormat;
+    }
+
+    @Override
+    public void accept(double leftBound, double rightBound, double step, double result) {
+        out.printf(resultFormat, leftBound, rightBound, step, result);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Выводится в формате "Partial левая правая шаг значение пройденная_граница".
+     */
+    @Override
+    public void acceptPartial(double leftBound, double rightBound, double step, double result,
+                              double coveredBound) {
+        out.printf("Partial %.6f %.6f %.6f %.15f %.6f%n", leftBound, rightBound, step, result, coveredBound);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Выводится в формате "Shed левая правая шаг".
+     */
+    @Override
+    public void acceptShed(double leftBound, double rightBound, double step) {
+        out.printf("Shed %.6f %.6f %.6f%n", leftBound, rightBound, step);
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+}
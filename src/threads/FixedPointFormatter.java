@@ -0,0 +1,95 @@
+package threads;
+
+/**
+ * Форматирование чисел с фиксированным количеством знаков после запятой
+ * без {@link java.util.Formatter}.
+ *
+ * Число раскладывается на цифры кратчайшего десятичного представления
+ * ({@link Double#toString(double)}), которые затем округляются вверх от половины
+ * до нужного количества знаков. Так же округляет и формат "%.Nf", поэтому результат
+ * совпадает с String.format(Locale.ROOT, ...), но не зависит от локали
+ * и не создаёт промежуточных объектов, кроме строки представления числа.
+ */
+final class FixedPointFormatter {
+
+    private FixedPointFormatter() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    /**
+     * Дописывает число в формате "%.Nf".
+     * @param out буфер, в который дописывается число
+     * @param value число
+     * @param fractionDigits количество знаков после запятой
+     */
+    static void append(StringBuilder out, double value, int fractionDigits) {
+        if (Double.isNaN(value)) {
+            out.append("NaN");
+            return;
+        }
+        if (Double.isInfinite(value)) {
+            out.append(value > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.append('-');
+            value = -value;
+        }
+
+        // Цифры кратчайшего представления и положение десятичной точки относительно них
+        String text = Double.toString(value);
+        int exponentIndex = text.indexOf('E');
+        int mantissaEnd = exponentIndex < 0 ? text.length() : exponentIndex;
+        int dotIndex = text.indexOf('.');
+        int pointPosition = dotIndex;
+        if (exponentIndex >= 0) {
+            pointPosition += Integer.parseInt(text, exponentIndex + 1, text.length(), 10);
+        }
+        int digitsCount = mantissaEnd - 1; // Без точки
+
+        // Сохраняемые цифры: все до позиции cut (в нумерации цифр без точки)
+        int cut = pointPosition + fractionDigits;
+        int start = out.length();
+        for (int i = 0; i < cut; i++) {
+            out.append(i < digitsCount ? digitAt(text, dotIndex, i) : '0');
+        }
+        if (cut >= 0 && cut < digitsCount && digitAt(text, dotIndex, cut) >= '5') {
+            roundUp(out, start);
+        }
+
+        // Добавляем ведущие нули и десятичную точку
+        int kept = out.length() - start;
+        for (int i = kept; i <= fractionDigits; i++) {
+            out.insert(start, '0');
+        }
+        if (fractionDigits > 0) {
+            out.insert(out.length() - fractionDigits, '.');
+        }
+        // Убираем лишние ведущие нули в целой части
+        int integerEnd = out.length() - (fractionDigits > 0 ? fractionDigits + 1 : 0);
+        int leadingZeros = 0;
+        while (start + leadingZeros < integerEnd - 1 && out.charAt(start + leadingZeros) == '0') {
+            leadingZeros++;
+        }
+        out.delete(start, start + leadingZeros);
+    }
+
+    private static char digitAt(String text, int dotIndex, int index) {
+        return text.charAt(index < dotIndex ? index : index + 1);
+    }
+
+    /**
+     * Увеличивает на единицу число, записанное цифрами буфера начиная с позиции start.
+     */
+    private static void roundUp(StringBuilder out, int start) {
+        for (int i = out.length() - 1; i >= start; i--) {
+            char digit = out.charAt(i);
+            if (digit != '9') {
+                out.setCharAt(i, (char) (digit + 1));
+                return;
+            }
+            out.setCharAt(i, '0');
+        }
+        out.insert(start, '1'); // Перенос в новый старший разряд
+    }
+}
@@ -0,0 +1,155 @@
+package threads;
+
+import functions.CancellationToken;
+import functions.Function;
+import functions.Functions;
+import functions.PartialIntegral;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Интегрирование с разделением трудоёмких заданий на части.
+ *
+ * Стоимость задания оценивается количеством узлов сетки (rightBound - leftBound) / step
+ * ({@link Task.TaskData#getEstimatedCost()}). Задания не дороже порога интегрируются
+ * сразу в вызывающем потоке. Более дорогие задания рекурсивно делятся пополам
+ * по узлу сетки, пока части не станут не дороже порога; части выполняются
+ * в {@link ForkJoinPool}, где свободные потоки забирают их у занятых,
+ * а результаты частей складываются.
+ *
+ * Деление проходит по узлам leftBound + k * step, вычисленным от левой границы задания,
+ * а последовательное интегрирование {@link Functions#integrate(Function, double, double, double)}
+ * получает узлы накоплением x += step. Поэтому узлы совпадают лишь с точностью до ошибок
+ * округления их координат, и результат совпадает с последовательным не побитово,
+ * а с относительной погрешностью порядка ошибок округления.
+ *
+ * Признак отмены проверяется в каждой части, поэтому прерывание потока-владельца
+ * признака или истечение срока останавливает и разделённое задание; результатом
+ * становится интеграл на непрерывном начальном участке, вычисленном до отмены.
+ */
+public class ForkJoinIntegrator {
+    private static final double DEFAULT_THRESHOLD = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final double threshold;
+    private final LongAdder splitTasks = new LongAdder();
+
+    /**
+     * Создаёт интегратор, делящий задания дороже {@value #DEFAULT_THRESHOLD} узлов
+     * и выполняющий части в общем пуле {@link ForkJoinPool#commonPool()}.
+     */
+    public ForkJoinIntegrator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Создаёт интегратор с заданным пулом и порогом стоимости.
+     * @param pool пул, в котором выполняются части заданий
+     * @param threshold наибольшая стоимость задания (в узлах сетки), при которой оно не делится
+     * @throws IllegalArgumentException если пул равен null или порог меньше 2
+     */
+    public ForkJoinIntegrator(ForkJoinPool pool, double threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        if (!(threshold >= 2)) {
+            throw new IllegalArgumentException("Threshold must be at least 2");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Вычисляет интеграл задания, разделяя его на части, если оно дороже порога.
+     * @param task данные задания
+     * @return значение интеграла
+     * @throws IllegalArgumentException если параметры задания некорректны
+     */
+    public double integrate(Task.TaskData task) {
+        return integratePartial(task, null).value;
+    }
+
+    /**
+     * Вычисляет интеграл задания с возможностью отмены, разделяя его на части, если оно дороже порога.
+     * При отмене возвращается интеграл на начальном участке отрезка, все части которого
+     * были вычислены полностью.
+     * @param task данные задания
+     * @param token признак отмены (null, если отмена не требуется)
+     * @return значение интеграла и пройденная часть отрезка
+     * @throws IllegalArgumentException если параметры задания некорректны
+     */
+    public PartialIntegral integratePartial(Task.TaskData task, CancellationToken token) {
+        if (task.getEstimatedCost() <= threshold) {
+            return Functions.integratePartial(task.function, task.leftBound, task.rightBound, task.step, token);
+        }
+        splitTasks.increment();
+        long segments = (long) Math.ceil((task.rightBound - task.leftBound) / task.step);
+        return pool.invoke(new Part(task, 0, segments, segments, threshold, token));
+    }
+
+    /**
+     * Возвращает количество заданий, которые были разделены на части.
+     * @return количество разделённых заданий
+     */
+    public long getSplitTasks() {
+        return splitTasks.sum();
+    }
+
+    /**
+     * Возвращает порог стоимости, начиная с которого задания делятся.
+     * @return порог в узлах сетки
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Часть задания: участки сетки с номерами [from, to). Координаты узлов вычисляются
+     * от левой границы задания, поэтому точки деления не смещаются с глубиной рекурсии.
+     */
+    private static final class Part extends RecursiveTask<PartialIntegral> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Task.TaskData task;
+        private final long from;
+        private final long to;
+        private final long segments;
+        private final double threshold;
+        private final transient CancellationToken token;
+
+        Part(Task.TaskData task, long from, long to, long segments, double threshold, CancellationToken token) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.segments = segments;
+            this.threshold = threshold;
+            this.token = token;
+        }
+
+        @Override
+        protected PartialIntegral compute() {
+            double leftBound = task.leftBound + from * task.step;
+            double rightBound = to == segments ? task.rightBound : task.leftBound + to * task.step;
+            if (token != null && token.isCancelled()) {
+                return new PartialIntegral(0.0, leftBound, leftBound, rightBound);
+            }
+            if (to - from <= threshold) {
+                return Functions.integratePartial(task.function, leftBound, rightBound, task.step, token);
+            }
+            long middle = from + (to - from) / 2;
+            Part left = new Part(task, from, middle, segments, threshold, token);
+            Part right = new Part(task, middle, to, segments, threshold, token);
+            left.fork();
+            PartialIntegral rightPart = right.compute();
+            PartialIntegral leftPart = left.join();
+            // Пройденным считается только непрерывный начальный участок
+            if (!leftPart.isComplete()) {
+                return new PartialIntegral(leftPart.value, leftBound, leftPart.coveredBound, rightBound);
+            }
+            return new PartialIntegral(leftPart.value + rightPart.value, leftBound, rightPart.coveredBound,
+                rightBound);
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package threads;
 
-import functions.Function;
-import functions.basic.Log;
-
 import java.util.Random;
 
 /**
@@ -14,6 +11,7 @@ public class Generator extends Thread {
     private final Task task;
     private final ReadWriteSemaphore semaphore;
     private final Random random;
+    private volatile TaskLogWriter taskLog;
 
     /**
      * Конструктор класса Generator.
@@ -26,9 +24,19 @@ public class Generator extends Thread {
         this.random = new Random();
     }
 
+    /**
+     * Включает запись генерируемых заданий в журнал для последующего воспроизведения.
+     * Должен вызываться до запуска генератора.
+     * @param taskLog журнал заданий или null, чтобы отключить запись
+     */
+    public void setTaskLog(TaskLogWriter taskLog) {
+        this.taskLog = taskLog;
+    }
+
     @Override
     public void run() {
         int tasksCount = task.getTasksCount();
+        TaskLogWriter log = taskLog;
         
         for (int i = 0; i < tasksCount; i++) {
             // Проверяем, не был ли поток прерван - проверяем в начале каждой итерации
@@ -42,33 +50,12 @@ public class Generator extends Thread {
                 if (Thread.currentThread().isInterrupted()) {
                     throw new InterruptedException("Поток прерван перед записью");
                 }
-                // Создаем логарифмическую функцию со случайным основанием от 1 до 10
-                // Основание должно быть > 1 и не равно 1
-                double base = 1.0 + 1e-10 + random.nextDouble() * (10.0 - 1.0 - 1e-10);
-                Function logFunction = new Log(base);
-                
-                // Левая граница: случайно от 0 до 100
-                double leftBound = random.nextDouble() * 100.0;
-                
-                // Правая граница: случайно от 100 до 200
-                double rightBound = 100.0 + random.nextDouble() * 100.0;
-                
-                // Убеждаемся, что правая граница больше левой
-                if (rightBound <= leftBound) {
-                    rightBound = leftBound + 0.1;
+                // Логарифм со случайным основанием от 1 до 10 и случайными границами и шагом
+                Task.TaskData data = Task.TaskData.random(random);
+                if (log != null) {
+                    log.record(data);
                 }
-                
-                // Шаг дискретизации: случайно от 0 до 1
-                double step = random.nextDouble();
-                if (step == 0.0 || step < 1e-10) {
-                    step = 1e-10;
-                }
-                // Убеждаемся, что шаг не больше длины интервала
-                double intervalLength = rightBound - leftBound;
-                if (step > intervalLength) {
-                    step = intervalLength / 2.0;
-                }
-                
+
                 // Используем семафор для записи вместо synchronized блока
                 semaphore.startWrite();
                 try {
@@ -76,27 +63,18 @@ public class Generator extends Thread {
                     if (Thread.currentThread().isInterrupted()) {
                         throw new InterruptedException("Поток прерван во время записи");
                     }
-                    task.setTask(logFunction, leftBound, rightBound, step);
+                    task.setTask(data.function, data.leftBound, data.rightBound, data.step);
                     task.setProcessed(false); // Сбрасываем флаг обработки
                 } finally {
                     semaphore.endWrite();
                 }
 
                 // Выводим сообщение Source
-                System.out.printf("Source %.6f %.6f %.6f%n", leftBound, rightBound, step);
+                System.out.printf("Source %.6f %.6f %.6f%n", data.leftBound, data.rightBound, data.step);
 
                 // Ждем, пока интегратор полностью обработает задание
-                while (!Thread.currentThread().isInterrupted()) {
-                    if (task.isProcessed()) {
-                        break; // Задание обработано, можно создавать следующее
-                    }
-                    try {
-                        Thread.sleep(1);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
+                // (поток будится интегратором, а не по таймеру)
+                task.awaitProcessed();
                 
             } catch (InterruptedException e) {
                 System.out.printf("[Generator] Поток прерван во время генерации задания %d из %d%n", i + 1, tasksCount);
@@ -107,14 +85,8 @@ public class Generator extends Thread {
             }
         }
         System.out.println("[Generator] Выполнение заданий завершено. Сгенерировано заданий: " + tasksCount);
-        // Помечаем генератор как завершивший работу
+        // Помечаем генератор как завершивший работу (ожидающий интегратор будет разбужен)
         task.setGeneratorFinished();
-        // Небольшая пауза, чтобы другие потоки успели увидеть флаг
-        try {
-            Thread.sleep(10);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
     }
 }
 
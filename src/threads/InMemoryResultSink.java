@@ -0,0 +1,90 @@
+package threads;
+
+import java.util.Arrays;
+
+/**
+ * Получатель результатов, сохраняющий их в памяти.
+ * Используется в измерениях, где вывод не должен влиять на время обработки,
+ * и для проверки результатов после выполнения заданий.
+ */
+public class InMemoryResultSink implements ResultSink {
+    private static final int FIELDS = 4;
+
+    private double[] records = new double[64 * FIELDS];
+    private int count;
+
+    @Override
+    public synchronized void accept(double leftBound, double rightBound, double step, double result) {
+        if (count * FIELDS == records.length) {
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+        int offset = count * FIELDS;
+        records[offset] = leftBound;
+        records[offset + 1] = rightBound;
+        records[offset + 2] = step;
+        records[offset + 3] = result;
+        count++;
+    }
+
+    /**
+     * Возвращает количество сохранённых результатов.
+     * @return количество результатов
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Возвращает левую границу интегрирования для результата с заданным номером.
+     * @param index номер результата в порядке поступления
+     * @return левая граница
+     * @throws IndexOutOfBoundsException если номер вне диапазона
+     */
+    public synchronized double getLeftBound(int index) {
+        return field(index, 0);
+    }
+
+    /**
+     * Возвращает правую границу интегрирования для результата с заданным номером.
+     * @param index номер результата в порядке поступления
+     * @return правая граница
+     * @throws IndexOutOfBoundsException если номер вне диапазона
+     */
+    public synchronized double getRightBound(int index) {
+        return field(index, 1);
+    }
+
+    /**
+     * Возвращает шаг дискретизации для результата с заданным номером.
+     * @param index номер результата в порядке поступления
+     * @return шаг дискретизации
+     * @throws IndexOutOfBoundsException если номер вне диапазона
+     */
+    public synchronized double getStep(int index) {
+        return field(index, 2);
+    }
+
+    /**
+     * Возвращает значение интеграла для результата с заданным номером.
+     * @param index номер результата в порядке поступления
+     * @return значение интеграла
+     * @throws IndexOutOfBoundsException если номер вне диапазона
+     */
+    public synchronized double getResult(int index) {
+        return field(index, 3);
+    }
+
+    /**
+     * Удаляет все сохранённые результаты.
+     */
+    public synchronized void clear() {
+        count = 0;
+    }
+
+    private double field(int index, int field) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Result index " + index + " out of range [0, " + count + ")");
+        }
+        return records[index * FIELDS + field];
+    }
+}
@@ -0,0 +1,513 @@
+package threads;
+
+import functions.FunctionCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Координатор, раздающий задания интеграторам в других процессах по TCP.
+ *
+ * Задания забираются из {@link TaskBuffer} и отправляются подключившимся
+ * {@link RemoteIntegrator} по протоколу {@link RemoteProtocol}, а результаты
+ * передаются в {@link ResultSink} (из потоков приёма разных интеграторов одновременно).
+ *
+ * Управление потоком:
+ * <ul>
+ * <li>каждому интегратору отправляется не больше заданий, чем он объявил кредитов
+ * при подключении; каждый результат возвращает один кредит;</li>
+ * <li>из буфера заданий забирается не больше {@code maxOutstanding} заданий, по которым
+ * ещё нет результата, поэтому при медленных интеграторах генераторы ждут на
+ * заполненном буфере, а не накапливают задания в памяти координатора.</li>
+ * </ul>
+ *
+ * Если соединение с интегратором разрывается, все отправленные ему и не выполненные
+ * задания возвращаются в начало очереди отправки и достаются другим интеграторам
+ * (или интеграторам, подключившимся позже). Задание, потерянное
+ * {@value #MAX_ATTEMPTS} раза, считается ошибочным, чтобы задание, приводящее
+ * к падению интеграторов, не перебрало их все.
+ *
+ * Работа завершается, когда буфер заданий закрыт и пуст, а по всем заданиям
+ * получены результаты; после этого интеграторы получают сообщение о завершении.
+ */
+public class IntegrationCoordinator implements AutoCloseable {
+    private static final int DEFAULT_MAX_OUTSTANDING = 256;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int MAX_CREDITS = 1024;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+    private static final Assignment END = new Assignment(null);
+
+    private final TaskBuffer<Task.TaskData> tasks;
+    private final ResultSink resultSink;
+    private final Semaphore window;
+    private final LinkedBlockingDeque<Assignment> ready = new LinkedBlockingDeque<>();
+    private final List<WorkerSession> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger completedTasks = new AtomicInteger();
+    private final AtomicInteger failedTasks = new AtomicInteger();
+    private final AtomicInteger reassignedTasks = new AtomicInteger();
+    private final AtomicBoolean finishing = new AtomicBoolean();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean sourceExhausted;
+    private volatile boolean closed;
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+    private Thread feeder;
+    private int connectedWorkers;
+
+    /**
+     * Создаёт координатор с ограничением в {@value #DEFAULT_MAX_OUTSTANDING} невыполненных заданий.
+     * @param tasks буфер заданий
+     * @param resultSink получатель результатов
+     */
+    public IntegrationCoordinator(TaskBuffer<Task.TaskData> tasks, ResultSink resultSink) {
+        this(tasks, resultSink, DEFAULT_MAX_OUTSTANDING);
+    }
+
+    /**
+     * Создаёт координатор.
+     * @param tasks буфер заданий
+     * @param resultSink получатель результатов
+     * @param maxOutstanding максимальное количество заданий, забранных из буфера, но ещё не выполненных
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public IntegrationCoordinator(TaskBuffer<Task.TaskData> tasks, ResultSink resultSink, int maxOutstanding) {
+        if (tasks == null || resultSink == null) {
+            throw new IllegalArgumentException("Tasks and result sink must not be null");
+        }
+        if (maxOutstanding <= 0) {
+            throw new IllegalArgumentException("Max outstanding count must be positive");
+        }
+        this.tasks = tasks;
+        this.resultSink = resultSink;
+        this.window = new Semaphore(maxOutstanding);
+    }
+
+    /**
+     * Запускает координатор на локальном адресе и свободном порту.
+     * @return номер порта, к которому подключаются интеграторы
+     * @throws IOException если не удалось открыть порт
+     */
+    public int start() throws IOException {
+        return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    /**
+     * Запускает координатор на заданном адресе.
+     * @param address адрес, к которому подключаются интеграторы
+     * @return номер порта
+     * @throws IOException если не удалось открыть порт
+     * @throws IllegalStateException если координатор уже запущен
+     */
+    public synchronized int start(InetSocketAddress address) throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Координатор уже запущен");
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.bind(address);
+        acceptor = new Thread(this::acceptLoop, "Coordinator-Acceptor");
+        acceptor.setDaemon(true);
+        feeder = new Thread(this::feedLoop, "Coordinator-Feeder");
+        feeder.setDaemon(true);
+        acceptor.start();
+        feeder.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Ожидает, пока по всем заданиям будут получены результаты.
+     * @param timeout максимальное время ожидания
+     * @param unit единица измерения времени
+     * @return true, если все задания выполнены
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    /**
+     * Останавливает координатор: закрывает порт и все соединения с интеграторами.
+     * Если все задания выполнены, интеграторы перед закрытием соединения получают
+     * сообщение о завершении.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (serverSocket != null) {
+                try {
+                    serverSocket.close();
+                } catch (IOException e) {
+                    // Порт закрывается при завершении работы - ошибку можно проигнорировать
+                }
+                acceptor.interrupt();
+                feeder.interrupt();
+            }
+        }
+        boolean interrupted = false;
+        for (WorkerSession session : sessions) {
+            if (finished.getCount() == 0) {
+                try {
+                    session.sender.join(HANDSHAKE_TIMEOUT_MILLIS); // Отправитель завершается после сообщения о завершении
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            session.fail(null);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Возвращает количество успешно выполненных заданий.
+     * @return количество заданий
+     */
+    public int getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    /**
+     * Возвращает количество заданий, завершившихся ошибкой.
+     * @return количество заданий
+     */
+    public int getFailedTasks() {
+        return failedTasks.get();
+    }
+
+    /**
+     * Возвращает количество переназначений заданий после потери соединения с интегратором.
+     * @return количество переназначений
+     */
+    public int getReassignedTasks() {
+        return reassignedTasks.get();
+    }
+
+    /**
+     * Возвращает количество интеграторов, подключённых в данный момент.
+     * @return количество интеграторов
+     */
+    public int getConnectedWorkers() {
+        return sessions.size();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("[IntegrationCoordinator] Ошибка приёма подключения: " + e.getMessage());
+                }
+                return;
+            }
+            // Рукопожатие выполняется в потоке соединения: молчащий клиент не задерживает приём остальных
+            WorkerSession session = new WorkerSession(socket, ++connectedWorkers);
+            sessions.add(session);
+            session.start();
+            if (closed) {
+                session.fail(null);
+            }
+        }
+    }
+
+    private void feedLoop() {
+        try {
+            while (true) {
+                window.acquire();
+                Task.TaskData task = tasks.take();
+                if (task == null) {
+                    break;
+                }
+                if (!FunctionCodec.isEncodable(task.function)) {
+                    System.err.println("[IntegrationCoordinator] Функция задания не может быть передана: "
+                            + task.function.getClass().getName());
+                    failedTasks.incrementAndGet();
+                    window.release();
+                    continue;
+                }
+                outstanding.incrementAndGet();
+                ready.addLast(new Assignment(task));
+            }
+            window.release();
+            sourceExhausted = true;
+            if (outstanding.get() == 0) {
+                finish();
+            }
+        } catch (InterruptedException e) {
+            // Координатор закрыт
+        }
+    }
+
+    /**
+     * Учитывает завершение задания (успешное или ошибочное).
+     */
+    private void taskDone() {
+        window.release();
+        if (outstanding.decrementAndGet() == 0 && sourceExhausted) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        if (finishing.compareAndSet(false, true)) {
+            // Одна метка завершения на всех: отправитель, получивший её, возвращает её в очередь
+            ready.addLast(END);
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Возвращает в очередь отправки задание, потерянное вместе с соединением.
+     */
+    private void reassign(Assignment assignment) {
+        assignment.attempts++;
+        if (assignment.attempts >= MAX_ATTEMPTS) {
+            System.err.printf("[IntegrationCoordinator] Задание %.6f %.6f %.6f потеряно %d раза и не будет "
+                            + "отправлено снова%n", assignment.task.leftBound, assignment.task.rightBound,
+                    assignment.task.step, assignment.attempts);
+            failedTasks.incrementAndGet();
+            taskDone();
+        } else {
+            reassignedTasks.incrementAndGet();
+            ready.addFirst(assignment);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Соединение уже разорвано
+        }
+    }
+
+    /**
+     * Задание, переданное или ожидающее передачи интегратору.
+     */
+    private static final class Assignment {
+        private final Task.TaskData task;
+        private int attempts;
+
+        Assignment(Task.TaskData task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * Соединение с одним интегратором: поток отправки заданий и поток приёма результатов.
+     * Поток приёма сначала выполняет рукопожатие и только после него запускает поток отправки.
+     */
+    private final class WorkerSession {
+        private final Socket socket;
+        private final String name;
+        // Заполняются при рукопожатии до запуска потока отправки
+        private DataInputStream in;
+        private DataOutputStream out;
+        private Semaphore credits;
+        private final Map<Long, Assignment> inFlight = new HashMap<>();
+        private final Thread sender;
+        private final Thread receiver;
+        private long nextId; // Номера заданий уникальны в пределах соединения
+        private boolean failed;
+        private volatile boolean shutdownSent;
+
+        WorkerSession(Socket socket, int number) {
+            this.socket = socket;
+            this.name = "Worker-" + number + " (" + socket.getRemoteSocketAddress() + ")";
+            this.sender = new Thread(this::sendLoop, "Coordinator-Sender-" + number);
+            this.receiver = new Thread(this::receiveLoop, "Coordinator-Receiver-" + number);
+            sender.setDaemon(true);
+            receiver.setDaemon(true);
+        }
+
+        void start() {
+            receiver.start();
+        }
+
+        /**
+         * Проверяет сигнатуру и версию протокола и читает количество кредитов интегратора.
+         * Ожидание ответа ограничено {@link #HANDSHAKE_TIMEOUT_MILLIS}.
+         * @throws IOException если интегратор не прошёл подключение
+         */
+        private void handshake() throws IOException {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+            if (in.readInt() != RemoteProtocol.MAGIC) {
+                throw new IOException("Неверная сигнатура протокола");
+            }
+            int version = in.readInt();
+            if (version != RemoteProtocol.VERSION) {
+                throw new IOException("Неподдерживаемая версия протокола: " + version);
+            }
+            int creditsCount = in.readInt();
+            if (creditsCount <= 0 || creditsCount > MAX_CREDITS) {
+                throw new IOException("Некорректное количество кредитов: " + creditsCount);
+            }
+            socket.setSoTimeout(0);
+            credits = new Semaphore(creditsCount);
+            System.out.printf("[IntegrationCoordinator] Подключён интегратор %s, кредитов: %d%n", name, creditsCount);
+        }
+
+        private void sendLoop() {
+            try {
+                while (true) {
+                    credits.acquire();
+                    Assignment assignment = ready.pollFirst();
+                    if (assignment == null) {
+                        // Перед ожиданием отправляем накопленное: иначе задания останутся в буфере,
+                        // если последнее задание заберёт другой отправитель
+                        out.flush();
+                        assignment = ready.takeFirst();
+                    }
+                    if (assignment == END) {
+                        ready.addFirst(END);
+                        shutdownSent = true;
+                        out.writeByte(RemoteProtocol.SHUTDOWN);
+                        out.flush();
+                        return;
+                    }
+                    long id;
+                    synchronized (this) {
+                        if (failed) {
+                            ready.addFirst(assignment); // Соединение разорвано, пока задание извлекалось
+                            return;
+                        }
+                        id = nextId++;
+                        inFlight.put(id, assignment);
+                    }
+                    RemoteProtocol.writeTask(out, id, assignment.task);
+                    // Кредиты кончились - следующего задания не будет до ответа, отправляем накопленное
+                    if (credits.availablePermits() == 0) {
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Соединение закрыто
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void receiveLoop() {
+            try {
+                handshake();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("[IntegrationCoordinator] Интегратор не прошёл подключение: " + e.getMessage());
+                }
+                close();
+                return;
+            }
+            synchronized (this) {
+                if (failed) {
+                    return; // Соединение закрыто во время рукопожатия
+                }
+                sender.start();
+            }
+            try {
+                while (true) {
+                    byte type;
+                    try {
+                        type = in.readByte();
+                    } catch (EOFException e) {
+                        if (shutdownSent) {
+                            close();
+                        } else {
+                            fail(e);
+                        }
+                        return;
+                    }
+                    long id = in.readLong();
+                    Assignment assignment;
+                    synchronized (this) {
+                        assignment = inFlight.remove(id);
+                    }
+                    if (type == RemoteProtocol.RESULT) {
+                        double value = in.readDouble();
+                        if (assignment != null) {
+                            Task.TaskData task = assignment.task;
+                            resultSink.accept(task.leftBound, task.rightBound, task.step, value);
+                            completedTasks.incrementAndGet();
+                        }
+                    } else if (type == RemoteProtocol.FAILURE) {
+                        String message = in.readUTF();
+                        if (assignment != null) {
+                            System.err.printf("[IntegrationCoordinator] Ошибка при интегрировании задания "
+                                    + "на интеграторе %s: %s%n", name, message);
+                            failedTasks.incrementAndGet();
+                        }
+                    } else {
+                        throw new IOException("Неизвестный тип сообщения: " + type);
+                    }
+                    if (assignment != null) {
+                        credits.release();
+                        taskDone();
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Разрывает соединение и переназначает задания, по которым не получен результат.
+         * @param cause причина или null, если соединение закрывается координатором
+         */
+        void fail(Throwable cause) {
+            List<Assignment> lost;
+            synchronized (this) {
+                if (failed) {
+                    return;
+                }
+                failed = true;
+                lost = new ArrayList<>(inFlight.values());
+                inFlight.clear();
+            }
+            closeQuietly(socket);
+            sender.interrupt();
+            sessions.remove(this);
+            if (cause != null && !closed) {
+                String reason = cause instanceof SocketException || cause instanceof EOFException
+                        ? "соединение разорвано" : cause.getMessage();
+                System.out.printf("[IntegrationCoordinator] Потеряно соединение с интегратором %s (%s), "
+                        + "переназначено заданий: %d%n", name, reason, lost.size());
+            }
+            for (Assignment assignment : lost) {
+                reassign(assignment);
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                failed = true;
+            }
+            closeQuietly(socket);
+            sessions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Конвейер интегрирования с управляемым жизненным циклом.
+ *
+ * Объединяет генераторы, буфер заданий и {@link IntegratorPool} и отвечает за все
+ * их потоки: {@link #start()} создаёт свежий буфер, пул и генераторы и запускает их;
+ * когда генераторы завершаются, буфер закрывается, и конвейер останавливается сам,
+ * обработав оставшиеся задания. {@link #shutdown(long, TimeUnit)} останавливает
+ * конвейер досрочно: генераторы прерываются, а интеграторы дорабатывают уже
+ * опубликованные задания; если они не успели к сроку, интеграторы прерываются
+ * (интегрирование прекращается внутри цикла и даёт частичный результат),
+ * а необработанные задания извлекаются из буфера и учитываются как брошенные.
+ *
+ * После остановки конвейер не держит ни потоков, ни буфера и может быть запущен снова
+ * с той же конфигурацией. {@link #getHealth()} сообщает состояние для проверок живости:
+ * сколько потоков работает, размер очереди и время с последнего выполненного задания.
+ */
+public class IntegrationPipeline {
+    /** Время, в течение которого ожидаются прерванные потоки при принудительной остановке. */
+    private static final long HARD_STOP_GRACE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Состояние конвейера.
+     */
+    public enum State {
+        /** Конвейер ещё не запускался. */
+        NEW,
+        /** Генераторы публикуют задания, интеграторы их обрабатывают. */
+        RUNNING,
+        /** Идёт остановка: новые задания не публикуются, оставшиеся дорабатываются. */
+        DRAINING,
+        /** Конвейер остановлен, все потоки завершены. */
+        STOPPED,
+        /** Конвейер остановлен, но поток завершился с ошибкой или не ответил на прерывание. */
+        FAILED
+    }
+
+    /**
+     * Фабрика генератора: создаёт ещё не запущенный поток, публикующий задания
+     * в буфер конвейера. Поток запускает конвейер; при остановке поток прерывается.
+     */
+    public interface ProducerFactory {
+        Thread create(TaskBuffer<Task.TaskData> buffer);
+    }
+
+    private final String name;
+    private final Supplier<? extends TaskBuffer<Task.TaskData>> bufferFactory;
+    private final int workersCount;
+    private final PipelineMetrics metrics;
+    private final ResultSink resultSink;
+    private final long stallThresholdNanos;
+    private final List<ProducerFactory> producerFactories = new ArrayList<>();
+
+    private volatile State state = State.NEW;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private TaskBuffer<Task.TaskData> buffer;
+    private IntegratorPool pool;
+    private List<Thread> producers = Collections.emptyList();
+    private Thread supervisor;
+    private int runs;
+
+    // Результаты последнего запуска, сохраняются после освобождения потоков и буфера
+    private int completedTasks;
+    private int lastProgressTasks;
+    private long lastProgressNanos;
+    private ShutdownReport lastReport;
+
+    /**
+     * Создаёт конвейер с буфером {@link TaskQueue} заданной вместимости.
+     * @param name имя конвейера, используется в именах потоков и сообщениях
+     * @param queueCapacity вместимость очереди заданий
+     * @param workersCount количество интеграторов
+     * @param resultSink получатель результатов или null для вывода через printf
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public IntegrationPipeline(String name, int queueCapacity, int workersCount, ResultSink resultSink) {
+        this(name, () -> new TaskQueue<>(queueCapacity), workersCount, null, resultSink,
+            TimeUnit.SECONDS.toNanos(10));
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+    }
+
+    /**
+     * Создаёт конвейер.
+     * @param name имя конвейера, используется в именах потоков и сообщениях
+     * @param bufferFactory фабрика буфера заданий; вызывается при каждом запуске,
+     * так как закрытый буфер нельзя использовать повторно
+     * @param workersCount количество интеграторов
+     * @param metrics метрики конвейера или null, если метрики не собираются
+     * @param resultSink получатель результатов или null для вывода через printf
+     * @param stallThresholdNanos время без выполненных заданий при непустой очереди,
+     * после которого конвейер считается зависшим
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public IntegrationPipeline(String name, Supplier<? extends TaskBuffer<Task.TaskData>> bufferFactory,
+                               int workersCount, PipelineMetrics metrics, ResultSink resultSink,
+                               long stallThresholdNanos) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name must not be null");
+        }
+        if (bufferFactory == null) {
+            throw new IllegalArgumentException("Buffer factory must not be null");
+        }
+        if (workersCount <= 0) {
+            throw new IllegalArgumentException("Workers count must be positive");
+        }
+        if (stallThresholdNanos <= 0) {
+            throw new IllegalArgumentException("Stall threshold must be positive");
+        }
+        this.name = name;
+        this.bufferFactory = bufferFactory;
+        this.workersCount = workersCount;
+        this.metrics = metrics;
+        this.resultSink = resultSink;
+        this.stallThresholdNanos = stallThresholdNanos;
+    }
+
+    /**
+     * Добавляет генератор заданий. Генераторы создаются заново при каждом запуске.
+     * @param factory фабрика генератора
+     * @throws IllegalStateException если конвейер работает
+     */
+    public synchronized void addProducer(ProducerFactory factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Producer factory must not be null");
+        }
+        if (state == State.RUNNING || state == State.DRAINING) {
+            throw new IllegalStateException("Нельзя добавить генератор в работающий конвейер");
+        }
+        producerFactories.add(factory);
+    }
+
+    /**
+     * Запускает конвейер: создаёт буфер, пул интеграторов и генераторы.
+     * Остановленный конвейер можно запустить повторно.
+     * @throws IllegalStateException если конвейер уже работает или не содержит генераторов
+     */
+    public synchronized void start() {
+        if (state == State.RUNNING || state == State.DRAINING) {
+            throw new IllegalStateException("Конвейер " + name + " уже запущен");
+        }
+        if (producerFactories.isEmpty()) {
+            throw new IllegalStateException("Конвейер " + name + " не содержит генераторов");
+        }
+        runs++;
+        failure.set(null);
+        completedTasks = 0;
+        lastProgressTasks = 0;
+        lastProgressNanos = System.nanoTime();
+        lastReport = null;
+
+        buffer = bufferFactory.get();
+        Thread.UncaughtExceptionHandler handler = (thread, e) -> {
+            failure.compareAndSet(null, e);
+            System.err.printf("[IntegrationPipeline] %s: поток %s завершился с ошибкой: %s%n",
+                name, thread.getName(), e);
+        };
+        // Буфер закрывается только после выхода генераторов, но генератор, не ответивший на прерывание,
+        // может наткнуться на закрытый буфер - во время остановки это штатное завершение
+        Thread.UncaughtExceptionHandler producerHandler = (thread, e) -> {
+            if (!(state == State.DRAINING && e instanceof IllegalStateException)) {
+                handler.uncaughtException(thread, e);
+            }
+        };
+        pool = new IntegratorPool(buffer, workersCount, metrics, resultSink);
+        pool.setUncaughtExceptionHandler(handler);
+        List<Thread> created = new ArrayList<>(producerFactories.size());
+        for (int i = 0; i < producerFactories.size(); i++) {
+            Thread producer = producerFactories.get(i).create(buffer);
+            producer.setName(name + "-producer-" + (i + 1));
+            producer.setUncaughtExceptionHandler(producerHandler);
+            created.add(producer);
+        }
+        producers = created;
+
+        TaskBuffer<Task.TaskData> runBuffer = buffer;
+        IntegratorPool runPool = pool;
+        supervisor = new Thread(() -> supervise(created, runBuffer, runPool), name + "-supervisor");
+        supervisor.setDaemon(true);
+        state = State.RUNNING;
+        pool.start();
+        for (Thread producer : created) {
+            producer.start();
+        }
+        supervisor.start();
+        System.out.printf("[IntegrationPipeline] %s: запуск %d, генераторов: %d, интеграторов: %d%n",
+            name, runs, created.size(), workersCount);
+    }
+
+    /**
+     * Останавливает конвейер. Генераторы прерываются, после их выхода буфер закрывается,
+     * и интеграторы дорабатывают опубликованные задания до истечения заданного времени; после этого
+     * интеграторы прерываются, а оставшиеся в буфере задания считаются брошенными.
+     * Метод возвращается, когда все потоки конвейера завершились или не ответили
+     * на прерывание в течение секунды.
+     * @param timeout время на корректное завершение
+     * @param unit единица измерения времени
+     * @return отчёт об остановке; если конвейер не работал - отчёт последнего запуска или null
+     * @throws InterruptedException если вызывающий поток был прерван во время ожидания
+     */
+    public ShutdownReport shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        TaskBuffer<Task.TaskData> runBuffer;
+        IntegratorPool runPool;
+        List<Thread> runProducers;
+        Thread runSupervisor;
+        synchronized (this) {
+            if (state != State.RUNNING) {
+                return awaitReport();
+            }
+            state = State.DRAINING;
+            runBuffer = buffer;
+            runPool = pool;
+            runProducers = producers;
+            runSupervisor = supervisor;
+        }
+        long startTime = System.nanoTime();
+        long deadline = startTime + unit.toNanos(timeout);
+        System.out.printf("[IntegrationPipeline] %s: остановка, время на завершение %d мс%n",
+            name, unit.toMillis(timeout));
+
+        // Супервизор больше не нужен: дальнейшие переходы выполняет остановка
+        runSupervisor.interrupt();
+        for (Thread producer : runProducers) {
+            producer.interrupt();
+        }
+        // Закрывать буфер можно только после выхода генераторов: генератор, ожидающий места
+        // в очереди, иначе увидит закрытый буфер раньше прерывания. Даже при нулевом сроке
+        // генераторам даётся время ответить на прерывание.
+        joinAll(runProducers, Math.max(deadline, System.nanoTime() + HARD_STOP_GRACE_NANOS));
+        runBuffer.close();
+        boolean graceful = runPool.awaitCompletion(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+            && !anyAlive(runProducers);
+
+        int abandonedTasks = 0;
+        if (!graceful) {
+            System.out.printf("[IntegrationPipeline] %s: время истекло, принудительная остановка%n", name);
+            for (Thread producer : runProducers) {
+                producer.interrupt();
+            }
+            runPool.interrupt();
+            // Задания в буфере не будут обработаны - освобождаем их сразу
+            while (runBuffer.poll() != null) {
+                abandonedTasks++;
+            }
+            long graceDeadline = System.nanoTime() + HARD_STOP_GRACE_NANOS;
+            joinAll(runProducers, graceDeadline);
+            runPool.awaitCompletion(Math.max(0, graceDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        runSupervisor.join(TimeUnit.NANOSECONDS.toMillis(HARD_STOP_GRACE_NANOS));
+
+        int unresponsive = runPool.getAliveWorkersCount() + (runSupervisor.isAlive() ? 1 : 0);
+        for (Thread producer : runProducers) {
+            if (producer.isAlive()) {
+                unresponsive++;
+            }
+        }
+        ShutdownReport report = new ShutdownReport(graceful, runPool.getCompletedTasks(), runPool.getPartialTasks(),
+            abandonedTasks, unresponsive, System.nanoTime() - startTime);
+        if (unresponsive > 0) {
+            failure.compareAndSet(null, new IllegalStateException(
+                "Потоков, не ответивших на прерывание: " + unresponsive));
+        }
+        finish(runPool, report);
+        return report;
+    }
+
+    /**
+     * Немедленно останавливает конвейер: интеграторы прерываются без ожидания,
+     * оставшиеся задания считаются брошенными.
+     * @return отчёт об остановке
+     * @throws InterruptedException если вызывающий поток был прерван во время ожидания
+     */
+    public ShutdownReport shutdownNow() throws InterruptedException {
+        return shutdown(0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Ожидает остановки конвейера - самостоятельной или по {@link #shutdown(long, TimeUnit)}.
+     * @param timeout максимальное время ожидания
+     * @param unit единица измерения времени
+     * @return true, если конвейер остановлен
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (state == State.RUNNING || state == State.DRAINING) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает текущее состояние конвейера.
+     * @return состояние
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Возвращает отчёт о последней остановке.
+     * @return отчёт или null, если конвейер работает или ещё не запускался
+     */
+    public synchronized ShutdownReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Возвращает ошибку последнего запуска.
+     * @return исключение, с которым завершился поток конвейера, или null
+     */
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    /**
+     * Возвращает снимок состояния конвейера для проверок живости.
+     * Время с последнего выполненного задания отсчитывается между вызовами метода,
+     * поэтому для обнаружения зависания его следует вызывать периодически.
+     * @return состояние конвейера
+     */
+    public synchronized Health getHealth() {
+        long now = System.nanoTime();
+        int aliveProducers = 0;
+        for (Thread producer : producers) {
+            if (producer.isAlive()) {
+                aliveProducers++;
+            }
+        }
+        int aliveWorkers = 0;
+        int backlog = 0;
+        if (pool != null) {
+            aliveWorkers = pool.getAliveWorkersCount();
+            backlog = buffer.size();
+            completedTasks = pool.getCompletedTasks();
+        }
+        if (completedTasks != lastProgressTasks || backlog == 0) {
+            lastProgressTasks = completedTasks;
+            lastProgressNanos = now;
+        }
+        return new Health(name, state, aliveProducers, producers.size(), aliveWorkers,
+            pool != null ? workersCount : 0, backlog, completedTasks, now - lastProgressNanos,
+            stallThresholdNanos, failure.get());
+    }
+
+    /**
+     * Дожидается завершения генераторов, закрывает буфер и ожидает интеграторов.
+     * Прерывание означает, что остановкой занимается {@link #shutdown(long, TimeUnit)}.
+     */
+    private void supervise(List<Thread> runProducers, TaskBuffer<Task.TaskData> runBuffer, IntegratorPool runPool) {
+        try {
+            for (Thread producer : runProducers) {
+                producer.join();
+            }
+            runBuffer.close();
+            runPool.awaitCompletion();
+        } catch (InterruptedException e) {
+            return;
+        }
+        synchronized (this) {
+            if (state != State.RUNNING || pool != runPool) {
+                return;
+            }
+            state = State.DRAINING;
+        }
+        finish(runPool, new ShutdownReport(true, runPool.getCompletedTasks(), runPool.getPartialTasks(), 0, 0, 0));
+    }
+
+    /**
+     * Завершает запуск: сохраняет итоги и освобождает ссылки на потоки и буфер.
+     */
+    private synchronized void finish(IntegratorPool runPool, ShutdownReport report) {
+        completedTasks = runPool.getCompletedTasks();
+        lastReport = report;
+        buffer = null;
+        pool = null;
+        producers = Collections.emptyList();
+        supervisor = null;
+        state = failure.get() == null ? State.STOPPED : State.FAILED;
+        System.out.printf("[IntegrationPipeline] %s: остановлен (%s), %s%n", name, state, report);
+        notifyAll();
+    }
+
+    private synchronized ShutdownReport awaitReport() throws InterruptedException {
+        // Остановка уже идёт в другом потоке - дожидаемся её результата
+        while (state == State.DRAINING) {
+            wait();
+        }
+        return lastReport;
+    }
+
+    private static void joinAll(List<Thread> threads, long deadline) throws InterruptedException {
+        for (Thread thread : threads) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+            }
+        }
+    }
+
+    private static boolean anyAlive(List<Thread> threads) {
+        for (Thread thread : threads) {
+            if (thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Итоги остановки конвейера.
+     */
+    public static class ShutdownReport {
+        /** Все задания обработаны до истечения отведённого времени. */
+        public final boolean graceful;
+        public final int completedTasks;
+        public final int partialTasks;
+        /** Задания, оставшиеся в буфере при принудительной остановке. */
+        public final int abandonedTasks;
+        /** Потоки, не завершившиеся после прерывания. */
+        public final int unresponsiveThreads;
+        public final long durationNanos;
+
+        public ShutdownReport(boolean graceful, int completedTasks, int partialTasks, int abandonedTasks,
+                              int unresponsiveThreads, long durationNanos) {
+            this.graceful = graceful;
+            this.completedTasks = completedTasks;
+            this.partialTasks = partialTasks;
+            this.abandonedTasks = abandonedTasks;
+            this.unresponsiveThreads = unresponsiveThreads;
+            this.durationNanos = durationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: обработано %d (частичных %d), брошено %d, не ответило потоков %d, "
+                    + "остановка %.3f мс", graceful ? "корректно" : "принудительно", completedTasks, partialTasks,
+                abandonedTasks, unresponsiveThreads, durationNanos / 1e6);
+        }
+    }
+
+    /**
+     * Снимок состояния конвейера.
+     */
+    public static class Health {
+        public final String name;
+        public final State state;
+        public final int aliveProducers;
+        public final int producersCount;
+        public final int aliveWorkers;
+        public final int workersCount;
+        public final int backlog;
+        public final int completedTasks;
+        /** Время с последнего выполненного задания при непустой очереди. */
+        public final long nanosSinceProgress;
+        public final long stallThresholdNanos;
+        public final Throwable failure;
+
+        public Health(String name, State state, int aliveProducers, int producersCount, int aliveWorkers,
+                      int workersCount, int backlog, int completedTasks, long nanosSinceProgress,
+                      long stallThresholdNanos, Throwable failure) {
+            this.name = name;
+            this.state = state;
+            this.aliveProducers = aliveProducers;
+            this.producersCount = producersCount;
+            this.aliveWorkers = aliveWorkers;
+            this.workersCount = workersCount;
+            this.backlog = backlog;
+            this.completedTasks = completedTasks;
+            this.nanosSinceProgress = nanosSinceProgress;
+            this.stallThresholdNanos = stallThresholdNanos;
+            this.failure = failure;
+        }
+
+        /**
+         * Проверяет живость: конвейер работает, ошибок нет и работают все интеграторы
+         * (пока очередь не закрыта, интеграторы завершаться не должны).
+         * @return true, если конвейер жив
+         */
+        public boolean isLive() {
+            return (state == State.RUNNING || state == State.DRAINING) && failure == null
+                && (aliveWorkers == workersCount || aliveProducers == 0);
+        }
+
+        /**
+         * Проверяет, не завис ли конвейер: в очереди есть задания, но ни одно
+         * не выполнено дольше порога.
+         * @return true, если конвейер завис
+         */
+        public boolean isStalled() {
+            return backlog > 0 && nanosSinceProgress >= stallThresholdNanos;
+        }
+
+        /**
+         * Проверяет готовность: конвейер жив и не завис.
+         * @return true, если конвейер исправен
+         */
+        public boolean isHealthy() {
+            return isLive() && !isStalled();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s [%s]: генераторов %d/%d, интеграторов %d/%d, очередь %d, обработано %d, "
+                    + "без прогресса %.1f мс%s", name, state, aliveProducers, producersCount, aliveWorkers,
+                workersCount, backlog, completedTasks, nanosSinceProgress / 1e6,
+                state != State.RUNNING && state != State.DRAINING || isHealthy() ? ""
+                    : isStalled() ? " - ЗАВИС" : " - НЕИСПРАВЕН");
+        }
+    }
+}
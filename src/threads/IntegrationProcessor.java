@@ -0,0 +1,39 @@
+package threads;
+
+import functions.Functions;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Стадия конвейера, интегрирующая задания.
+ * Каждое задание преобразуется в ровно один {@link TaskResult}; ошибка интегрирования
+ * не прерывает поток заданий, а передаётся дальше в результате.
+ */
+public class IntegrationProcessor extends TransformStage<Task.TaskData, TaskResult> {
+
+    /**
+     * Создаёт стадию интегрирования с исполнителем и буфером по умолчанию.
+     */
+    public IntegrationProcessor() {
+        super("Integration");
+    }
+
+    /**
+     * Создаёт стадию интегрирования с заданным исполнителем и размером буфера.
+     * @param executor исполнитель, в котором результаты доставляются подписчикам
+     * @param bufferCapacity максимальное количество элементов в буфере стадии
+     */
+    public IntegrationProcessor(Executor executor, int bufferCapacity) {
+        super("Integration", executor, bufferCapacity);
+    }
+
+    @Override
+    protected TaskResult transform(Task.TaskData task) {
+        try {
+            return TaskResult.success(task,
+                Functions.integrate(task.function, task.leftBound, task.rightBound, task.step));
+        } catch (Exception e) {
+            return TaskResult.failure(task, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package threads;
+
+import functions.CancellationToken;
+import functions.Function;
+import functions.Functions;
+import functions.StepSelector;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Сервис асинхронного интегрирования.
+ *
+ * Задания выполняются на заданном {@link Executor}, а результат возвращается
+ * в виде {@link CompletableFuture}, поэтому вызывающий код может запускать
+ * много интегрирований параллельно, не выделяя под них отдельные потоки.
+ *
+ * Количество одновременно принятых заданий ограничено: если лимит исчерпан,
+ * новое задание отклоняется с {@link RejectedExecutionException}, а не ставится
+ * в неограниченную очередь. Отмена результата через {@link CompletableFuture#cancel(boolean)}
+ * останавливает цикл интегрирования при ближайшей проверке признака отмены.
+ *
+ * Шаги, подобранные для {@link #submitWithPrecision}, кэшируются в ограниченном
+ * LRU-кэше, поэтому долгоживущий сервис не накапливает функции без предела.
+ */
+public class IntegrationService {
+    private static final int DEFAULT_MAX_PENDING = 256;
+    private static final int DEFAULT_STEP_CACHE_CAPACITY = 256;
+
+    private final Executor executor;
+    private final int maxPending;
+    private final Semaphore permits;
+    private final StepSelector stepSelector;
+
+    /**
+     * Создаёт сервис, выполняющий задания в общем пуле {@link ForkJoinPool#commonPool()}
+     * с лимитом в {@value #DEFAULT_MAX_PENDING} заданий.
+     */
+    public IntegrationService() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * Создаёт сервис с заданным исполнителем и лимитом принятых заданий;
+     * кэшируется не более {@value #DEFAULT_STEP_CACHE_CAPACITY} подобранных шагов.
+     * @param executor исполнитель заданий
+     * @param maxPending максимальное количество принятых, но не завершённых заданий
+     * @throws IllegalArgumentException если исполнитель равен null или лимит не положителен
+     */
+    public IntegrationService(Executor executor, int maxPending) {
+        this(executor, maxPending, DEFAULT_STEP_CACHE_CAPACITY);
+    }
+
+    /**
+     * Создаёт сервис с заданным исполнителем, лимитом принятых заданий и размером кэша шагов.
+     * @param executor исполнитель заданий
+     * @param maxPending максимальное количество принятых, но не завершённых заданий
+     * @param stepCacheCapacity максимальное количество кэшируемых шагов; 0 отключает кэширование
+     * @throws IllegalArgumentException если исполнитель равен null, лимит не положителен
+     * или размер кэша отрицателен
+     */
+    public IntegrationService(Executor executor, int maxPending, int stepCacheCapacity) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("Max pending count must be positive");
+        }
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.permits = new Semaphore(maxPending);
+        this.stepSelector = new StepSelector(stepCacheCapacity);
+    }
+
+    /**
+     * Запускает интегрирование функции с заданным шагом.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @return будущий результат интегрирования
+     * @throws IllegalArgumentException если параметры интегрирования некорректны
+     * @throws RejectedExecutionException если лимит принятых заданий исчерпан
+     */
+    public CompletableFuture<Double> submit(Function function, double leftBound, double rightBound, double step) {
+        checkArguments(function, leftBound, rightBound);
+        if (step <= 0) {
+            throw new IllegalArgumentException("Шаг дискретизации должен быть положительным");
+        }
+        return schedule(token -> Functions.integrate(function, leftBound, rightBound, step, token));
+    }
+
+    /**
+     * Запускает интегрирование функции с заданной точностью.
+     * Шаг подбирается {@link StepSelector}, найденные шаги кэшируются.
+     * @param function функция для интегрирования
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param digits количество верных знаков после запятой
+     * @return будущий результат интегрирования
+     * @throws IllegalArgumentException если параметры интегрирования некорректны
+     * @throws RejectedExecutionException если лимит принятых заданий исчерпан
+     */
+    public CompletableFuture<Double> submitWithPrecision(Function function, double leftBound, double rightBound,
+                                                         int digits) {
+        checkArguments(function, leftBound, rightBound);
+        if (digits < 0) {
+            throw new IllegalArgumentException("Количество знаков должно быть неотрицательным");
+        }
+        return schedule(token -> {
+            double step = stepSelector.selectStep(function, leftBound, rightBound, digits, token);
+            return Functions.integrate(function, leftBound, rightBound, step, token);
+        });
+    }
+
+    /**
+     * Возвращает количество принятых, но ещё не завершённых заданий.
+     * @return количество заданий
+     */
+    public int getPendingCount() {
+        return maxPending - permits.availablePermits();
+    }
+
+    /**
+     * Возвращает максимальное количество одновременно принятых заданий.
+     * @return лимит заданий
+     */
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    private CompletableFuture<Double> schedule(Computation computation) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("Превышен лимит принятых заданий: " + maxPending);
+        }
+        IntegrationFuture future = new IntegrationFuture();
+        try {
+            executor.execute(() -> {
+                try {
+                    // Задание могли отменить, пока оно ожидало в очереди исполнителя
+                    future.token.throwIfCancelled();
+                    future.complete(computation.compute(future.token));
+                } catch (CancellationException e) {
+                    future.cancel(false);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+        return future;
+    }
+
+    private static void checkArguments(Function function, double leftBound, double rightBound) {
+        if (function == null) {
+            throw new IllegalArgumentException("Function must not be null");
+        }
+        if (leftBound >= rightBound) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
+        }
+        if (leftBound < function.getLeftDomainBorder() || rightBound > function.getRightDomainBorder()) {
+            throw new IllegalArgumentException("Интервал интегрирования [" + leftBound + ", " + rightBound +
+                    "] выходит за границы области определения функции");
+        }
+    }
+
+    /**
+     * Вычисление, поддерживающее отмену.
+     */
+    private interface Computation {
+        double compute(CancellationToken token);
+    }
+
+    /**
+     * Будущий результат, отмена которого останавливает вычисление.
+     */
+    private static final class IntegrationFuture extends CompletableFuture<Double> {
+        private final CancellationToken token = new CancellationToken();
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            token.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
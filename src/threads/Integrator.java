@@ -10,6 +10,7 @@ import functions.Functions;
 public class Integrator extends Thread {
     private final Task task;
     private final ReadWriteSemaphore semaphore;
+    private final ResultSink resultSink;
 
     /**
      * Конструктор класса Integrator.
@@ -17,16 +18,25 @@ public class Integrator extends Thread {
      * @param semaphore семафор для синхронизации доступа
      */
     public Integrator(Task task, ReadWriteSemaphore semaphore) {
+        this(task, semaphore, null);
+    }
+
+    /**
+     * Конструктор класса Integrator с получателем результатов.
+     * @param task объект задания, из которого будут браться данные для решения
+     * @param semaphore семафор для синхронизации доступа
+     * @param resultSink получатель результатов или null для вывода в консоль ({@link ConsoleResultSink})
+     */
+    public Integrator(Task task, ReadWriteSemaphore semaphore, ResultSink resultSink) {
         this.task = task;
         this.semaphore = semaphore;
+        this.resultSink = resultSink != null ? resultSink : new ConsoleResultSink();
     }
 
     @Override
     public void run() {
         int tasksCount = task.getTasksCount();
         int completedTasks = 0;
-        int emptyIterations = 0; // Счетчик пустых итераций (когда заданий нет)
-        final int MAX_EMPTY_ITERATIONS = 1000; // Максимальное количество пустых итераций (увеличено для надежности)
 
         while (true) {
             // Проверяем, не был ли поток прерван - проверяем в начале каждой итерации
@@ -63,7 +73,6 @@ public class Integrator extends Thread {
 
                 // Если задание готово, обрабатываем его
                 if (taskData != null) {
-                    emptyIterations = 0; // Сбрасываем счетчик пустых итераций
                     // Вычисляем значение интеграла (вне синхронизированного блока)
                     double result = Functions.integrate(
                         taskData.function,
@@ -72,9 +81,8 @@ public class Integrator extends Thread {
                         taskData.step
                     );
 
-                    // Выводим сообщение Result
-                    System.out.printf("Result %.6f %.6f %.6f %.15f%n",
-                        taskData.leftBound, taskData.rightBound, taskData.step, result);
+                    // Передаём результат получателю
+                    resultSink.accept(taskData.leftBound, taskData.rightBound, taskData.step, result);
 
                     completedTasks++;
 
@@ -87,35 +95,20 @@ public class Integrator extends Thread {
                         return; // Выходим из метода, завершая поток
                     }
                 } else {
-                    // Проверяем, завершил ли генератор работу и все задания обработаны
-                    if (task.isGeneratorFinished() && completedTasks >= tasksCount) {
+                    // Задания нет: если генератор завершил работу, новых заданий уже не будет
+                    if (task.isGeneratorFinished()) {
                         System.out.printf("[Integrator] Генератор завершил работу и все задания обработаны. Выполнено заданий: %d из %d%n", completedTasks, tasksCount);
                         return; // Выходим из метода, завершая поток
                     }
 
-                    emptyIterations++;
-                    // Если генератор еще работает, продолжаем ждать новые задания
-                    if (!task.isGeneratorFinished() && emptyIterations > MAX_EMPTY_ITERATIONS) {
-                        emptyIterations = 0; // Сбрасываем счетчик, продолжаем ждать
-                    }
-                    // Если задание еще не готово, делаем небольшую паузу
-                    // Проверяем прерывание перед паузой
-                    if (Thread.currentThread().isInterrupted()) {
-                        System.out.printf("[Integrator] Поток прерван перед паузой. Выполнено заданий: %d из %d%n", completedTasks, tasksCount);
-                        break;
-                    }
+                    // Ждем публикации задания: поток будится генератором, а не по таймеру
                     try {
-                        Thread.sleep(1);
+                        task.awaitTaskAvailable();
                     } catch (InterruptedException e) {
                         System.out.printf("[Integrator] Поток прерван во время ожидания. Выполнено заданий: %d из %d%n", completedTasks, tasksCount);
                         Thread.currentThread().interrupt();
                         break;
                     }
-                    // Дополнительная проверка прерывания после паузы
-                    if (Thread.currentThread().isInterrupted()) {
-                        System.out.printf("[Integrator] Поток прерван после паузы. Выполнено заданий: %d из %d%n", completedTasks, tasksCount);
-                        break;
-                    }
                 }
 
             } catch (InterruptedException e) {
@@ -0,0 +1,492 @@
+package threads;
+
+import functions.IntegrationCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пул интеграторов, обрабатывающих задания из общей очереди.
+ *
+ * Задания распределяются между интеграторами через {@link TaskBuffer}: каждое задание
+ * извлекается из буфера ровно одним интегратором, поэтому каждое сгенерированное
+ * задание обрабатывается ровно один раз. Буфером может быть очередь {@link TaskQueue}
+ * (порядок поступления) или {@link PriorityTaskScheduler} (порядок по стоимости
+ * или сроку выполнения). Пул завершает работу,
+ * когда очередь закрыта (все генераторы завершились) и все задания из неё обработаны;
+ * подсчитывать количество ожидаемых заданий не требуется.
+ *
+ * Количество интеграторов можно менять во время работы ({@link #addWorker()},
+ * {@link #retireWorker()}), например из {@link PoolAutoscaler}. Завершившийся выведенный
+ * интегратор удаляется из пула, а его счётчики добавляются к общим итогам выведенных
+ * интеграторов, поэтому долгая работа с ростом и сокращением пула не накапливает потоки.
+ */
+public class IntegratorPool {
+    private final TaskBuffer<Task.TaskData> queue;
+    private final PipelineMetrics metrics;
+    private final IntegrationCache cache;
+    private final ResultSink resultSink;
+    private final List<QueueIntegrator> workers = new CopyOnWriteArrayList<>();
+    private volatile boolean started;
+    private ForkJoinIntegrator forkJoinIntegrator;
+    private boolean exactIntegration;
+    private Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
+    private int createdWorkers;
+
+    // Итоги завершившихся выведенных интеграторов, удалённых из списка
+    private int retiredWorkers;
+    private int retiredCompletedTasks;
+    private int retiredFailedTasks;
+    private int retiredPartialTasks;
+    private int retiredShedTasks;
+    private int retiredExactTasks;
+    private long retiredBusyNanos;
+    private long retiredSegments;
+
+    /**
+     * Создаёт пул интеграторов.
+     * @param queue очередь заданий
+     * @param workersCount количество интеграторов
+     * @throws IllegalArgumentException если количество интеграторов не положительно
+     */
+    public IntegratorPool(TaskBuffer<Task.TaskData> queue, int workersCount) {
+        this(queue, workersCount, null);
+    }
+
+    /**
+     * Создаёт пул интеграторов с учётом метрик.
+     * @param queue очередь заданий
+     * @param workersCount количество интеграторов
+     * @param metrics метрики конвейера или null, если метрики не собираются
+     * @throws IllegalArgumentException если количество интеграторов не положительно
+     */
+    public IntegratorPool(TaskBuffer<Task.TaskData> queue, int workersCount, PipelineMetrics metrics) {
+        this(queue, workersCount, metrics, null);
+    }
+
+    /**
+     * Создаёт пул интеграторов с учётом метрик и общим получателем результатов.
+     * @param queue очередь заданий
+     * @param workersCount количество интеграторов
+     * @param metrics метрики конвейера или null, если метрики не собираются
+     * @param resultSink получатель результатов или null для вывода через printf
+     * @throws IllegalArgumentException если количество интеграторов не положительно
+     */
+    public IntegratorPool(TaskBuffer<Task.TaskData> queue, int workersCount, PipelineMetrics metrics,
+                          ResultSink resultSink) {
+        this(queue, workersCount, metrics, resultSink, null);
+    }
+
+    /**
+     * Создаёт пул интеграторов с учётом метрик, общим получателем результатов и общим кэшем.
+     * @param queue очередь заданий
+     * @param workersCount количество интеграторов
+     * @param metrics метрики конвейера или null, если метрики не собираются
+     * @param resultSink получатель результатов или null для вывода через printf
+     * @param cache кэш результатов интегрирования или null, если результаты не кэшируются
+     * @throws IllegalArgumentException если количество интеграторов не положительно
+     */
+    public IntegratorPool(TaskBuffer<Task.TaskData> queue, int workersCount, PipelineMetrics metrics,
+                          ResultSink resultSink, IntegrationCache cache) {
+        if (queue == null) {
+            throw new IllegalArgumentException("Queue must not be null");
+        }
+        if (workersCount <= 0) {
+            throw new IllegalArgumentException("Workers count must be positive");
+        }
+        this.queue = queue;
+        this.metrics = metrics;
+        this.resultSink = resultSink;
+        this.cache = cache;
+        for (int i = 0; i < workersCount; i++) {
+            workers.add(createWorker());
+        }
+    }
+
+    /**
+     * Создаёт пул с количеством интеграторов, равным количеству доступных процессоров.
+     * @param queue очередь заданий
+     */
+    public IntegratorPool(TaskBuffer<Task.TaskData> queue) {
+        this(queue, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Включает разделение трудоёмких заданий на части: задание дороже порога
+     * делится и выполняется в пуле {@link java.util.concurrent.ForkJoinPool},
+     * поэтому одно большое задание не задерживает обработку остальных.
+     * @param forkJoinIntegrator интегратор с разделением заданий или null, чтобы отключить разделение
+     */
+    public synchronized void setForkJoinIntegrator(ForkJoinIntegrator forkJoinIntegrator) {
+        this.forkJoinIntegrator = forkJoinIntegrator;
+        for (QueueIntegrator worker : workers) {
+            worker.setForkJoinIntegrator(forkJoinIntegrator);
+        }
+    }
+
+    /**
+     * Включает точное интегрирование во всех интеграторах пула, в том числе добавленных позже:
+     * задания с известной первообразной вычисляются по формуле Ньютона-Лейбница.
+     * @param exactIntegration true, чтобы по возможности использовать первообразную
+     * @see QueueIntegrator#setExactIntegration(boolean)
+     */
+    public synchronized void setExactIntegration(boolean exactIntegration) {
+        this.exactIntegration = exactIntegration;
+        for (QueueIntegrator worker : workers) {
+            worker.setExactIntegration(exactIntegration);
+        }
+    }
+
+    /**
+     * Устанавливает обработчик исключений, завершивших поток интегратора.
+     * Должен вызываться до запуска пула.
+     * @param handler обработчик исключений
+     */
+    public synchronized void setUncaughtExceptionHandler(Thread.UncaughtExceptionHandler handler) {
+        this.uncaughtExceptionHandler = handler;
+        for (QueueIntegrator worker : workers) {
+            worker.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    /**
+     * Запускает все интеграторы пула.
+     * @throws IllegalStateException если пул уже запущен
+     */
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Пул интеграторов уже запущен");
+        }
+        started = true;
+        for (QueueIntegrator worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Добавляет в пул интегратор. Если пул запущен, интегратор сразу начинает работу.
+     * @return добавленный интегратор
+     */
+    public synchronized QueueIntegrator addWorker() {
+        reapRetired();
+        QueueIntegrator worker = createWorker();
+        workers.add(worker);
+        if (started) {
+            worker.start();
+        }
+        return worker;
+    }
+
+    /**
+     * Выводит из работы последний добавленный действующий интегратор. Интегратор
+     * завершит начатое задание и не будет брать новых. Последний действующий
+     * интегратор не выводится, чтобы очередь не осталась без обработчиков.
+     * @return выведенный интегратор или null, если действующий интегратор остался один
+     */
+    public synchronized QueueIntegrator retireWorker() {
+        reapRetired();
+        if (getWorkersCount() <= 1) {
+            return null;
+        }
+        for (int i = workers.size() - 1; i >= 0; i--) {
+            QueueIntegrator worker = workers.get(i);
+            if (isActive(worker)) {
+                worker.retire();
+                return worker;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Сообщает пулу, что генерация заданий завершена: закрывает очередь,
+     * после чего интеграторы завершатся, обработав оставшиеся задания.
+     */
+    public void generationFinished() {
+        queue.close();
+    }
+
+    /**
+     * Ожидает завершения обработки всех заданий.
+     * @return общее количество обработанных заданий
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public int awaitCompletion() throws InterruptedException {
+        // Интеграторы могут добавляться во время ожидания, поэтому список проверяется, пока в нём есть живые
+        boolean waited = true;
+        while (waited) {
+            waited = false;
+            for (QueueIntegrator worker : workers) {
+                if (worker.isAlive()) {
+                    worker.join();
+                    waited = true;
+                }
+            }
+        }
+        return getCompletedTasks();
+    }
+
+    /**
+     * Ожидает завершения обработки всех заданий не дольше заданного времени.
+     * @param timeout максимальное время ожидания
+     * @param unit единица измерения времени
+     * @return true, если все интеграторы завершились
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean waited = true;
+        while (waited) {
+            waited = false;
+            for (QueueIntegrator worker : workers) {
+                if (worker.isAlive()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return isCompleted();
+                    }
+                    TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+                    waited = true;
+                }
+            }
+        }
+        return isCompleted();
+    }
+
+    /**
+     * Прерывает все интеграторы пула.
+     */
+    public void interrupt() {
+        for (QueueIntegrator worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Проверяет, завершили ли работу все интеграторы.
+     * @return true, если пул запущен и все интеграторы завершились
+     */
+    public boolean isCompleted() {
+        if (!started) {
+            return false;
+        }
+        for (QueueIntegrator worker : workers) {
+            if (worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает количество работающих интеграторов.
+     * @return количество интеграторов, потоки которых ещё не завершились
+     */
+    public int getAliveWorkersCount() {
+        int alive = 0;
+        for (QueueIntegrator worker : workers) {
+            if (worker.isAlive()) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+
+    /**
+     * Возвращает суммарное время интегрирования всех интеграторов, включая выполняемые сейчас задания.
+     * @return время в наносекундах
+     */
+    public synchronized long getBusyNanos() {
+        reapRetired();
+        long now = System.nanoTime();
+        long busy = retiredBusyNanos;
+        for (QueueIntegrator worker : workers) {
+            busy += worker.getBusyNanos(now);
+        }
+        return busy;
+    }
+
+    /**
+     * Возвращает количество вычисленных отрезков разбиения во всех заданиях пула.
+     * @return количество отрезков
+     */
+    public synchronized long getCompletedSegments() {
+        reapRetired();
+        long segments = retiredSegments;
+        for (QueueIntegrator worker : workers) {
+            segments += worker.getCompletedSegments();
+        }
+        return segments;
+    }
+
+    /**
+     * Возвращает количество заданий, ожидающих в очереди.
+     * @return размер очереди
+     */
+    public int getBacklog() {
+        return queue.size();
+    }
+
+    /**
+     * Возвращает общее количество обработанных заданий.
+     * @return количество обработанных заданий
+     */
+    public synchronized int getCompletedTasks() {
+        reapRetired();
+        int completed = retiredCompletedTasks;
+        for (QueueIntegrator worker : workers) {
+            completed += worker.getCompletedTasks();
+        }
+        return completed;
+    }
+
+    /**
+     * Возвращает общее количество заданий, давших частичный результат.
+     * @return количество частичных результатов
+     */
+    public synchronized int getPartialTasks() {
+        reapRetired();
+        int partial = retiredPartialTasks;
+        for (QueueIntegrator worker : workers) {
+            partial += worker.getPartialTasks();
+        }
+        return partial;
+    }
+
+    /**
+     * Возвращает общее количество заданий, отброшенных из-за истёкшего срока выполнения.
+     * @return количество отброшенных заданий
+     */
+    public synchronized int getShedTasks() {
+        reapRetired();
+        int shed = retiredShedTasks;
+        for (QueueIntegrator worker : workers) {
+            shed += worker.getShedTasks();
+        }
+        return shed;
+    }
+
+    /**
+     * Возвращает общее количество заданий, вычисленных по формуле Ньютона-Лейбница.
+     * @return количество заданий
+     */
+    public synchronized int getExactTasks() {
+        reapRetired();
+        int exact = retiredExactTasks;
+        for (QueueIntegrator worker : workers) {
+            exact += worker.getExactTasks();
+        }
+        return exact;
+    }
+
+    /**
+     * Возвращает количество действующих интеграторов: не выведенных из работы
+     * и не завершившихся.
+     * @return количество интеграторов
+     */
+    public synchronized int getWorkersCount() {
+        reapRetired();
+        int count = 0;
+        for (QueueIntegrator worker : workers) {
+            if (isActive(worker)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Возвращает действующие интеграторы для замеров их загрузки по отдельности.
+     * @return копия списка действующих интеграторов в порядке создания
+     */
+    synchronized List<QueueIntegrator> getActiveWorkers() {
+        reapRetired();
+        List<QueueIntegrator> active = new ArrayList<>(workers.size());
+        for (QueueIntegrator worker : workers) {
+            if (isActive(worker)) {
+                active.add(worker);
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Возвращает статистику работы каждого интегратора. Завершившиеся выведенные
+     * интеграторы представлены одной записью с их общими итогами в конце списка.
+     * @return список статистик в порядке создания интеграторов
+     */
+    public synchronized List<WorkerStatistics> getStatistics() {
+        reapRetired();
+        List<WorkerStatistics> statistics = new ArrayList<>(workers.size() + 1);
+        for (QueueIntegrator worker : workers) {
+            statistics.add(new WorkerStatistics(worker.getName(), worker.getCompletedTasks(),
+                    worker.getFailedTasks(), worker.getBusyNanos()));
+        }
+        if (retiredWorkers > 0) {
+            statistics.add(new WorkerStatistics("Выведенные интеграторы (" + retiredWorkers + ")",
+                    retiredCompletedTasks, retiredFailedTasks, retiredBusyNanos));
+        }
+        return statistics;
+    }
+
+    /**
+     * Удаляет из списка завершившиеся выведенные интеграторы, переводя их счётчики в итоги пула.
+     * Счётчики завершившегося потока больше не меняются, поэтому итоги не теряют и не
+     * удваивают задания. Вызывается под монитором пула перед каждым обходом списка.
+     */
+    private void reapRetired() {
+        for (QueueIntegrator worker : workers) {
+            if (started && worker.isRetiring() && !worker.isAlive()) {
+                retiredWorkers++;
+                retiredCompletedTasks += worker.getCompletedTasks();
+                retiredFailedTasks += worker.getFailedTasks();
+                retiredPartialTasks += worker.getPartialTasks();
+                retiredShedTasks += worker.getShedTasks();
+                retiredExactTasks += worker.getExactTasks();
+                retiredBusyNanos += worker.getBusyNanos();
+                retiredSegments += worker.getCompletedSegments();
+                workers.remove(worker);
+            }
+        }
+    }
+
+    private synchronized QueueIntegrator createWorker() {
+        QueueIntegrator worker = new QueueIntegrator(queue, metrics, resultSink, cache);
+        worker.setName("Integrator-" + (++createdWorkers));
+        worker.setForkJoinIntegrator(forkJoinIntegrator);
+        worker.setExactIntegration(exactIntegration);
+        if (uncaughtExceptionHandler != null) {
+            worker.setUncaughtExceptionHandler(uncaughtExceptionHandler);
+        }
+        return worker;
+    }
+
+    private boolean isActive(QueueIntegrator worker) {
+        // До запуска пула потоки ещё не живы, но считаются действующими
+        return !worker.isRetiring() && (!started || worker.isAlive());
+    }
+
+    /**
+     * Статистика работы одного интегратора.
+     */
+    public static class WorkerStatistics {
+        public final String name;
+        public final int completedTasks;
+        public final int failedTasks;
+        public final long busyNanos;
+
+        public WorkerStatistics(String name, int completedTasks, int failedTasks, long busyNanos) {
+            this.name = name;
+            this.completedTasks = completedTasks;
+            this.failedTasks = failedTasks;
+            this.busyNanos = busyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: обработано %d (ошибок %d), время интегрирования %.3f мс",
+                    name, completedTasks, failedTasks, busyNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package threads;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма длительностей с логарифмическими интервалами.
+ *
+ * Интервал с номером i содержит длительности из диапазона [2^(i-1), 2^i) наносекунд,
+ * поэтому 64 счётчика покрывают все возможные значения с относительной погрешностью
+ * не более двух раз. Запись значения - одно вычисление номера интервала и одно
+ * увеличение {@link LongAdder} без блокировок, поэтому гистограмму можно обновлять
+ * из многих потоков на горячем пути.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS_COUNT = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Создаёт пустую гистограмму.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Записывает длительность.
+     * @param nanos длительность в наносекундах (отрицательные значения считаются нулевыми)
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucketIndex(nanos)].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Возвращает количество записанных значений.
+     * @return количество значений
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Возвращает среднюю длительность.
+     * @return средняя длительность в наносекундах (0, если значений не было)
+     */
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) totalNanos.sum() / n;
+    }
+
+    /**
+     * Возвращает наибольшую записанную длительность.
+     * @return наибольшая длительность в наносекундах
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Возвращает оценку квантиля длительности сверху: верхнюю границу интервала,
+     * в который попадает квантиль, но не больше наибольшей записанной длительности.
+     * @param quantile уровень квантиля от 0 до 1
+     * @return оценка квантиля в наносекундах (0, если значений не было)
+     * @throws IllegalArgumentException если уровень квантиля вне отрезка [0, 1]
+     */
+    public long getQuantileNanos(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("Quantile must be in range [0, 1]");
+        }
+        long[] counts = new long[BUCKETS_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long upperBound = i == BUCKETS_COUNT - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(upperBound, maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Сбрасывает гистограмму. Значения, записываемые одновременно со сбросом,
+     * могут быть частично учтены.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    private static int bucketIndex(long nanos) {
+        // 0 попадает в интервал 0, значения из [2^(i-1), 2^i) - в интервал i
+        return Math.min(BUCKETS_COUNT - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+}
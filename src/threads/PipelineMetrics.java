@@ -0,0 +1,268 @@
+package threads;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Метрики конвейера генераторов и интеграторов.
+ *
+ * Счётчики построены на {@link LongAdder}, длительности записываются в
+ * {@link LatencyHistogram}, поэтому запись метрик из рабочих потоков не требует
+ * блокировок и почти не влияет на время обработки задания. Метрики доступны
+ * через JMX (после {@link #register(String)}), в виде снимков {@link #snapshot()}
+ * и периодически через {@link #startReporting(long, TimeUnit, Consumer)}.
+ *
+ * Учитываются:
+ * <ul>
+ * <li>сгенерированные, выполненные и отброшенные (завершившиеся ошибкой) задания;</li>
+ * <li>невыполненный остаток - задания, сгенерированные, но ещё не обработанные;</li>
+ * <li>время ожидания при передаче задания: генератора при заполненной очереди
+ * и интегратора при пустой;</li>
+ * <li>распределение времени интегрирования.</li>
+ * </ul>
+ */
+public class PipelineMetrics implements PipelineMetricsMBean {
+    private final LongAdder generatedTasks = new LongAdder();
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder droppedTasks = new LongAdder();
+    private final LatencyHistogram publishWait = new LatencyHistogram();
+    private final LatencyHistogram takeWait = new LatencyHistogram();
+    private final LatencyHistogram integrationTime = new LatencyHistogram();
+    private ObjectName objectName;
+    private ScheduledExecutorService reporter;
+
+    /**
+     * Учитывает сгенерированное задание.
+     * @param waitNanos время ожидания генератора при публикации задания
+     */
+    public void recordGenerated(long waitNanos) {
+        generatedTasks.increment();
+        publishWait.record(waitNanos);
+    }
+
+    /**
+     * Учитывает время ожидания интегратором следующего задания.
+     * @param waitNanos время ожидания в наносекундах
+     */
+    public void recordTakeWait(long waitNanos) {
+        takeWait.record(waitNanos);
+    }
+
+    /**
+     * Учитывает успешно выполненное задание.
+     * @param integrationNanos время интегрирования в наносекундах
+     */
+    public void recordCompleted(long integrationNanos) {
+        completedTasks.increment();
+        integrationTime.record(integrationNanos);
+    }
+
+    /**
+     * Учитывает отброшенное задание.
+     */
+    public void recordDropped() {
+        droppedTasks.increment();
+    }
+
+    @Override
+    public long getGeneratedTasks() {
+        return generatedTasks.sum();
+    }
+
+    @Override
+    public long getCompletedTasks() {
+        return completedTasks.sum();
+    }
+
+    @Override
+    public long getDroppedTasks() {
+        return droppedTasks.sum();
+    }
+
+    @Override
+    public long getBacklog() {
+        // Генератор учитывает задание после публикации, и интегратор может успеть
+        // выполнить его раньше - поэтому отрицательный остаток отсекается
+        long processed = completedTasks.sum() + droppedTasks.sum();
+        return Math.max(0, generatedTasks.sum() - processed);
+    }
+
+    @Override
+    public double getMeanPublishWaitMicros() {
+        return publishWait.getMeanNanos() / 1e3;
+    }
+
+    @Override
+    public double getMeanTakeWaitMicros() {
+        return takeWait.getMeanNanos() / 1e3;
+    }
+
+    @Override
+    public double getMeanIntegrationMicros() {
+        return integrationTime.getMeanNanos() / 1e3;
+    }
+
+    @Override
+    public long getIntegrationP50Micros() {
+        return integrationTime.getQuantileNanos(0.5) / 1000;
+    }
+
+    @Override
+    public long getIntegrationP99Micros() {
+        return integrationTime.getQuantileNanos(0.99) / 1000;
+    }
+
+    @Override
+    public long getIntegrationMaxMicros() {
+        return integrationTime.getMaxNanos() / 1000;
+    }
+
+    /**
+     * Возвращает гистограмму времени интегрирования.
+     * @return гистограмма времени интегрирования
+     */
+    public LatencyHistogram getIntegrationTime() {
+        return integrationTime;
+    }
+
+    /**
+     * Возвращает гистограмму времени ожидания интеграторами следующего задания.
+     * @return гистограмма времени ожидания
+     */
+    public LatencyHistogram getTakeWait() {
+        return takeWait;
+    }
+
+    @Override
+    public void reset() {
+        generatedTasks.reset();
+        completedTasks.reset();
+        droppedTasks.reset();
+        publishWait.reset();
+        takeWait.reset();
+        integrationTime.reset();
+    }
+
+    /**
+     * Возвращает снимок текущих значений метрик.
+     * @return снимок метрик
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(System.currentTimeMillis(), getGeneratedTasks(), getCompletedTasks(),
+                getDroppedTasks(), getBacklog(), getMeanPublishWaitMicros(), getMeanTakeWaitMicros(),
+                getIntegrationP50Micros(), getIntegrationP99Micros(), getIntegrationMaxMicros());
+    }
+
+    /**
+     * Регистрирует метрики в платформенном сервере MBean.
+     * @param name имя конвейера, используемое в имени объекта JMX
+     * @throws IllegalStateException если метрики уже зарегистрированы или регистрация не удалась
+     */
+    public synchronized void register(String name) {
+        if (objectName != null) {
+            throw new IllegalStateException("Метрики уже зарегистрированы как " + objectName);
+        }
+        try {
+            ObjectName candidate = new ObjectName("threads:type=PipelineMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+            objectName = candidate;
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать метрики: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Удаляет метрики из платформенного сервера MBean, если они были зарегистрированы.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            // Объект уже удалён с сервера - регистрировать больше нечего
+        }
+        objectName = null;
+    }
+
+    /**
+     * Запускает периодическую передачу снимков метрик получателю.
+     * Снимки передаются из отдельного потока-демона.
+     * @param period период между снимками
+     * @param unit единица измерения времени
+     * @param listener получатель снимков
+     * @throws IllegalStateException если передача снимков уже запущена
+     */
+    public synchronized void startReporting(long period, TimeUnit unit, Consumer<Snapshot> listener) {
+        if (reporter != null) {
+            throw new IllegalStateException("Передача снимков метрик уже запущена");
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PipelineMetrics-Reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> listener.accept(snapshot()), period, period, unit);
+    }
+
+    /**
+     * Останавливает периодическую передачу снимков метрик.
+     */
+    public synchronized void stopReporting() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    /**
+     * Снимок значений метрик в момент времени. Длительности указаны в микросекундах.
+     */
+    public static class Snapshot {
+        public final long timestampMillis;
+        public final long generatedTasks;
+        public final long completedTasks;
+        public final long droppedTasks;
+        public final long backlog;
+        public final double meanPublishWaitMicros;
+        public final double meanTakeWaitMicros;
+        public final long integrationP50Micros;
+        public final long integrationP99Micros;
+        public final long integrationMaxMicros;
+
+        public Snapshot(long timestampMillis, long generatedTasks, long completedTasks, long droppedTasks,
+                        long backlog, double meanPublishWaitMicros, double meanTakeWaitMicros,
+                        long integrationP50Micros, long integrationP99Micros, long integrationMaxMicros) {
+            this.timestampMillis = timestampMillis;
+            this.generatedTasks = generatedTasks;
+            this.completedTasks = completedTasks;
+            this.droppedTasks = droppedTasks;
+            this.backlog = backlog;
+            this.meanPublishWaitMicros = meanPublishWaitMicros;
+            this.meanTakeWaitMicros = meanTakeWaitMicros;
+            this.integrationP50Micros = integrationP50Micros;
+            this.integrationP99Micros = integrationP99Micros;
+            this.integrationMaxMicros = integrationMaxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("сгенерировано %d, выполнено %d, отброшено %d, в работе %d; "
+                            + "ожидание публикации %.1f мкс, ожидание задания %.1f мкс; "
+                            + "интегрирование p50 %d мкс, p99 %d мкс, max %d мкс",
+                    generatedTasks, completedTasks, droppedTasks, backlog,
+                    meanPublishWaitMicros, meanTakeWaitMicros,
+                    integrationP50Micros, integrationP99Micros, integrationMaxMicros);
+        }
+    }
+}
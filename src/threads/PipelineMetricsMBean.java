@@ -0,0 +1,29 @@
+package threads;
+
+/**
+ * Интерфейс управления JMX для метрик конвейера заданий.
+ * Длительности возвращаются в микросекундах.
+ */
+public interface PipelineMetricsMBean {
+    long getGeneratedTasks();
+
+    long getCompletedTasks();
+
+    long getDroppedTasks();
+
+    long getBacklog();
+
+    double getMeanPublishWaitMicros();
+
+    double getMeanTakeWaitMicros();
+
+    double getMeanIntegrationMicros();
+
+    long getIntegrationP50Micros();
+
+    long getIntegrationP99Micros();
+
+    long getIntegrationMaxMicros();
+
+    void reset();
+}
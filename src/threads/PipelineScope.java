@@ -0,0 +1,176 @@
+package threads;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Область структурированного выполнения потоков конвейера.
+ *
+ * Все потоки, запущенные через {@link #fork(Runnable)}, принадлежат области и не
+ * переживают её: {@link #join(long, TimeUnit)} ожидает их завершения с ограничением
+ * по времени, а при ошибке в любом из потоков, по истечении времени или при
+ * {@link #close()} оставшиеся потоки прерываются и дожидаются. Используется
+ * в блоке try-with-resources.
+ *
+ * По умолчанию потоки создаются виртуальными, если среда выполнения их поддерживает
+ * (Java 21 и новее), иначе - потоками платформы в режиме демона.
+ */
+public class PipelineScope implements AutoCloseable {
+    private final ThreadFactory threadFactory;
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private boolean closed;
+
+    /**
+     * Создаёт область, запускающую потоки фабрикой {@link #defaultThreadFactory()}.
+     */
+    public PipelineScope() {
+        this(defaultThreadFactory());
+    }
+
+    /**
+     * Создаёт область с заданной фабрикой потоков.
+     * @param threadFactory фабрика потоков
+     */
+    public PipelineScope(ThreadFactory threadFactory) {
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("Thread factory must not be null");
+        }
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Запускает задачу в новом потоке области.
+     * Если задача завершится с исключением, остальные потоки области будут прерваны.
+     * @param task задача
+     * @throws IllegalStateException если область уже закрыта
+     */
+    public synchronized void fork(Runnable task) {
+        if (closed) {
+            throw new IllegalStateException("Область выполнения уже закрыта");
+        }
+        Thread thread = threadFactory.newThread(() -> {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    interruptAll();
+                }
+            }
+        });
+        threads.add(thread);
+        thread.start();
+    }
+
+    /**
+     * Ожидает завершения всех потоков области не дольше заданного времени.
+     * При истечении времени оставшиеся потоки прерываются.
+     * @param timeout максимальное время ожидания
+     * @param unit единица измерения времени
+     * @throws InterruptedException если ожидающий поток был прерван
+     * @throws TimeoutException если потоки не завершились за отведённое время
+     * @throws IllegalStateException если один из потоков завершился с исключением
+     */
+    public void join(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread thread : snapshot()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+            }
+            if (thread.isAlive()) {
+                interruptAll();
+                throw new TimeoutException("Потоки конвейера не завершились за отведённое время");
+            }
+        }
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IllegalStateException("Поток конвейера завершился с ошибкой: " + error.getMessage(), error);
+        }
+    }
+
+    /**
+     * Прерывает все потоки области.
+     */
+    public void interruptAll() {
+        for (Thread thread : snapshot()) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Закрывает область: прерывает незавершённые потоки и дожидается их завершения.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        boolean interrupted = false;
+        for (Thread thread : snapshot()) {
+            if (thread.isAlive()) {
+                thread.interrupt();
+            }
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // Восстановим флаг после того, как дождёмся всех потоков
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized List<Thread> snapshot() {
+        return new ArrayList<>(threads);
+    }
+
+    /**
+     * Возвращает фабрику виртуальных потоков, если она поддерживается средой выполнения,
+     * иначе - фабрику потоков платформы в режиме демона.
+     * @return фабрика потоков
+     */
+    public static ThreadFactory defaultThreadFactory() {
+        ThreadFactory virtual = virtualThreadFactory();
+        return virtual != null ? virtual : platformThreadFactory();
+    }
+
+    /**
+     * Проверяет, поддерживает ли среда выполнения виртуальные потоки.
+     * @return true, если виртуальные потоки доступны
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return virtualThreadFactory() != null;
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            // Thread.ofVirtual().factory() доступен начиная с Java 21
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Method factory = ofVirtual.getReturnType().getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "pipeline-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
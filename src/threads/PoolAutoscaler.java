@@ -0,0 +1,318 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Автоматическое изменение количества интеграторов в {@link IntegratorPool}.
+ *
+ * Поток периодически снимает показатели пула: размер очереди, загрузку каждого интегратора
+ * (доля времени, занятого интегрированием) и скорость выполнения заданий. Скорость
+ * измеряется в отрезках разбиения в секунду, а не в заданиях: трудоёмкость заданий
+ * различается на порядки, и количество заданий за замер мало о чём говорит. Интегратор
+ * добавляется, когда заданий в очереди больше, чем интеграторов, а наименее загруженный
+ * интегратор занят почти всё время; выводится из работы, когда низка загрузка даже
+ * наиболее загруженного. Решения опираются на наименьшую и наибольшую загрузку, а не на
+ * среднюю: при неравномерной нагрузке (один интегратор занят огромным заданием, остальные
+ * простаивают) средняя выглядит умеренной и скрывает перекос, который виден в журнале.
+ * Решение принимается, только если условие держится несколько замеров подряд,
+ * а пороги роста и сокращения разнесены, поэтому пул не колеблется.
+ *
+ * Задания ограничены процессором, поэтому загрузка не показывает, помог ли новый поток:
+ * потоки, которым не хватило ядер, тоже выглядят занятыми. После каждого роста
+ * сглаженная скорость до него сравнивается со средней скоростью за {@link #PROBE_SAMPLES}
+ * замеров после; если она не выросла, добавленный интегратор выводится из работы,
+ * а прежнее количество запоминается как потолок на {@link #CEILING_SAMPLES} замеров.
+ * Все решения выводятся с причиной и сохраняются в {@link #getDecisions()}.
+ */
+public class PoolAutoscaler extends Thread {
+    /** Минимальный прирост скорости выполнения, при котором рост считается оправданным. */
+    private static final double MIN_GAIN = 0.15;
+    /** Количество замеров, в течение которых действует потолок после неудачного роста. */
+    private static final int CEILING_SAMPLES = 50;
+    /** Количество замеров, по которым оценивается скорость после роста. */
+    private static final int PROBE_SAMPLES = 5;
+    /** Вес последнего замера в сглаженной скорости. */
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final IntegratorPool pool;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final long intervalNanos;
+    private final double highUtilization;
+    private final double lowUtilization;
+    private final int growSamples;
+    private final int shrinkSamples;
+    private final List<Decision> decisions = new ArrayList<>();
+
+    private long lastSampleNanos;
+    private long lastBusyNanos;
+    // Время интегрирования каждого интегратора на момент предыдущего замера
+    private Map<QueueIntegrator, Long> lastWorkerBusyNanos = new IdentityHashMap<>();
+    private long lastCompletedSegments;
+    private double smoothedRate = -1;
+    // Замеры скорости с последнего изменения пула: рост требует не меньше PROBE_SAMPLES
+    private int rateSamples;
+    private int growCount;
+    private int shrinkCount;
+    // Проверка роста: сколько замеров осталось и скорость до роста
+    private int probeSamples;
+    private double probeRateSum;
+    private double rateBeforeGrow;
+    private int ceiling;
+    private int ceilingSamples;
+
+    /**
+     * Создаёт автомасштабирование с замером каждые 100 мс, ростом при загрузке
+     * каждого интегратора от 85% в течение двух замеров и сокращением при загрузке
+     * каждого интегратора ниже 50% в течение пяти замеров.
+     * @param pool пул интеграторов
+     * @param minWorkers минимальное количество интеграторов
+     * @param maxWorkers максимальное количество интеграторов
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public PoolAutoscaler(IntegratorPool pool, int minWorkers, int maxWorkers) {
+        this(pool, minWorkers, maxWorkers, 100, TimeUnit.MILLISECONDS, 0.85, 0.5, 2, 5);
+    }
+
+    /**
+     * Создаёт автомасштабирование.
+     * @param pool пул интеграторов
+     * @param minWorkers минимальное количество интеграторов
+     * @param maxWorkers максимальное количество интеграторов
+     * @param interval период замеров
+     * @param unit единица измерения периода
+     * @param highUtilization наименьшая загрузка интегратора, начиная с которой пул растёт при наличии очереди
+     * @param lowUtilization наибольшая загрузка интегратора, ниже которой пул сокращается
+     * @param growSamples количество замеров подряд, необходимое для роста
+     * @param shrinkSamples количество замеров подряд, необходимое для сокращения
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public PoolAutoscaler(IntegratorPool pool, int minWorkers, int maxWorkers, long interval, TimeUnit unit,
+                          double highUtilization, double lowUtilization, int growSamples, int shrinkSamples) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must not be null");
+        }
+        if (minWorkers <= 0 || maxWorkers < minWorkers) {
+            throw new IllegalArgumentException("Workers bounds must satisfy 0 < min <= max");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        if (!(lowUtilization >= 0 && lowUtilization < highUtilization && highUtilization <= 1)) {
+            throw new IllegalArgumentException("Utilization thresholds must satisfy 0 <= low < high <= 1");
+        }
+        if (growSamples <= 0 || shrinkSamples <= 0) {
+            throw new IllegalArgumentException("Samples counts must be positive");
+        }
+        this.pool = pool;
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.intervalNanos = unit.toNanos(interval);
+        this.highUtilization = highUtilization;
+        this.lowUtilization = lowUtilization;
+        this.growSamples = growSamples;
+        this.shrinkSamples = shrinkSamples;
+        setName("PoolAutoscaler");
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        lastSampleNanos = System.nanoTime();
+        lastBusyNanos = pool.getBusyNanos();
+        lastCompletedSegments = pool.getCompletedSegments();
+        lastWorkerBusyNanos = sampleWorkers(lastSampleNanos);
+        try {
+            while (!isInterrupted() && !pool.isCompleted()) {
+                TimeUnit.NANOSECONDS.sleep(intervalNanos);
+                sample();
+            }
+        } catch (InterruptedException e) {
+            // Автомасштабирование остановлено
+        }
+        System.out.println("[PoolAutoscaler] Работа завершена. Решений: " + getDecisions().size());
+    }
+
+    /**
+     * Возвращает принятые решения в порядке принятия.
+     * @return копия списка решений
+     */
+    public synchronized List<Decision> getDecisions() {
+        return new ArrayList<>(decisions);
+    }
+
+    private void sample() {
+        if (pool.isCompleted()) {
+            return; // Очередь закрыта и обработана - менять нечего
+        }
+        long now = System.nanoTime();
+        long busy = pool.getBusyNanos();
+        long completed = pool.getCompletedSegments();
+        int workers = pool.getWorkersCount();
+        int backlog = pool.getBacklog();
+        double elapsed = now - lastSampleNanos;
+        // Время ожидания ядра входит во время интегрирования, поэтому загрузка ограничивается единицей
+        double utilization = Math.min(1.0, Math.max(0.0, (busy - lastBusyNanos) / (elapsed * Math.max(1, workers))));
+        // Загрузка по отдельности - только для интеграторов, работавших весь интервал
+        Map<QueueIntegrator, Long> workerBusy = sampleWorkers(now);
+        double minUtilization = Double.POSITIVE_INFINITY;
+        double maxUtilization = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<QueueIntegrator, Long> entry : workerBusy.entrySet()) {
+            Long before = lastWorkerBusyNanos.get(entry.getKey());
+            if (before != null) {
+                double workerUtilization = Math.min(1.0, Math.max(0.0, (entry.getValue() - before) / elapsed));
+                minUtilization = Math.min(minUtilization, workerUtilization);
+                maxUtilization = Math.max(maxUtilization, workerUtilization);
+            }
+        }
+        if (minUtilization > maxUtilization) {
+            minUtilization = utilization; // Ни один интегратор не работал весь интервал
+            maxUtilization = utilization;
+        }
+        lastWorkerBusyNanos = workerBusy;
+        Load load = new Load(backlog, utilization, minUtilization, maxUtilization);
+        double rate = (completed - lastCompletedSegments) * 1e9 / elapsed;
+        smoothedRate = smoothedRate < 0 ? rate : smoothedRate + RATE_SMOOTHING * (rate - smoothedRate);
+        lastSampleNanos = now;
+        lastBusyNanos = busy;
+        lastCompletedSegments = completed;
+        rateSamples++;
+        if (ceilingSamples > 0 && --ceilingSamples == 0) {
+            ceiling = 0;
+        }
+
+        if (probeSamples > 0) {
+            probeRateSum += rate;
+            if (--probeSamples == 0) {
+                double probeRate = probeRateSum / PROBE_SAMPLES;
+                if (probeRate < rateBeforeGrow * (1 + MIN_GAIN) && workers > minWorkers) {
+                    ceiling = workers - 1;
+                    ceilingSamples = CEILING_SAMPLES;
+                    resize(-1, workers, load, probeRate, String.format(
+                        "рост не увеличил скорость (%.3g -> %.3g отрезков/с)", rateBeforeGrow, probeRate));
+                } else {
+                    log(String.format("рост до %d подтверждён: %.3g -> %.3g отрезков/с",
+                        workers, rateBeforeGrow, probeRate));
+                }
+            }
+            return;
+        }
+
+        if (workers < minWorkers) {
+            resize(1, workers, load, rate, "меньше минимума");
+            return;
+        }
+        if (workers > maxWorkers) {
+            resize(-1, workers, load, rate, "больше максимума");
+            return;
+        }
+
+        // Скорость до роста должна быть измерена не хуже, чем после него, иначе сравнение бессмысленно
+        boolean wantGrow = backlog > workers && minUtilization >= highUtilization && workers < maxWorkers
+            && (ceiling == 0 || workers < ceiling) && rateSamples >= PROBE_SAMPLES;
+        boolean wantShrink = maxUtilization < lowUtilization && workers > minWorkers;
+        growCount = wantGrow ? growCount + 1 : 0;
+        shrinkCount = wantShrink ? shrinkCount + 1 : 0;
+
+        if (growCount >= growSamples) {
+            rateBeforeGrow = smoothedRate;
+            probeSamples = PROBE_SAMPLES;
+            probeRateSum = 0;
+            resize(1, workers, load, rate, String.format("очередь %d, наименьшая загрузка %.0f%%",
+                backlog, minUtilization * 100));
+        } else if (shrinkCount >= shrinkSamples) {
+            resize(-1, workers, load, rate, String.format("наибольшая загрузка %.0f%% ниже %.0f%%",
+                maxUtilization * 100, lowUtilization * 100));
+        }
+    }
+
+    private void resize(int delta, int workers, Load load, double rate, String reason) {
+        if (delta > 0) {
+            pool.addWorker();
+        } else if (pool.retireWorker() == null) {
+            return;
+        }
+        growCount = 0;
+        shrinkCount = 0;
+        rateSamples = 0;
+        smoothedRate = -1;
+        Decision decision = new Decision(System.nanoTime(), workers, workers + delta, load.backlog,
+            load.utilization, load.minUtilization, load.maxUtilization, rate, reason);
+        synchronized (this) {
+            decisions.add(decision);
+        }
+        log(decision.toString());
+    }
+
+    private Map<QueueIntegrator, Long> sampleWorkers(long now) {
+        Map<QueueIntegrator, Long> busy = new IdentityHashMap<>();
+        for (QueueIntegrator worker : pool.getActiveWorkers()) {
+            busy.put(worker, worker.getBusyNanos(now));
+        }
+        return busy;
+    }
+
+    private static void log(String message) {
+        System.out.println("[PoolAutoscaler] " + message);
+    }
+
+    /**
+     * Решение об изменении количества интеграторов.
+     */
+    public static class Decision {
+        public final long timeNanos;
+        public final int fromWorkers;
+        public final int toWorkers;
+        public final int backlog;
+        /** Средняя загрузка интеграторов. */
+        public final double utilization;
+        /** Наименьшая загрузка отдельного интегратора за интервал замера. */
+        public final double minUtilization;
+        /** Наибольшая загрузка отдельного интегратора за интервал замера. */
+        public final double maxUtilization;
+        /** Скорость выполнения заданий в момент решения, отрезков разбиения в секунду. */
+        public final double completionRate;
+        public final String reason;
+
+        public Decision(long timeNanos, int fromWorkers, int toWorkers, int backlog, double utilization,
+                        double minUtilization, double maxUtilization, double completionRate, String reason) {
+            this.timeNanos = timeNanos;
+            this.fromWorkers = fromWorkers;
+            this.toWorkers = toWorkers;
+            this.backlog = backlog;
+            this.utilization = utilization;
+            this.minUtilization = minUtilization;
+            this.maxUtilization = maxUtilization;
+            this.completionRate = completionRate;
+            this.reason = reason;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d -> %d интеграторов: %s (очередь %d, загрузка %.0f%%, по интеграторам "
+                + "от %.0f%% до %.0f%%, %.3g отрезков/с)", fromWorkers, toWorkers, reason, backlog,
+                utilization * 100, minUtilization * 100, maxUtilization * 100, completionRate);
+        }
+    }
+
+    /**
+     * Показатели загрузки пула в одном замере.
+     */
+    private static final class Load {
+        final int backlog;
+        final double utilization;
+        final double minUtilization;
+        final double maxUtilization;
+
+        Load(int backlog, double utilization, double minUtilization, double maxUtilization) {
+            this.backlog = backlog;
+            this.utilization = utilization;
+            this.minUtilization = minUtilization;
+            this.maxUtilization = maxUtilization;
+        }
+    }
+}
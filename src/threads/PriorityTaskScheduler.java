@@ -0,0 +1,350 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ограниченный буфер заданий, выдающий задания в порядке приоритета.
+ *
+ * Стоимость задания оценивается количеством узлов сетки
+ * ({@link Task.TaskData#getEstimatedCost()}) и может различаться на порядки,
+ * поэтому при обработке в порядке поступления дешёвые задания подолгу ждут
+ * за дорогими. Политики выдачи:
+ * <ul>
+ * <li>{@link Policy#FIFO} - в порядке поступления, как {@link TaskQueue};</li>
+ * <li>{@link Policy#SHORTEST_JOB_FIRST} - сначала дешёвые задания. Чтобы дорогие задания
+ * не ждали бесконечно, приоритет учитывает старение: за каждую миллисекунду ожидания
+ * задание становится «дешевле» на {@code agingRate} узлов;</li>
+ * <li>{@link Policy#EARLIEST_DEADLINE_FIRST} - сначала задания с ближайшим сроком
+ * выполнения ({@link Task.TaskData#deadlineNanos}); задания без срока выдаются после них
+ * в порядке поступления.</li>
+ * </ul>
+ *
+ * Переупорядочивание возможно только среди заданий, находящихся в буфере, поэтому
+ * вместимость должна быть достаточной, чтобы вмещать накапливающиеся задания.
+ * В отличие от {@link TaskQueue}, буфер использует блокировку: куча приоритетов
+ * не допускает независимых вставки и извлечения.
+ *
+ * Для каждого класса стоимости (порядка величины оценки) собирается гистограмма
+ * времени ожидания от публикации до выдачи интегратору.
+ */
+public class PriorityTaskScheduler implements TaskBuffer<Task.TaskData> {
+
+    /**
+     * Политика выдачи заданий.
+     */
+    public enum Policy {
+        FIFO,
+        SHORTEST_JOB_FIRST,
+        EARLIEST_DEADLINE_FIRST
+    }
+
+    private static final double DEFAULT_AGING_RATE = 10_000.0;
+    private static final int COST_CLASSES_COUNT = 8; // [0, 10), [10, 100), ..., [10^7, ∞)
+
+    private final Policy policy;
+    private final int capacity;
+    private final double agingPerNano;
+    private final long originNanos = System.nanoTime();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final PriorityQueue<Entry> entries = new PriorityQueue<>();
+    private final LatencyHistogram[] waitTimes = new LatencyHistogram[COST_CLASSES_COUNT];
+    private final LongAdder expiredTasks = new LongAdder();
+    private long sequence;
+    private volatile boolean closed;
+
+    /**
+     * Создаёт планировщик со старением по умолчанию ({@value #DEFAULT_AGING_RATE} узлов в миллисекунду).
+     * @param policy политика выдачи заданий
+     * @param capacity вместимость буфера
+     * @throws IllegalArgumentException если политика равна null или вместимость не положительна
+     */
+    public PriorityTaskScheduler(Policy policy, int capacity) {
+        this(policy, capacity, DEFAULT_AGING_RATE);
+    }
+
+    /**
+     * Создаёт планировщик.
+     * @param policy политика выдачи заданий
+     * @param capacity вместимость буфера
+     * @param agingRate на сколько узлов уменьшается оценка стоимости задания за миллисекунду
+     * ожидания (используется политикой {@link Policy#SHORTEST_JOB_FIRST}); 0 - без старения
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public PriorityTaskScheduler(Policy policy, int capacity, double agingRate) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy must not be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (!(agingRate >= 0) || Double.isInfinite(agingRate)) {
+            throw new IllegalArgumentException("Aging rate must be a non-negative finite number");
+        }
+        this.policy = policy;
+        this.capacity = capacity;
+        this.agingPerNano = agingRate / 1_000_000.0;
+        for (int i = 0; i < COST_CLASSES_COUNT; i++) {
+            waitTimes[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public boolean offer(Task.TaskData item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item must not be null");
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Планировщик заданий закрыт");
+            }
+            if (entries.size() == capacity) {
+                return false;
+            }
+            enqueue(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Task.TaskData poll() {
+        lock.lock();
+        try {
+            return entries.isEmpty() ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Task.TaskData item) throws InterruptedException {
+        if (item == null) {
+            throw new IllegalArgumentException("Item must not be null");
+        }
+        lock.lockInterruptibly();
+        try {
+            while (entries.size() == capacity && !closed) {
+                notFull.await();
+            }
+            if (closed) {
+                throw new IllegalStateException("Планировщик заданий закрыт");
+            }
+            enqueue(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Task.TaskData take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (entries.isEmpty() && !closed) {
+                notEmpty.await();
+            }
+            return entries.isEmpty() ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Возвращает политику выдачи заданий.
+     * @return политика
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Возвращает количество заданий, выданных интеграторам после истечения их срока выполнения.
+     * @return количество просроченных заданий
+     */
+    public long getExpiredTasks() {
+        return expiredTasks.sum();
+    }
+
+    /**
+     * Возвращает среднее время ожидания всех выданных заданий.
+     * @return среднее время ожидания в наносекундах (0, если заданий не было)
+     */
+    public double getMeanWaitNanos() {
+        long count = 0;
+        double total = 0.0;
+        for (LatencyHistogram histogram : waitTimes) {
+            long n = histogram.getCount();
+            count += n;
+            total += histogram.getMeanNanos() * n;
+        }
+        return count == 0 ? 0.0 : total / count;
+    }
+
+    /**
+     * Возвращает статистику времени ожидания по классам стоимости.
+     * @return статистика непустых классов в порядке возрастания стоимости
+     */
+    public List<ClassStatistics> getWaitStatistics() {
+        List<ClassStatistics> statistics = new ArrayList<>();
+        for (int i = 0; i < COST_CLASSES_COUNT; i++) {
+            LatencyHistogram histogram = waitTimes[i];
+            long count = histogram.getCount();
+            if (count > 0) {
+                double lowerCost = i == 0 ? 0.0 : Math.pow(10, i);
+                double upperCost = i == COST_CLASSES_COUNT - 1 ? Double.POSITIVE_INFINITY : Math.pow(10, i + 1);
+                statistics.add(new ClassStatistics(lowerCost, upperCost, count, histogram.getMeanNanos(),
+                        histogram.getQuantileNanos(0.99), histogram.getMaxNanos()));
+            }
+        }
+        return statistics;
+    }
+
+    private void enqueue(Task.TaskData task) {
+        long now = System.nanoTime();
+        double cost = estimateCost(task);
+        int tier = 0;
+        double key;
+        switch (policy) {
+            case SHORTEST_JOB_FIRST:
+                // cost - aging * (t - enqueue) упорядочивает так же, как cost + aging * enqueue,
+                // поэтому приоритет вычисляется один раз при публикации
+                key = cost + agingPerNano * (now - originNanos);
+                break;
+            case EARLIEST_DEADLINE_FIRST:
+                if (task.hasDeadline()) {
+                    key = task.deadlineNanos - originNanos;
+                } else {
+                    tier = 1;
+                    key = 0.0;
+                }
+                break;
+            default:
+                key = 0.0;
+                break;
+        }
+        entries.add(new Entry(task, now, sequence++, tier, key, cost));
+        notEmpty.signal();
+    }
+
+    private Task.TaskData dequeue() {
+        Entry entry = entries.poll();
+        long now = System.nanoTime();
+        waitTimes[costClass(entry.cost)].record(now - entry.enqueueNanos);
+        if (entry.task.hasDeadline() && now - entry.task.deadlineNanos > 0) {
+            expiredTasks.increment();
+        }
+        notFull.signal();
+        return entry.task;
+    }
+
+    private static double estimateCost(Task.TaskData task) {
+        double cost = task.getEstimatedCost();
+        return Double.isNaN(cost) ? Double.POSITIVE_INFINITY : Math.max(cost, 0.0);
+    }
+
+    private static int costClass(double cost) {
+        if (cost < 10.0) {
+            return 0;
+        }
+        return (int) Math.min(COST_CLASSES_COUNT - 1, Math.floor(Math.log10(cost)));
+    }
+
+    /**
+     * Задание в куче приоритетов: сравнивается по уровню, ключу и порядку поступления.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final Task.TaskData task;
+        private final long enqueueNanos;
+        private final long sequence;
+        private final int tier;
+        private final double key;
+        private final double cost;
+
+        Entry(Task.TaskData task, long enqueueNanos, long sequence, int tier, double key, double cost) {
+            this.task = task;
+            this.enqueueNanos = enqueueNanos;
+            this.sequence = sequence;
+            this.tier = tier;
+            this.key = key;
+            this.cost = cost;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (tier != other.tier) {
+                return Integer.compare(tier, other.tier);
+            }
+            int byKey = Double.compare(key, other.key);
+            return byKey != 0 ? byKey : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Статистика времени ожидания заданий одного класса стоимости.
+     */
+    public static class ClassStatistics {
+        public final double lowerCost;
+        public final double upperCost;
+        public final long tasksCount;
+        public final double meanWaitNanos;
+        public final long p99WaitNanos;
+        public final long maxWaitNanos;
+
+        public ClassStatistics(double lowerCost, double upperCost, long tasksCount, double meanWaitNanos,
+                               long p99WaitNanos, long maxWaitNanos) {
+            this.lowerCost = lowerCost;
+            this.upperCost = upperCost;
+            this.tasksCount = tasksCount;
+            this.meanWaitNanos = meanWaitNanos;
+            this.p99WaitNanos = p99WaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("стоимость [%.0e, %.0e): заданий %d, ожидание среднее %.3f мс, 99%% %.3f мс, "
+                            + "максимум %.3f мс",
+                    lowerCost, upperCost, tasksCount, meanWaitNanos / 1e6, p99WaitNanos / 1e6, maxWaitNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package threads;
+
+import java.util.Random;
+
+/**
+ * Класс-генератор заданий для интегрирования, публикующий задания в очередь.
+ * В отличие от {@link Generator}, не ждёт обработки каждого задания интегратором:
+ * ожидание возникает только при заполненной очереди. Несколько генераторов
+ * могут работать с одной очередью одновременно.
+ */
+public class QueueGenerator extends Thread {
+    private final TaskBuffer<Task.TaskData> queue;
+    private final int tasksCount;
+    private final Random random;
+    private final PipelineMetrics metrics;
+    private volatile TaskLogWriter taskLog;
+    private volatile int generatedTasks;
+
+    /**
+     * Конструктор класса QueueGenerator.
+     * @param queue очередь, в которую будут публиковаться задания
+     * @param tasksCount количество заданий, которое нужно сгенерировать
+     */
+    public QueueGenerator(TaskBuffer<Task.TaskData> queue, int tasksCount) {
+        this(queue, tasksCount, null);
+    }
+
+    /**
+     * Конструктор класса QueueGenerator с учётом метрик.
+     * @param queue очередь, в которую будут публиковаться задания
+     * @param tasksCount количество заданий, которое нужно сгенерировать
+     * @param metrics метрики конвейера или null, если метрики не собираются
+     */
+    public QueueGenerator(TaskBuffer<Task.TaskData> queue, int tasksCount, PipelineMetrics metrics) {
+        this.queue = queue;
+        this.tasksCount = tasksCount;
+        this.random = new Random();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Включает запись генерируемых заданий в журнал для последующего воспроизведения.
+     * Должен вызываться до запуска генератора.
+     * @param taskLog журнал заданий или null, чтобы отключить запись
+     */
+    public void setTaskLog(TaskLogWriter taskLog) {
+        this.taskLog = taskLog;
+    }
+
+    @Override
+    public void run() {
+        TaskLogWriter log = taskLog;
+        for (int i = 0; i < tasksCount; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                System.out.printf("[QueueGenerator] Поток прерван на задании %d из %d%n", i + 1, tasksCount);
+                break;
+            }
+
+            try {
+                Task.TaskData data = Task.TaskData.random(random);
+                if (log != null) {
+                    log.record(data);
+                }
+                if (metrics == null) {
+                    queue.put(data);
+                } else {
+                    long startTime = System.nanoTime();
+                    queue.put(data);
+                    metrics.recordGenerated(System.nanoTime() - startTime);
+                }
+                generatedTasks++;
+
+                // Выводим сообщение Source
+                System.out.printf("Source %.6f %.6f %.6f%n", data.leftBound, data.rightBound, data.step);
+            } catch (InterruptedException e) {
+                System.out.printf("[QueueGenerator] Поток прерван во время генерации задания %d из %d%n", i + 1, tasksCount);
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        System.out.println("[QueueGenerator] Выполнение заданий завершено. Сгенерировано заданий: " + generatedTasks);
+    }
+
+    /**
+     * Возвращает количество опубликованных заданий.
+     * @return количество сгенерированных заданий
+     */
+    public int getGeneratedTasks() {
+        return generatedTasks;
+    }
+}
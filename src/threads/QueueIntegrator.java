@@ -0,0 +1,317 @@
+package threads;
+
+import functions.CancellationToken;
+import functions.Functions;
+import functions.IntegrationCache;
+import functions.PartialIntegral;
+
+/**
+ * Класс-интегратор, извлекающий задания из очереди.
+ * Каждое задание извлекается ровно одним интегратором, поэтому несколько
+ * интеграторов могут обрабатывать одну очередь одновременно.
+ * Поток завершается, когда очередь закрыта и пуста.
+ *
+ * Задание со сроком выполнения, истёкшим до его извлечения, отбрасывается без
+ * интегрирования, а интегрирование, не уложившееся в срок или прерванное вместе
+ * с потоком, прекращается внутри цикла и даёт частичный результат. Поэтому при
+ * перегрузке задания не накапливаются в очереди бесконечно.
+ *
+ * Интегратор можно вывести из работы вызовом {@link #retire()}: он завершится,
+ * не начиная следующего задания, а начатое задание будет выполнено полностью.
+ */
+public class QueueIntegrator extends Thread {
+    private final TaskBuffer<Task.TaskData> queue;
+    private volatile int completedTasks;
+    private volatile int failedTasks;
+    private volatile int partialTasks;
+    private volatile int shedTasks;
+    private volatile int exactTasks;
+    private volatile long busyNanos;
+    private volatile long completedSegments;
+    private final PipelineMetrics metrics;
+    private final ResultSink resultSink;
+    private final IntegrationCache cache;
+    private volatile ForkJoinIntegrator forkJoinIntegrator;
+    private volatile boolean exactIntegration;
+    private volatile long taskStartNanos;
+    // Прерывание для вывода из работы допускается только во время ожидания задания
+    private final Object retireLock = new Object();
+    private boolean retiring;
+    private boolean waiting;
+
+    /**
+     * Конструктор класса QueueIntegrator.
+     * @param queue очередь, из которой будут браться задания
+     */
+    public QueueIntegrator(TaskBuffer<Task.TaskData> queue) {
+        this(queue, null);
+    }
+
+    /**
+     * Конструктор класса QueueIntegrator с учётом метрик.
+     * @param queue очередь, из которой будут браться задания
+     * @param metrics метрики конвейера или null, если метрики не собираются
+     */
+    public QueueIntegrator(TaskBuffer<Task.TaskData> queue, PipelineMetrics metrics) {
+        this(queue, metrics, null);
+    }
+
+    /**
+     * Конструктор класса QueueIntegrator с учётом метрик и получателем результатов.
+     * @param queue очередь, из которой будут браться задания
+     * @param metrics метрики конвейера или null, если метрики не собираются
+     * @param resultSink получатель результатов или null для вывода в консоль ({@link ConsoleResultSink})
+     */
+    public QueueIntegrator(TaskBuffer<Task.TaskData> queue, PipelineMetrics metrics, ResultSink resultSink) {
+        this(queue, metrics, resultSink, null);
+    }
+
+    /**
+     * Конструктор класса QueueIntegrator с учётом метрик, получателем результатов и кэшем.
+     * Результат повторного задания берётся из кэша без интегрирования; в кэш попадают
+     * только полностью вычисленные интегралы.
+     * @param queue очередь, из которой будут браться задания
+     * @param metrics метрики конвейера или null, если метрики не собираются
+     * @param resultSink получатель результатов или null для вывода в консоль ({@link ConsoleResultSink})
+     * @param cache кэш результатов интегрирования или null, если результаты не кэшируются
+     */
+    public QueueIntegrator(TaskBuffer<Task.TaskData> queue, PipelineMetrics metrics, ResultSink resultSink,
+                           IntegrationCache cache) {
+        this.queue = queue;
+        this.metrics = metrics;
+        this.resultSink = resultSink != null ? resultSink : new ConsoleResultSink();
+        this.cache = cache;
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Task.TaskData taskData;
+            long waitStartTime = System.nanoTime();
+            synchronized (retireLock) {
+                if (retiring) {
+                    break;
+                }
+                waiting = true;
+            }
+            try {
+                taskData = queue.take();
+            } catch (InterruptedException e) {
+                synchronized (retireLock) {
+                    waiting = false;
+                    if (retiring) {
+                        break; // Прерывание от retire() - задание не было извлечено
+                    }
+                }
+                System.out.printf("[QueueIntegrator] Поток прерван во время ожидания. Выполнено заданий: %d%n", completedTasks);
+                Thread.currentThread().interrupt();
+                break;
+            }
+            synchronized (retireLock) {
+                waiting = false;
+                if (retiring) {
+                    // Прерывание от retire() могло прийти после извлечения задания - задание выполняется полностью
+                    Thread.interrupted();
+                }
+            }
+            if (taskData == null) {
+                break; // Очередь закрыта и все задания обработаны
+            }
+
+            long startTime = System.nanoTime();
+            taskStartNanos = startTime;
+            if (metrics != null) {
+                metrics.recordTakeWait(startTime - waitStartTime);
+            }
+            if (taskData.hasDeadline() && startTime - taskData.deadlineNanos >= 0) {
+                // Срок истёк, пока задание ждало в очереди, - отбрасываем его, не интегрируя
+                resultSink.acceptShed(taskData.leftBound, taskData.rightBound, taskData.step);
+                if (metrics != null) {
+                    metrics.recordDropped();
+                }
+                shedTasks++;
+                completedTasks++;
+                taskStartNanos = 0;
+                continue;
+            }
+            boolean failed = false;
+            try {
+                ForkJoinIntegrator splitter = forkJoinIntegrator;
+                // Срок выполнения и прерывание потока проверяются внутри цикла интегрирования,
+                // в том числе в частях разделённого задания
+                CancellationToken token = new CancellationToken(taskData.deadlineNanos, this);
+                PartialIntegral integral;
+                if (exactIntegration
+                        && Functions.hasExactIntegral(taskData.function, taskData.leftBound, taskData.rightBound)) {
+                    // Формула Ньютона-Лейбница выполняется за константное время - кэш и разделение не нужны
+                    integral = new PartialIntegral(Functions.integrate(taskData.function, taskData.leftBound,
+                        taskData.rightBound, taskData.step, true), taskData.leftBound, taskData.rightBound,
+                        taskData.rightBound);
+                    exactTasks++;
+                } else {
+                    Double cached = cache != null
+                        ? cache.lookup(taskData.function, taskData.leftBound, taskData.rightBound, taskData.step)
+                        : null;
+                    if (cached != null) {
+                        integral = new PartialIntegral(cached, taskData.leftBound, taskData.rightBound,
+                            taskData.rightBound);
+                    } else {
+                        if (splitter != null) {
+                            integral = splitter.integratePartial(taskData, token);
+                        } else {
+                            integral = Functions.integratePartial(taskData.function, taskData.leftBound,
+                                taskData.rightBound, taskData.step, token);
+                        }
+                        completedSegments += (long) ((integral.coveredBound - taskData.leftBound) / taskData.step);
+                        if (cache != null && integral.isComplete()) {
+                            cache.put(taskData.function, taskData.leftBound, taskData.rightBound, taskData.step,
+                                integral.value);
+                        }
+                    }
+                }
+                if (integral.isComplete()) {
+                    resultSink.accept(taskData.leftBound, taskData.rightBound, taskData.step, integral.value);
+                } else {
+                    resultSink.acceptPartial(taskData.leftBound, taskData.rightBound, taskData.step,
+                        integral.value, integral.coveredBound);
+                    partialTasks++;
+                    failed = true;
+                }
+            } catch (Exception e) {
+                System.err.printf("Ошибка при интегрировании задания %d: %s%n",
+                    completedTasks + 1, e.getMessage());
+                failedTasks++;
+                failed = true;
+            }
+            long elapsedNanos = System.nanoTime() - startTime;
+            busyNanos += elapsedNanos;
+            taskStartNanos = 0;
+            if (metrics != null) {
+                if (failed) {
+                    metrics.recordDropped();
+                } else {
+                    metrics.recordCompleted(elapsedNanos);
+                }
+            }
+            completedTasks++;
+        }
+        if (isRetiring()) {
+            System.out.println("[QueueIntegrator] Интегратор выведен из работы. Обработано заданий: " + completedTasks);
+        } else {
+            System.out.println("[QueueIntegrator] Выполнение заданий завершено. Обработано заданий: " + completedTasks);
+        }
+    }
+
+    /**
+     * Выводит интегратор из работы: поток завершится, не извлекая следующего задания.
+     * Ожидание задания прерывается, а начатое задание выполняется полностью.
+     */
+    public void retire() {
+        synchronized (retireLock) {
+            retiring = true;
+            if (waiting) {
+                interrupt();
+            }
+        }
+    }
+
+    /**
+     * Проверяет, выведен ли интегратор из работы.
+     * @return true, если был вызван {@link #retire()}
+     */
+    public boolean isRetiring() {
+        synchronized (retireLock) {
+            return retiring;
+        }
+    }
+
+    /**
+     * Включает точное интегрирование: задания с функциями, реализующими
+     * {@link functions.IntegrableFunction}, вычисляются по формуле Ньютона-Лейбница,
+     * если первообразная непрерывна на отрезке; остальные - методом трапеций.
+     * @param exactIntegration true, чтобы по возможности использовать первообразную
+     */
+    public void setExactIntegration(boolean exactIntegration) {
+        this.exactIntegration = exactIntegration;
+    }
+
+    /**
+     * Возвращает количество заданий, вычисленных по формуле Ньютона-Лейбница.
+     * @return количество заданий
+     */
+    public int getExactTasks() {
+        return exactTasks;
+    }
+
+    /**
+     * Включает разделение трудоёмких заданий на части, выполняемые параллельно.
+     * @param forkJoinIntegrator интегратор с разделением заданий или null,
+     * чтобы интегрировать каждое задание целиком
+     */
+    public void setForkJoinIntegrator(ForkJoinIntegrator forkJoinIntegrator) {
+        this.forkJoinIntegrator = forkJoinIntegrator;
+    }
+
+    /**
+     * Возвращает количество обработанных заданий.
+     * @return количество обработанных заданий
+     */
+    public int getCompletedTasks() {
+        return completedTasks;
+    }
+
+    /**
+     * Возвращает количество заданий, при обработке которых возникла ошибка.
+     * Такие задания также учитываются в {@link #getCompletedTasks()}.
+     * @return количество заданий с ошибкой
+     */
+    public int getFailedTasks() {
+        return failedTasks;
+    }
+
+    /**
+     * Возвращает количество заданий, интегрирование которых прекращено по истечении
+     * срока выполнения или при прерывании потока и дало частичный результат.
+     * Такие задания также учитываются в {@link #getCompletedTasks()}.
+     * @return количество частичных результатов
+     */
+    public int getPartialTasks() {
+        return partialTasks;
+    }
+
+    /**
+     * Возвращает количество заданий, отброшенных без интегрирования из-за истёкшего срока выполнения.
+     * Такие задания также учитываются в {@link #getCompletedTasks()}.
+     * @return количество отброшенных заданий
+     */
+    public int getShedTasks() {
+        return shedTasks;
+    }
+
+    /**
+     * Возвращает количество вычисленных отрезков разбиения во всех заданиях, включая
+     * частичные результаты. В отличие от количества заданий, не зависит от их размера.
+     * @return количество отрезков
+     */
+    public long getCompletedSegments() {
+        return completedSegments;
+    }
+
+    /**
+     * Возвращает суммарное время интегрирования в наносекундах.
+     * @return время, затраченное на обработку заданий
+     */
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    /**
+     * Возвращает суммарное время интегрирования с учётом выполняемого сейчас задания.
+     * @param now текущее значение {@link System#nanoTime()}
+     * @return время, затраченное на обработку заданий к моменту now
+     */
+    public long getBusyNanos(long now) {
+        long start = taskStartNanos;
+        return busyNanos + (start != 0 ? Math.max(0, now - start) : 0);
+    }
+}
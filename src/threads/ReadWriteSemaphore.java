@@ -1,11 +1,22 @@
 package threads;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Одноместный семафор, различающий операции чтения и записи.
  * Гарантирует, что в каждый момент времени только один поток может
  * выполнять операцию чтения или записи.
+ *
+ * Ожидание построено на {@link ReentrantLock} и двух условиях: читатели ждут
+ * на условии canRead, писатели - на условии canWrite, и каждое освобождение будит
+ * только тех, кто может продолжить работу. Ожидание прерываемо, поэтому прерывание
+ * обрабатывается сразу, без периодического пробуждения по таймеру.
  */
 public class ReadWriteSemaphore {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition canRead = lock.newCondition();
+    private final Condition canWrite = lock.newCondition();
     private int readers = 0;      // Количество активных читателей
     private int writers = 0;      // Количество активных писателей (0 или 1)
     private int waitingWriters = 0; // Количество ожидающих писателей
@@ -15,41 +26,44 @@ public class ReadWriteSemaphore {
      * Блокирует выполнение, если есть активные читатели или писатели.
      * @throws InterruptedException если поток был прерван во время ожидания
      */
-    public synchronized void startWrite() throws InterruptedException {
-        waitingWriters++;
+    public void startWrite() throws InterruptedException {
+        lock.lockInterruptibly();
         try {
-            // Ждем, пока не освободятся все читатели и писатели
-            while (readers > 0 || writers > 0) {
-                // Проверяем прерывание перед ожиданием
-                if (Thread.currentThread().isInterrupted()) {
-                    notifyAll(); // Разбудим другие потоки
-                    throw new InterruptedException("Поток прерван во время ожидания записи");
+            waitingWriters++;
+            try {
+                // Ждем, пока не освободятся все читатели и писатели
+                while (readers > 0 || writers > 0) {
+                    canWrite.await();
                 }
-                try {
-                    wait(100); // Таймаут 100 мс для wait(), чтобы периодически проверять прерывание
-                } catch (InterruptedException e) {
-                    waitingWriters--; // Уменьшаем счетчик в finally не сработает, если исключение
-                    notifyAll(); // Разбудим другие потоки при прерывании
-                    throw e;
+            } finally {
+                waitingWriters--;
+                if (waitingWriters == 0 && writers == 0) {
+                    // Писатель ушёл, не захватив семафор: читатели больше не должны его ждать
+                    canRead.signalAll();
                 }
             }
-            // Проверяем прерывание после выхода из wait()
+            // Проверяем прерывание после выхода из ожидания
             if (Thread.currentThread().isInterrupted()) {
-                notifyAll(); // Разбудим другие потоки
+                signalWaiters();
                 throw new InterruptedException("Поток прерван после ожидания записи");
             }
             writers = 1;
         } finally {
-            waitingWriters--;
+            lock.unlock();
         }
     }
 
     /**
      * Освобождает семафор после операции записи.
      */
-    public synchronized void endWrite() {
-        writers = 0;
-        notifyAll(); // Уведомляем всех ожидающих потоков
+    public void endWrite() {
+        lock.lock();
+        try {
+            writers = 0;
+            signalWaiters();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -57,37 +71,48 @@ public class ReadWriteSemaphore {
      * Блокирует выполнение, если есть активные писатели или ожидающие писатели.
      * @throws InterruptedException если поток был прерван во время ожидания
      */
-    public synchronized void startRead() throws InterruptedException {
-        // Ждем, пока не освободятся все писатели и не закончатся ожидающие писатели
-        while (writers > 0 || waitingWriters > 0) {
-            // Проверяем прерывание перед ожиданием
-            if (Thread.currentThread().isInterrupted()) {
-                notifyAll(); // Разбудим другие потоки
-                throw new InterruptedException("Поток прерван во время ожидания чтения");
+    public void startRead() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            // Ждем, пока не освободятся все писатели и не закончатся ожидающие писатели
+            while (writers > 0 || waitingWriters > 0) {
+                canRead.await();
             }
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                notifyAll(); // Разбудим другие потоки при прерывании
-                throw e;
+            // Проверяем прерывание после выхода из ожидания
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Поток прерван после ожидания чтения");
             }
+            readers++;
+        } finally {
+            lock.unlock();
         }
-        // Проверяем прерывание после выхода из wait()
-        if (Thread.currentThread().isInterrupted()) {
-            notifyAll(); // Разбудим другие потоки
-            throw new InterruptedException("Поток прерван после ожидания чтения");
-        }
-        readers++;
     }
 
     /**
      * Освобождает семафор после операции чтения.
      */
-    public synchronized void endRead() {
-        readers--;
-        if (readers == 0) {
-            notifyAll(); // Уведомляем всех ожидающих потоков
+    public void endRead() {
+        lock.lock();
+        try {
+            readers--;
+            if (readers == 0) {
+                canWrite.signal(); // Семафор свободен - его может захватить один писатель
+            }
+        } finally {
+            lock.unlock();
         }
     }
-}
 
+    /**
+     * Будит ожидающих после освобождения семафора: писателя, если он есть
+     * (писатели имеют приоритет), иначе всех читателей.
+     * Вызывается при захваченной блокировке.
+     */
+    private void signalWaiters() {
+        if (waitingWriters > 0) {
+            canWrite.signal();
+        } else {
+            canRead.signalAll();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package threads;
+
+import functions.Functions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Интегратор, получающий задания от {@link IntegrationCoordinator} по TCP.
+ *
+ * Подключается к координатору, объявляет кредиты (вдвое больше количества потоков
+ * интегрирования, чтобы потоки не простаивали, пока результат идёт к координатору
+ * и обратно приходит новое задание) и обрабатывает задания в нескольких потоках,
+ * отправляя результаты по мере готовности. Результаты отправляются пачками не больше
+ * половины кредитов: каждый результат возвращает координатору кредит, и пока
+ * результаты копятся в буфере, новые задания не приходят. Работа завершается по сообщению
+ * координатора о завершении или при разрыве соединения.
+ */
+public class RemoteIntegrator {
+    private static final Job STOP = new Job(-1, null);
+
+    private final String host;
+    private final int port;
+    private final int threadsCount;
+    private final AtomicInteger completedTasks = new AtomicInteger();
+    // Результаты, записанные в буфер, но ещё не отправленные; изменяется под монитором потока вывода
+    private int unflushedResults;
+
+    /**
+     * Конструктор класса RemoteIntegrator.
+     * @param host адрес координатора
+     * @param port порт координатора
+     * @param threadsCount количество потоков интегрирования
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public RemoteIntegrator(String host, int port, int threadsCount) {
+        if (host == null) {
+            throw new IllegalArgumentException("Host must not be null");
+        }
+        if (port <= 0 || port > 65535) {
+            throw new IllegalArgumentException("Port must be in range [1, 65535]");
+        }
+        if (threadsCount <= 0) {
+            throw new IllegalArgumentException("Threads count must be positive");
+        }
+        this.host = host;
+        this.port = port;
+        this.threadsCount = threadsCount;
+    }
+
+    /**
+     * Подключается к координатору и обрабатывает задания до сообщения о завершении.
+     * @return количество обработанных заданий
+     * @throws IOException если соединение не удалось установить или оно было разорвано
+     * @throws InterruptedException если поток был прерван во время работы
+     */
+    public int run() throws IOException, InterruptedException {
+        int credits = threadsCount * 2;
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+            out.writeInt(RemoteProtocol.MAGIC);
+            out.writeInt(RemoteProtocol.VERSION);
+            out.writeInt(credits);
+            out.flush();
+
+            // Координатор не отправляет больше заданий, чем кредитов, поэтому очередь не переполняется
+            BlockingQueue<Job> jobs = new ArrayBlockingQueue<>(credits + threadsCount);
+            int flushThreshold = Math.max(1, credits / 2);
+            Thread[] workers = new Thread[threadsCount];
+            for (int i = 0; i < threadsCount; i++) {
+                workers[i] = new Thread(() -> work(jobs, out, socket, flushThreshold), "RemoteIntegrator-" + (i + 1));
+                workers[i].setDaemon(true);
+                workers[i].start();
+            }
+
+            try {
+                while (true) {
+                    byte type = in.readByte();
+                    if (type == RemoteProtocol.SHUTDOWN) {
+                        break;
+                    }
+                    if (type != RemoteProtocol.TASK) {
+                        throw new IOException("Неизвестный тип сообщения: " + type);
+                    }
+                    long id = in.readLong();
+                    jobs.put(new Job(id, RemoteProtocol.readTask(in)));
+                }
+            } finally {
+                for (int i = 0; i < threadsCount; i++) {
+                    if (!jobs.offer(STOP)) {
+                        workers[i].interrupt(); // Очередь переполнена - соединение нарушено
+                    }
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+            }
+            synchronized (out) {
+                out.flush();
+            }
+        }
+        return completedTasks.get();
+    }
+
+    /**
+     * Возвращает количество обработанных заданий.
+     * @return количество заданий
+     */
+    public int getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    private void work(BlockingQueue<Job> jobs, DataOutputStream out, Socket socket, int flushThreshold) {
+        try {
+            while (true) {
+                Job job = jobs.take();
+                if (job == STOP) {
+                    return;
+                }
+                Task.TaskData task = job.task;
+                double result = 0.0;
+                String error = null;
+                try {
+                    result = Functions.integrate(task.function, task.leftBound, task.rightBound, task.step);
+                } catch (RuntimeException e) {
+                    error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+                }
+                synchronized (out) {
+                    if (error == null) {
+                        out.writeByte(RemoteProtocol.RESULT);
+                        out.writeLong(job.id);
+                        out.writeDouble(result);
+                    } else {
+                        out.writeByte(RemoteProtocol.FAILURE);
+                        out.writeLong(job.id);
+                        out.writeUTF(error);
+                    }
+                    // Накопленные результаты удерживают кредиты координатора - отправляем их,
+                    // не дожидаясь, пока опустеет очередь заданий
+                    if (++unflushedResults >= flushThreshold || jobs.isEmpty()) {
+                        out.flush();
+                        unflushedResults = 0;
+                    }
+                }
+                completedTasks.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            // Работа прекращена
+        } catch (IOException e) {
+            System.err.println("[RemoteIntegrator] Ошибка отправки результата: " + e.getMessage());
+            try {
+                socket.close(); // Поток приёма заданий завершится с ошибкой
+            } catch (IOException ignored) {
+                // Соединение уже разорвано
+            }
+        }
+    }
+
+    /**
+     * Задание, полученное от координатора.
+     */
+    private static final class Job {
+        private final long id;
+        private final Task.TaskData task;
+
+        Job(long id, Task.TaskData task) {
+            this.id = id;
+            this.task = task;
+        }
+    }
+}
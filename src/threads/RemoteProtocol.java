@@ -0,0 +1,60 @@
+package threads;
+
+import functions.Function;
+import functions.FunctionCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Протокол обмена между {@link IntegrationCoordinator} и {@link RemoteIntegrator}.
+ *
+ * После подключения интегратор отправляет приветствие: сигнатуру, версию протокола
+ * и количество кредитов - сколько заданий он готов принять, не вернув результата.
+ * Далее координатор отправляет сообщения {@link #TASK} (номер задания, функция
+ * в представлении {@link FunctionCodec}, границы и шаг) и в конце {@link #SHUTDOWN},
+ * а интегратор отвечает сообщениями {@link #RESULT} (номер задания и значение интеграла)
+ * или {@link #FAILURE} (номер задания и текст ошибки). Каждый ответ возвращает
+ * координатору один кредит.
+ */
+final class RemoteProtocol {
+    static final int MAGIC = 0x49574B52; // "IWKR"
+    static final int VERSION = 1;
+
+    static final byte TASK = 1;
+    static final byte SHUTDOWN = 2;
+
+    static final byte RESULT = 1;
+    static final byte FAILURE = 2;
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров класса.
+     */
+    private RemoteProtocol() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    /**
+     * Записывает сообщение с заданием.
+     */
+    static void writeTask(DataOutput out, long id, Task.TaskData task) throws IOException {
+        out.writeByte(TASK);
+        out.writeLong(id);
+        FunctionCodec.writeFunction(task.function, out);
+        out.writeDouble(task.leftBound);
+        out.writeDouble(task.rightBound);
+        out.writeDouble(task.step);
+    }
+
+    /**
+     * Считывает тело сообщения с заданием (после номера задания).
+     */
+    static Task.TaskData readTask(DataInput in) throws IOException {
+        Function function = FunctionCodec.readFunction(in);
+        double leftBound = in.readDouble();
+        double rightBound = in.readDouble();
+        double step = in.readDouble();
+        return new Task.TaskData(function, leftBound, rightBound, step);
+    }
+}
@@ -0,0 +1,73 @@
+package threads;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор, воспроизводящий задания из журнала в очередь.
+ *
+ * Задания публикуются в том же порядке, в каком были записаны, либо с максимальной
+ * скоростью, либо с исходными интервалами между ними. Поскольку задания читаются
+ * из журнала, а не генерируются случайно, разные конфигурации интеграторов
+ * получают одинаковую нагрузку.
+ */
+public class ReplayGenerator extends Thread {
+    private final List<TaskLogReader.Entry> entries;
+    private final TaskBuffer<Task.TaskData> queue;
+    private final boolean originalTiming;
+    private volatile int generatedTasks;
+
+    /**
+     * Конструктор класса ReplayGenerator.
+     * @param entries записи журнала заданий
+     * @param queue очередь, в которую будут публиковаться задания
+     * @param originalTiming true, если задания нужно публиковать с исходными интервалами;
+     * false - с максимальной скоростью
+     */
+    public ReplayGenerator(List<TaskLogReader.Entry> entries, TaskBuffer<Task.TaskData> queue, boolean originalTiming) {
+        if (entries == null || queue == null) {
+            throw new IllegalArgumentException("Entries and queue must not be null");
+        }
+        this.entries = entries;
+        this.queue = queue;
+        this.originalTiming = originalTiming;
+    }
+
+    @Override
+    public void run() {
+        long startNanos = System.nanoTime();
+        for (TaskLogReader.Entry entry : entries) {
+            if (Thread.currentThread().isInterrupted()) {
+                System.out.printf("[ReplayGenerator] Поток прерван. Воспроизведено заданий: %d из %d%n",
+                    generatedTasks, entries.size());
+                break;
+            }
+            if (originalTiming) {
+                // Ждём момента, в который задание было сгенерировано при записи
+                long delay;
+                while ((delay = startNanos + entry.offsetNanos - System.nanoTime()) > 0
+                        && !Thread.currentThread().isInterrupted()) {
+                    LockSupport.parkNanos(this, delay);
+                }
+            }
+            try {
+                queue.put(entry.task);
+            } catch (InterruptedException e) {
+                System.out.printf("[ReplayGenerator] Поток прерван. Воспроизведено заданий: %d из %d%n",
+                    generatedTasks, entries.size());
+                Thread.currentThread().interrupt();
+                break;
+            }
+            generatedTasks++;
+        }
+        System.out.println("[ReplayGenerator] Воспроизведение завершено. Опубликовано заданий: " + generatedTasks);
+    }
+
+    /**
+     * Возвращает количество опубликованных заданий.
+     * @return количество заданий
+     */
+    public int getGeneratedTasks() {
+        return generatedTasks;
+    }
+}
@@ -0,0 +1,85 @@
+package threads;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Стадия конвейера, накапливающая сводную статистику по результатам
+ * и передающая сами результаты дальше без изменений.
+ */
+public class ResultAggregator extends TransformStage<TaskResult, TaskResult> {
+    private volatile long successfulResults;
+    private volatile long failedResults;
+    private volatile double sum;
+    private volatile double minimum = Double.POSITIVE_INFINITY;
+    private volatile double maximum = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Создаёт стадию агрегации с исполнителем и буфером по умолчанию.
+     */
+    public ResultAggregator() {
+        super("Aggregation");
+    }
+
+    /**
+     * Создаёт стадию агрегации с заданным исполнителем и размером буфера.
+     * @param executor исполнитель, в котором результаты доставляются подписчикам
+     * @param bufferCapacity максимальное количество элементов в буфере стадии
+     */
+    public ResultAggregator(Executor executor, int bufferCapacity) {
+        super("Aggregation", executor, bufferCapacity);
+    }
+
+    @Override
+    protected TaskResult transform(TaskResult result) {
+        // onNext вызывается последовательно, поэтому поля изменяет только один поток
+        if (result.isSuccessful()) {
+            successfulResults++;
+            sum += result.value;
+            minimum = Math.min(minimum, result.value);
+            maximum = Math.max(maximum, result.value);
+        } else {
+            failedResults++;
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает количество успешных результатов.
+     * @return количество результатов
+     */
+    public long getSuccessfulResults() {
+        return successfulResults;
+    }
+
+    /**
+     * Возвращает количество результатов с ошибкой.
+     * @return количество результатов
+     */
+    public long getFailedResults() {
+        return failedResults;
+    }
+
+    /**
+     * Возвращает сумму значений успешных результатов.
+     * @return сумма значений
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Возвращает наименьшее значение среди успешных результатов.
+     * @return наименьшее значение (+∞, если результатов не было)
+     */
+    public double getMinimum() {
+        return minimum;
+    }
+
+    /**
+     * Возвращает наибольшее значение среди успешных результатов.
+     * @return наибольшее значение (-∞, если результатов не было)
+     */
+    public double getMaximum() {
+        return maximum;
+    }
+}
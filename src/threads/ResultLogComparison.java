@@ -0,0 +1,163 @@
+package threads;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Сравнение двух журналов результатов, записанных {@link ResultLogSink}.
+ *
+ * Результаты сопоставляются по границам и шагу задания, поэтому порядок
+ * их получения (зависящий от количества интеграторов) не важен. Сравниваются
+ * значения интегралов и время обработки всех заданий каждого запуска.
+ */
+public class ResultLogComparison {
+    public final int matchedResults;
+    public final int onlyInFirst;
+    public final int onlyInSecond;
+    public final int mismatchedResults;
+    public final double maxAbsoluteDifference;
+    public final long firstDurationNanos;
+    public final long secondDurationNanos;
+
+    private ResultLogComparison(int matchedResults, int onlyInFirst, int onlyInSecond, int mismatchedResults,
+                                double maxAbsoluteDifference, long firstDurationNanos, long secondDurationNanos) {
+        this.matchedResults = matchedResults;
+        this.onlyInFirst = onlyInFirst;
+        this.onlyInSecond = onlyInSecond;
+        this.mismatchedResults = mismatchedResults;
+        this.maxAbsoluteDifference = maxAbsoluteDifference;
+        this.firstDurationNanos = firstDurationNanos;
+        this.secondDurationNanos = secondDurationNanos;
+    }
+
+    /**
+     * Сравнивает два журнала результатов.
+     * @param first первый журнал
+     * @param second второй журнал
+     * @param tolerance допустимая абсолютная разность значений интегралов
+     * @return результат сравнения
+     * @throws IOException если возникает ошибка ввода-вывода или журнал повреждён
+     */
+    public static ResultLogComparison compare(InputStream first, InputStream second, double tolerance)
+            throws IOException {
+        Map<Key, ArrayDeque<Double>> firstResults = new HashMap<>();
+        long firstDuration = read(first, firstResults);
+        Map<Key, ArrayDeque<Double>> secondResults = new HashMap<>();
+        long secondDuration = read(second, secondResults);
+
+        int matched = 0;
+        int onlyInFirst = 0;
+        int mismatched = 0;
+        double maxDifference = 0.0;
+        for (Map.Entry<Key, ArrayDeque<Double>> entry : firstResults.entrySet()) {
+            ArrayDeque<Double> others = secondResults.get(entry.getKey());
+            for (double value : entry.getValue()) {
+                Double other = others == null ? null : others.poll();
+                if (other == null) {
+                    onlyInFirst++;
+                    continue;
+                }
+                matched++;
+                double difference = Math.abs(value - other);
+                if (Double.compare(value, other) != 0 && !(difference <= tolerance)) {
+                    mismatched++;
+                }
+                if (difference > maxDifference) {
+                    maxDifference = difference;
+                }
+            }
+        }
+        int onlyInSecond = 0;
+        for (ArrayDeque<Double> rest : secondResults.values()) {
+            onlyInSecond += rest.size();
+        }
+        return new ResultLogComparison(matched, onlyInFirst, onlyInSecond, mismatched, maxDifference,
+                firstDuration, secondDuration);
+    }
+
+    /**
+     * Проверяет, что журналы содержат одни и те же задания с совпадающими результатами.
+     * @return true, если все результаты сопоставлены и совпадают
+     */
+    public boolean isIdentical() {
+        return onlyInFirst == 0 && onlyInSecond == 0 && mismatchedResults == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("сопоставлено %d, только в первом %d, только во втором %d, расхождений %d, "
+                        + "наибольшая разность %.3e; время обработки %.3f мс и %.3f мс",
+                matchedResults, onlyInFirst, onlyInSecond, mismatchedResults, maxAbsoluteDifference,
+                firstDurationNanos / 1e6, secondDurationNanos / 1e6);
+    }
+
+    /**
+     * Считывает журнал и возвращает время получения последнего результата.
+     */
+    private static long read(InputStream stream, Map<Key, ArrayDeque<Double>> results) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024));
+        if (in.readInt() != ResultLogSink.MAGIC) {
+            throw new IOException("Поток не является журналом результатов");
+        }
+        int version = in.readInt();
+        if (version != ResultLogSink.VERSION) {
+            throw new IOException("Неподдерживаемая версия журнала результатов: " + version);
+        }
+        long lastOffset = 0;
+        while (true) {
+            long offset;
+            try {
+                offset = in.readLong();
+            } catch (EOFException e) {
+                return lastOffset; // Журнал закончился на границе записи
+            }
+            Key key = new Key(in.readDouble(), in.readDouble(), in.readDouble());
+            double value = in.readDouble();
+            results.computeIfAbsent(key, k -> new ArrayDeque<>()).add(value);
+            lastOffset = Math.max(lastOffset, offset);
+        }
+    }
+
+    /**
+     * Ключ сопоставления результатов: границы и шаг задания.
+     */
+    private static final class Key {
+        private final double leftBound;
+        private final double rightBound;
+        private final double step;
+
+        Key(double leftBound, double rightBound, double step) {
+            this.leftBound = leftBound;
+            this.rightBound = rightBound;
+            this.step = step;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return Double.compare(leftBound, that.leftBound) == 0
+                    && Double.compare(rightBound, that.rightBound) == 0
+                    && Double.compare(step, that.step) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Double.hashCode(leftBound);
+            result = 31 * result + Double.hashCode(rightBound);
+            result = 31 * result + Double.hashCode(step);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package threads;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Получатель результатов, записывающий журнал результатов для сравнения запусков.
+ *
+ * Журнал начинается с заголовка (сигнатура и версия формата), за которым следуют
+ * записи: время получения результата от создания журнала в наносекундах (long),
+ * левая и правая границы, шаг и значение интеграла (double). По границам и шагу
+ * результат сопоставляется с заданием из журнала заданий, по времени получения
+ * сравнивается скорость обработки. Журналы сравниваются {@link ResultLogComparison}.
+ */
+public class ResultLogSink implements ResultSink {
+    static final int MAGIC = 0x524C4F47; // "RLOG"
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private final long startNanos;
+
+    /**
+     * Создаёт журнал результатов и записывает его заголовок.
+     * @param out поток, в который записывается журнал
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    public ResultLogSink(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("OutputStream must not be null");
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UncheckedIOException если возникает ошибка ввода-вывода
+     */
+    @Override
+    public synchronized void accept(double leftBound, double rightBound, double step, double result) {
+        try {
+            out.writeLong(System.nanoTime() - startNanos);
+            out.writeDouble(leftBound);
+            out.writeDouble(rightBound);
+            out.writeDouble(step);
+            out.writeDouble(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи журнала результатов", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UncheckedIOException если возникает ошибка ввода-вывода
+     */
+    @Override
+    public synchronized void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи журнала результатов", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws UncheckedIOException если возникает ошибка ввода-вывода
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка закрытия журнала результатов", e);
+        }
+    }
+}
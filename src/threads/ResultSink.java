@@ -0,0 +1,57 @@
+package threads;
+
+/**
+ * Получатель результатов заданий на интегрирование.
+ *
+ * Интеграторы передают результат получателю вместо того, чтобы форматировать
+ * и выводить его в рабочем потоке. Параметры передаются примитивами, чтобы
+ * на каждое задание не создавались объекты.
+ */
+public interface ResultSink extends AutoCloseable {
+    /**
+     * Принимает результат задания.
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @param result значение интеграла
+     */
+    void accept(double leftBound, double rightBound, double step, double result);
+
+    /**
+     * Принимает частичный результат задания, вычисление которого прекращено
+     * по истечении срока выполнения или при отмене. По умолчанию частичные
+     * результаты отбрасываются.
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     * @param result значение интеграла на отрезке [leftBound, coveredBound]
+     * @param coveredBound граница, до которой успели проинтегрировать
+     */
+    default void acceptPartial(double leftBound, double rightBound, double step, double result,
+                               double coveredBound) {
+    }
+
+    /**
+     * Принимает сведения о задании, отброшенном без интегрирования, потому что
+     * срок его выполнения истёк в очереди. По умолчанию сведения не сохраняются.
+     * @param leftBound левая граница интегрирования
+     * @param rightBound правая граница интегрирования
+     * @param step шаг дискретизации
+     */
+    default void acceptShed(double leftBound, double rightBound, double step) {
+    }
+
+    /**
+     * Дожидается, пока все принятые результаты будут записаны.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Записывает оставшиеся результаты и освобождает ресурсы получателя.
+     */
+    @Override
+    default void close() {
+        flush();
+    }
+}
@@ -0,0 +1,114 @@
+package threads;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Завершающая стадия конвейера: выводит результаты заданий.
+ *
+ * Подписчик запрашивает результаты порциями и запрашивает следующую порцию,
+ * когда обработана половина предыдущей, поэтому верхние стадии не простаивают,
+ * но и не могут выслать больше, чем помещается в порцию.
+ */
+public class ResultSubscriber implements Flow.Subscriber<TaskResult> {
+    private final int batchSize;
+    private final CountDownLatch completion = new CountDownLatch(1);
+    private final LongAdder receivedResults = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private Flow.Subscription subscription;
+    private int outstanding;
+    private volatile Throwable error;
+
+    /**
+     * Создаёт подписчика, запрашивающего результаты порциями по 16.
+     */
+    public ResultSubscriber() {
+        this(16);
+    }
+
+    /**
+     * Создаёт подписчика с заданным размером порции.
+     * @param batchSize количество результатов, запрашиваемых за один раз
+     * @throws IllegalArgumentException если размер порции не положителен
+     */
+    public ResultSubscriber(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        outstanding = batchSize;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(TaskResult result) {
+        long startTime = System.nanoTime();
+        if (result.isSuccessful()) {
+            System.out.printf("Result %.6f %.6f %.6f %.15f%n",
+                result.task.leftBound, result.task.rightBound, result.task.step, result.value);
+        } else {
+            System.err.printf("Ошибка при интегрировании задания: %s%n", result.error);
+        }
+        busyNanos.add(System.nanoTime() - startTime);
+        receivedResults.increment();
+
+        if (--outstanding <= batchSize / 2) {
+            int next = batchSize - outstanding;
+            outstanding += next;
+            subscription.request(next);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+        completion.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        completion.countDown();
+    }
+
+    /**
+     * Ожидает завершения потока результатов.
+     * @param timeout максимальное время ожидания
+     * @param unit единица измерения времени
+     * @return true, если поток результатов завершился за отведённое время
+     * @throws InterruptedException если ожидающий поток был прерван
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return completion.await(timeout, unit);
+    }
+
+    /**
+     * Возвращает ошибку, завершившую поток результатов.
+     * @return ошибка или null, если поток завершился нормально или ещё не завершён
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Возвращает количество полученных результатов.
+     * @return количество результатов
+     */
+    public long getReceivedResults() {
+        return receivedResults.sum();
+    }
+
+    /**
+     * Возвращает статистику стадии.
+     * @return статистика стадии
+     */
+    public TransformStage.StageStatistics getStatistics() {
+        return new TransformStage.StageStatistics("Sink", receivedResults.sum(), busyNanos.sum(), 0);
+    }
+}
@@ -0,0 +1,49 @@
+package threads;
+
+/**
+ * Генератор, публикующий в очередь задания из общего {@link SeededTaskSource}.
+ * Несколько таких генераторов захватывают блоки источника по очереди, поэтому
+ * вместе они публикуют ровно набор заданий источника, независимо от своего количества.
+ */
+public class SeededQueueGenerator extends Thread {
+    private final SeededTaskSource source;
+    private final TaskBuffer<Task.TaskData> queue;
+    private volatile int generatedTasks;
+
+    /**
+     * Конструктор класса SeededQueueGenerator.
+     * @param source источник заданий, общий для всех генераторов
+     * @param queue очередь, в которую будут публиковаться задания
+     */
+    public SeededQueueGenerator(SeededTaskSource source, TaskBuffer<Task.TaskData> queue) {
+        this.source = source;
+        this.queue = queue;
+    }
+
+    @Override
+    public void run() {
+        int block;
+        while ((block = source.claimBlock()) >= 0) {
+            for (Task.TaskData data : source.generateBlock(block)) {
+                try {
+                    queue.put(data);
+                } catch (InterruptedException e) {
+                    System.out.printf("[SeededQueueGenerator] Поток прерван. Сгенерировано заданий: %d%n", generatedTasks);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                generatedTasks++;
+                System.out.printf("Source %.6f %.6f %.6f%n", data.leftBound, data.rightBound, data.step);
+            }
+        }
+        System.out.println("[SeededQueueGenerator] Выполнение заданий завершено. Сгенерировано заданий: " + generatedTasks);
+    }
+
+    /**
+     * Возвращает количество опубликованных заданий.
+     * @return количество сгенерированных заданий
+     */
+    public int getGeneratedTasks() {
+        return generatedTasks;
+    }
+}
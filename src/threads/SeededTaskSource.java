@@ -0,0 +1,155 @@
+package threads;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Воспроизводимый источник случайных заданий для параллельной генерации.
+ *
+ * Задания разбиты на блоки фиксированного размера. При создании источника
+ * корневой {@link SplittableRandom} с заданным начальным значением последовательно
+ * расщепляется на независимые генераторы, по одному на блок; от каждого сохраняется
+ * начальное значение генератора блока. Поэтому содержимое блока определяется только
+ * начальным значением источника и номером блока. Потоки захватывают
+ * блоки через {@link #claimBlock()} и генерируют их без общего состояния и
+ * синхронизации; при одном и том же начальном значении набор заданий с их номерами
+ * одинаков при любом количестве потоков-генераторов.
+ */
+public class SeededTaskSource {
+    private static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private final long seed;
+    private final int tasksCount;
+    private final int blockSize;
+    private final long[] blockSeeds;
+    private final AtomicInteger nextBlock = new AtomicInteger();
+
+    /**
+     * Создаёт источник с блоками по {@value #DEFAULT_BLOCK_SIZE} заданий.
+     * @param seed начальное значение генератора
+     * @param tasksCount общее количество заданий
+     */
+    public SeededTaskSource(long seed, int tasksCount) {
+        this(seed, tasksCount, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Создаёт источник с заданным размером блока.
+     * @param seed начальное значение генератора
+     * @param tasksCount общее количество заданий
+     * @param blockSize количество заданий в блоке
+     * @throws IllegalArgumentException если количество заданий отрицательно
+     * или размер блока не положителен
+     */
+    public SeededTaskSource(long seed, int tasksCount, int blockSize) {
+        if (tasksCount < 0) {
+            throw new IllegalArgumentException("Tasks count must not be negative");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.seed = seed;
+        this.tasksCount = tasksCount;
+        this.blockSize = blockSize;
+        int blocksCount = (int) (((long) tasksCount + blockSize - 1) / blockSize);
+        this.blockSeeds = new long[blocksCount];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int i = 0; i < blocksCount; i++) {
+            blockSeeds[i] = root.split().nextLong();
+        }
+    }
+
+    /**
+     * Захватывает следующий блок для генерации. Каждый блок выдаётся ровно один раз.
+     * @return номер блока или -1, если все блоки уже выданы
+     */
+    public int claimBlock() {
+        int block = nextBlock.getAndIncrement();
+        return block < blockSeeds.length ? block : -1;
+    }
+
+    /**
+     * Генерирует задания блока. Результат зависит только от начального значения
+     * и номера блока; метод можно вызывать из нескольких потоков одновременно.
+     * @param block номер блока
+     * @return задания блока в порядке их номеров
+     * @throws IndexOutOfBoundsException если номер блока вне диапазона
+     */
+    public Task.TaskData[] generateBlock(int block) {
+        if (block < 0 || block >= blockSeeds.length) {
+            throw new IndexOutOfBoundsException("Block " + block + " out of range [0, " + blockSeeds.length + ")");
+        }
+        SplittableRandom random = new SplittableRandom(blockSeeds[block]);
+        int first = block * blockSize;
+        int size = Math.min(blockSize, tasksCount - first);
+        Task.TaskData[] tasks = new Task.TaskData[size];
+        for (int i = 0; i < size; i++) {
+            tasks[i] = Task.TaskData.random(random);
+        }
+        return tasks;
+    }
+
+    /**
+     * Генерирует все задания несколькими потоками.
+     * @param threadsCount количество потоков-генераторов
+     * @return все задания в порядке их номеров
+     * @throws IllegalArgumentException если количество потоков не положительно
+     * @throws InterruptedException если поток был прерван во время ожидания генераторов
+     */
+    public Task.TaskData[] generateAll(int threadsCount) throws InterruptedException {
+        if (threadsCount <= 0) {
+            throw new IllegalArgumentException("Threads count must be positive");
+        }
+        Task.TaskData[] tasks = new Task.TaskData[tasksCount];
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            int block;
+            while ((block = next.getAndIncrement()) < blockSeeds.length) {
+                Task.TaskData[] generated = generateBlock(block);
+                System.arraycopy(generated, 0, tasks, block * blockSize, generated.length);
+            }
+        };
+        Thread[] threads = new Thread[threadsCount - 1];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(worker, "SeededTaskSource-" + (i + 1));
+            threads[i].start();
+        }
+        worker.run(); // Вызывающий поток тоже генерирует блоки
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return tasks;
+    }
+
+    /**
+     * Возвращает начальное значение генератора.
+     * @return начальное значение
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Возвращает общее количество заданий.
+     * @return количество заданий
+     */
+    public int getTasksCount() {
+        return tasksCount;
+    }
+
+    /**
+     * Возвращает размер блока.
+     * @return количество заданий в блоке
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Возвращает количество блоков.
+     * @return количество блоков
+     */
+    public int getBlocksCount() {
+        return blockSeeds.length;
+    }
+}
@@ -0,0 +1,343 @@
+package threads;
+
+import functions.FunctionCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Кольцевой буфер заданий в отображённом в память файле для обмена заданиями
+ * между процессами на одной машине: один производитель, несколько потребителей.
+ *
+ * Файл состоит из заголовка и кольца записей фиксированного размера
+ * ({@value #RECORD_SIZE} байт): порядковый номер ячейки, границы, шаг и функция
+ * в представлении {@link FunctionCodec} (не длиннее {@value #MAX_FUNCTION_BYTES} байт).
+ * Синхронизация устроена так же, как в {@link TaskQueue}: производитель записывает
+ * поля задания обычными операциями и публикует ячейку записью её номера с семантикой
+ * release, потребитель читает номер с семантикой acquire и захватывает позицию
+ * чтения операцией compareAndSet над общим счётчиком в заголовке. Все операции
+ * выполняются над общей памятью через {@link VarHandle}, без системных вызовов,
+ * поэтому каждый процесс (или поток), открывший файл через {@link #open(Path)},
+ * видит задания, опубликованные другими.
+ *
+ * Производитель должен быть один: позиция записи не захватывается атомарно.
+ * Ожидание при пустом или заполненном кольце - короткое активное ожидание, затем
+ * парковка с растущей паузой (не больше {@value #MAX_PARK_MICROS} мкс), так как
+ * потоки разных процессов не могут будить друг друга.
+ *
+ * Срок выполнения задания привязан к часам одного процесса и через кольцо не передаётся.
+ * Повреждённая запись, которую не удаётся декодировать, пропускается и учитывается
+ * в {@link #getDroppedRecords()}, а не прерывает работу потребителя.
+ * Отображение освобождается сборщиком мусора; файл можно удалить после завершения всех участников.
+ */
+public class SharedTaskRing implements TaskBuffer<Task.TaskData> {
+    private static final int MAGIC = 0x54524E47; // "TRNG"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 256;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int RECORD_SIZE_OFFSET = 12;
+    // Изменяемые поля заголовка разнесены по разным строкам кэша
+    private static final int CLOSED_OFFSET = 64;
+    private static final int TAIL_OFFSET = 128;
+    private static final int HEAD_OFFSET = 192;
+
+    private static final int RECORD_SIZE = 128;
+    private static final int SEQUENCE = 0;
+    private static final int LEFT_BOUND = 8;
+    private static final int RIGHT_BOUND = 16;
+    private static final int STEP = 24;
+    private static final int FUNCTION_LENGTH = 32;
+    private static final int FUNCTION = 36;
+    private static final int MAX_FUNCTION_BYTES = RECORD_SIZE - FUNCTION;
+    // Наибольшая степень двойки, при которой файл помещается в одно отображение (не больше Integer.MAX_VALUE байт)
+    private static final int MAX_CAPACITY = Integer.highestOneBit((Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE);
+
+    private static final int SPIN_LIMIT = 64;
+    private static final long MAX_PARK_MICROS = 1000;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long mask;
+    private final EncodingBuffer encoded = new EncodingBuffer();
+    private final DataOutputStream encoder = new DataOutputStream(encoded);
+    private final AtomicLong droppedRecords = new AtomicLong();
+
+    private SharedTaskRing(MappedByteBuffer buffer, int capacity) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Создаёт файл кольца (перезаписывая существующий) и отображает его в память.
+     * @param path путь к файлу
+     * @param capacity вместимость кольца (округляется вверх до степени двойки)
+     * @return кольцо заданий
+     * @throws IllegalArgumentException если вместимость не положительна или слишком велика
+     * @throws IOException если не удалось создать или отобразить файл
+     */
+    public static SharedTaskRing create(Path path, int capacity) throws IOException {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be in range [1, " + MAX_CAPACITY + "]");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) size * RECORD_SIZE);
+        }
+        buffer.order(ByteOrder.nativeOrder());
+        buffer.putInt(CAPACITY_OFFSET, size);
+        buffer.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(HEADER_SIZE + i * RECORD_SIZE + SEQUENCE, i);
+        }
+        // Сигнатура записывается последней: открывший файл видит уже размеченное кольцо
+        INT.setRelease(buffer, MAGIC_OFFSET, MAGIC);
+        return new SharedTaskRing(buffer, size);
+    }
+
+    /**
+     * Открывает существующий файл кольца, созданный {@link #create(Path, int)}.
+     * @param path путь к файлу
+     * @return кольцо заданий
+     * @throws IOException если не удалось открыть файл или он не является кольцом заданий
+     */
+    public static SharedTaskRing open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Файл не является кольцом заданий: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.nativeOrder());
+            if ((int) INT.getAcquire(header, MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Файл не является кольцом заданий: " + path);
+            }
+            int version = header.getInt(VERSION_OFFSET);
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия кольца заданий: " + version);
+            }
+            int capacity = header.getInt(CAPACITY_OFFSET);
+            if (header.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE || Integer.bitCount(capacity) != 1
+                    || capacity > MAX_CAPACITY
+                    || channel.size() < HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+                throw new IOException("Повреждён заголовок кольца заданий: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            buffer.order(ByteOrder.nativeOrder());
+            return new SharedTaskRing(buffer, capacity);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Вызывается только единственным производителем.
+     * @throws IllegalArgumentException если задание равно null или его функция
+     * не может быть закодирована в {@value #MAX_FUNCTION_BYTES} байт
+     */
+    @Override
+    public boolean offer(Task.TaskData item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item must not be null");
+        }
+        if (isClosed()) {
+            throw new IllegalStateException("Кольцо заданий закрыто");
+        }
+        int length = encode(item);
+        long position = (long) LONG.getOpaque(buffer, TAIL_OFFSET);
+        int base = slotOffset(position);
+        if ((long) LONG.getAcquire(buffer, base + SEQUENCE) != position) {
+            return false; // Ячейка ещё не освобождена потребителем - кольцо заполнено
+        }
+        buffer.putDouble(base + LEFT_BOUND, item.leftBound);
+        buffer.putDouble(base + RIGHT_BOUND, item.rightBound);
+        buffer.putDouble(base + STEP, item.step);
+        buffer.putInt(base + FUNCTION_LENGTH, length);
+        buffer.put(base + FUNCTION, encoded.bytes(), 0, length);
+        LONG.setRelease(buffer, base + SEQUENCE, position + 1); // Публикуем задание для потребителей
+        LONG.setRelease(buffer, TAIL_OFFSET, position + 1);
+        return true;
+    }
+
+    @Override
+    public Task.TaskData poll() {
+        long position = (long) LONG.getVolatile(buffer, HEAD_OFFSET);
+        while (true) {
+            int base = slotOffset(position);
+            long difference = (long) LONG.getAcquire(buffer, base + SEQUENCE) - (position + 1);
+            if (difference == 0) {
+                // Ячейка заполнена - пытаемся захватить позицию чтения
+                if (LONG.compareAndSet(buffer, HEAD_OFFSET, position, position + 1)) {
+                    // Запись декодируется, пока ячейка принадлежит потребителю, и только затем освобождается
+                    Task.TaskData task = decode(base);
+                    LONG.setRelease(buffer, base + SEQUENCE, position + capacity);
+                    if (task != null) {
+                        return task;
+                    }
+                    droppedRecords.incrementAndGet();
+                    System.err.printf("[SharedTaskRing] Повреждённая запись %d пропущена%n", position);
+                }
+                position = (long) LONG.getVolatile(buffer, HEAD_OFFSET);
+            } else if (difference < 0) {
+                return null; // Задание в ячейку ещё не опубликовано - кольцо пусто
+            } else {
+                position = (long) LONG.getVolatile(buffer, HEAD_OFFSET); // Другой потребитель опередил нас
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Вызывается только единственным производителем.
+     */
+    @Override
+    public void put(Task.TaskData item) throws InterruptedException {
+        int attempt = 0;
+        while (!offer(item)) {
+            attempt = idle(attempt);
+        }
+    }
+
+    @Override
+    public Task.TaskData take() throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            Task.TaskData item = poll();
+            if (item != null) {
+                return item;
+            }
+            if (isClosed()) {
+                // Признак закрытия публикуется после последнего задания - проверяем ещё раз
+                return poll();
+            }
+            attempt = idle(attempt);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Вызывается производителем после публикации последнего задания.
+     */
+    @Override
+    public void close() {
+        INT.setRelease(buffer, CLOSED_OFFSET, 1);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return (int) INT.getAcquire(buffer, CLOSED_OFFSET) != 0;
+    }
+
+    @Override
+    public int size() {
+        long size = (long) LONG.getAcquire(buffer, TAIL_OFFSET) - (long) LONG.getAcquire(buffer, HEAD_OFFSET);
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Возвращает количество повреждённых записей, пропущенных этим представлением кольца.
+     * @return количество пропущенных записей
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    private int slotOffset(long position) {
+        return HEADER_SIZE + (int) (position & mask) * RECORD_SIZE;
+    }
+
+    private int encode(Task.TaskData item) {
+        encoded.reset();
+        try {
+            FunctionCodec.writeFunction(item.function, encoder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Запись в память не выбрасывает IOException
+        }
+        if (encoded.size() > MAX_FUNCTION_BYTES) {
+            throw new IllegalArgumentException("Представление функции занимает " + encoded.size()
+                    + " байт, в записи кольца помещается " + MAX_FUNCTION_BYTES);
+        }
+        return encoded.size();
+    }
+
+    /**
+     * Декодирует запись ячейки.
+     * @param base смещение записи
+     * @return задание или null, если запись повреждена
+     */
+    private Task.TaskData decode(int base) {
+        int length = buffer.getInt(base + FUNCTION_LENGTH);
+        if (length < 0 || length > MAX_FUNCTION_BYTES) {
+            return null;
+        }
+        double leftBound = buffer.getDouble(base + LEFT_BOUND);
+        double rightBound = buffer.getDouble(base + RIGHT_BOUND);
+        double step = buffer.getDouble(base + STEP);
+        byte[] function = new byte[length];
+        buffer.get(base + FUNCTION, function);
+        try {
+            return new Task.TaskData(FunctionCodec.readFunction(new DataInputStream(new ByteArrayInputStream(function))),
+                    leftBound, rightBound, step);
+        } catch (IOException | RuntimeException e) {
+            return null; // Неизвестный тип функции, обрыв данных или недопустимые параметры
+        }
+    }
+
+    /**
+     * Буфер кодирования функции, содержимое которого копируется в запись без промежуточного массива.
+     */
+    private static final class EncodingBuffer extends ByteArrayOutputStream {
+        EncodingBuffer() {
+            super(MAX_FUNCTION_BYTES);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+
+    /**
+     * Ожидание при пустом или заполненном кольце: сначала активное, затем с растущей паузой.
+     */
+    private static int idle(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Поток прерван во время ожидания кольца заданий");
+        }
+        if (attempt < SPIN_LIMIT) {
+            Thread.onSpinWait();
+        } else {
+            long pauseMicros = Math.min(1L << Math.min(attempt - SPIN_LIMIT, 10), MAX_PARK_MICROS);
+            LockSupport.parkNanos(pauseMicros * 1000);
+        }
+        return attempt + 1;
+    }
+}
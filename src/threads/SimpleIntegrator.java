@@ -7,14 +7,29 @@ import functions.Functions;
  * Реализует интерфейс Runnable.
  */
 public class SimpleIntegrator implements Runnable {
+    /** Формат строки Result при выводе в консоль: та же точность, что у строк Source генератора. */
+    public static final String RESULT_FORMAT = "Result %.2f %.2f %.5f %.10f%n";
+
     private final Task task;
+    private final ResultSink resultSink;
 
     /**
      * Конструктор класса SimpleIntegrator.
      * @param task объект задания
      */
     public SimpleIntegrator(Task task) {
+        this(task, null);
+    }
+
+    /**
+     * Конструктор класса SimpleIntegrator с получателем результатов.
+     * @param task объект задания
+     * @param resultSink получатель результатов или null для вывода в консоль ({@link ConsoleResultSink})
+     * в формате {@link #RESULT_FORMAT}, согласованном со строками Source {@link SimpleGenerator}
+     */
+    public SimpleIntegrator(Task task, ResultSink resultSink) {
         this.task = task;
+        this.resultSink = resultSink != null ? resultSink : new ConsoleResultSink(System.out, RESULT_FORMAT);
     }
 
     @Override
@@ -36,9 +51,8 @@ public class SimpleIntegrator implements Runnable {
                     double result = Functions.integrate(task.getFunction(), task.getLeftBound(),
                             task.getRightBound(), task.getStep());
 
-                    // Вывод сообщения Result
-                    System.out.printf("Result %.2f %.2f %.5f %.10f%n",
-                            task.getLeftBound(), task.getRightBound(), task.getStep(), result);
+                    // Передаём результат получателю
+                    resultSink.accept(task.getLeftBound(), task.getRightBound(), task.getStep(), result);
 
                     // Помечаем задание как обработанное и сбрасываем готовность
                     task.setProcessed(true);
@@ -0,0 +1,49 @@
+package threads;
+
+import java.util.Random;
+
+/**
+ * Генератор заданий для одноместного буфера {@link TaskSlot}.
+ * Аналог {@link SimpleGenerator}, не использующий synchronized и wait/notifyAll,
+ * поэтому подходит для запуска в виртуальных потоках. По завершении
+ * (в том числе при прерывании) закрывает буфер.
+ */
+public class SlotGenerator implements Runnable {
+    private final TaskSlot<Task.TaskData> slot;
+    private final int tasksCount;
+    private final Random random;
+
+    /**
+     * Конструктор класса SlotGenerator.
+     * @param slot буфер, в который помещаются задания
+     * @param tasksCount количество заданий
+     */
+    public SlotGenerator(TaskSlot<Task.TaskData> slot, int tasksCount) {
+        this(slot, tasksCount, new Random());
+    }
+
+    /**
+     * Конструктор класса SlotGenerator с заданным генератором случайных чисел.
+     * @param slot буфер, в который помещаются задания
+     * @param tasksCount количество заданий
+     * @param random генератор случайных чисел
+     */
+    public SlotGenerator(TaskSlot<Task.TaskData> slot, int tasksCount, Random random) {
+        this.slot = slot;
+        this.tasksCount = tasksCount;
+        this.random = random;
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < tasksCount; i++) {
+                slot.put(Task.TaskData.random(random));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            slot.close();
+        }
+    }
+}
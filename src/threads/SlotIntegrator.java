@@ -0,0 +1,66 @@
+package threads;
+
+import functions.Functions;
+
+/**
+ * Интегратор, забирающий задания из одноместного буфера {@link TaskSlot}.
+ * Аналог {@link SimpleIntegrator} для запуска в виртуальных потоках: не использует
+ * synchronized и не выводит сообщения для каждого задания, а накапливает
+ * количество обработанных заданий и сумму результатов.
+ */
+public class SlotIntegrator implements Runnable {
+    private final TaskSlot<Task.TaskData> slot;
+    private volatile int completedTasks;
+    private volatile int failedTasks;
+    private volatile double resultsSum;
+
+    /**
+     * Конструктор класса SlotIntegrator.
+     * @param slot буфер, из которого берутся задания
+     */
+    public SlotIntegrator(TaskSlot<Task.TaskData> slot) {
+        this.slot = slot;
+    }
+
+    @Override
+    public void run() {
+        try {
+            Task.TaskData taskData;
+            while ((taskData = slot.take()) != null) {
+                try {
+                    resultsSum += Functions.integrate(taskData.function,
+                            taskData.leftBound, taskData.rightBound, taskData.step);
+                } catch (IllegalArgumentException e) {
+                    failedTasks++;
+                }
+                completedTasks++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Возвращает количество обработанных заданий.
+     * @return количество обработанных заданий
+     */
+    public int getCompletedTasks() {
+        return completedTasks;
+    }
+
+    /**
+     * Возвращает количество заданий, при обработке которых возникла ошибка.
+     * @return количество заданий с ошибкой
+     */
+    public int getFailedTasks() {
+        return failedTasks;
+    }
+
+    /**
+     * Возвращает сумму результатов интегрирования.
+     * @return сумма значений интегралов
+     */
+    public double getResultsSum() {
+        return resultsSum;
+    }
+}
@@ -0,0 +1,247 @@
+package threads;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Семафор чтения-записи на основе {@link StampedLock} с тем же набором операций,
+ * что и {@link ReadWriteSemaphore}, оптимистичным чтением без блокировки
+ * и выбираемой политикой справедливости.
+ *
+ * Политики справедливости:
+ * <ul>
+ * <li>{@link FairnessPolicy#WRITER_PREFERRING} - пока хотя бы один писатель ожидает
+ * семафор или выполняет запись, новые читатели ждут (как в {@link ReadWriteSemaphore},
+ * где читатели блокируются при ненулевом количестве ожидающих писателей);</li>
+ * <li>{@link FairnessPolicy#READER_PREFERRING} - первый читатель захватывает семафор
+ * для всей группы читателей, а последний освобождает его («выключатель»);
+ * писатели ждут, пока внутри есть хотя бы один читатель;</li>
+ * <li>{@link FairnessPolicy#FIFO} - справедливый турникет пропускает читателей
+ * и писателей в порядке поступления.</li>
+ * </ul>
+ *
+ * Оптимистичное чтение ({@link #tryOptimisticRead()}, {@link #validate(long)},
+ * {@link #read(Supplier)}) не блокирует писателей: данные читаются без захвата семафора,
+ * а затем проверяется, не было ли записи за это время. При политике
+ * {@link FairnessPolicy#READER_PREFERRING} группа читателей удерживает семафор
+ * в режиме записи, поэтому во время их работы оптимистичное чтение не удаётся
+ * и выполняется обычное чтение.
+ */
+public class StampedReadWriteSemaphore {
+
+    /**
+     * Политика справедливости при конкуренции читателей и писателей.
+     */
+    public enum FairnessPolicy {
+        WRITER_PREFERRING,
+        READER_PREFERRING,
+        FIFO
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final FairnessPolicy policy;
+    private final ReentrantLock turnstile;   // Справедливый турникет для FIFO
+    private final ReentrantLock writersGate; // Защищает счётчик писателей для WRITER_PREFERRING
+    private final Condition noPendingWriters;
+    private int pendingWriters;              // Ожидающие и пишущие писатели (WRITER_PREFERRING)
+    private final ReentrantLock readersMutex; // Защищает счётчик читателей для READER_PREFERRING
+    private int readersInside;               // Количество читателей внутри (READER_PREFERRING)
+
+    /**
+     * Создаёт семафор с приоритетом писателей, как у {@link ReadWriteSemaphore}.
+     */
+    public StampedReadWriteSemaphore() {
+        this(FairnessPolicy.WRITER_PREFERRING);
+    }
+
+    /**
+     * Создаёт семафор с заданной политикой справедливости.
+     * @param policy политика справедливости
+     */
+    public StampedReadWriteSemaphore(FairnessPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy must not be null");
+        }
+        this.policy = policy;
+        this.turnstile = policy == FairnessPolicy.FIFO ? new ReentrantLock(true) : null;
+        this.writersGate = policy == FairnessPolicy.WRITER_PREFERRING ? new ReentrantLock() : null;
+        this.noPendingWriters = writersGate != null ? writersGate.newCondition() : null;
+        this.readersMutex = policy == FairnessPolicy.READER_PREFERRING ? new ReentrantLock() : null;
+    }
+
+    /**
+     * Возвращает политику справедливости семафора.
+     * @return политика справедливости
+     */
+    public FairnessPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Захватывает семафор для операции записи.
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public void startWrite() throws InterruptedException {
+        if (writersGate != null) {
+            // Писатель объявляет о себе до ожидания семафора - новые читатели его пропустят
+            writersGate.lock();
+            try {
+                pendingWriters++;
+            } finally {
+                writersGate.unlock();
+            }
+            boolean acquired = false;
+            try {
+                lock.writeLockInterruptibly();
+                acquired = true;
+            } finally {
+                if (!acquired) {
+                    writerLeft();
+                }
+            }
+            return;
+        }
+        if (turnstile == null) {
+            lock.writeLockInterruptibly();
+            return;
+        }
+        // Писатель удерживает турникет, пока ждёт семафор, - новые потоки его не обгонят
+        turnstile.lockInterruptibly();
+        try {
+            lock.writeLockInterruptibly();
+        } finally {
+            turnstile.unlock();
+        }
+    }
+
+    /**
+     * Освобождает семафор после операции записи.
+     * @throws IllegalMonitorStateException если семафор не был захвачен для записи
+     */
+    public void endWrite() {
+        if (!lock.tryUnlockWrite()) {
+            throw new IllegalMonitorStateException("Семафор не захвачен для записи");
+        }
+        if (writersGate != null) {
+            writerLeft();
+        }
+    }
+
+    private void writerLeft() {
+        writersGate.lock();
+        try {
+            if (--pendingWriters == 0) {
+                noPendingWriters.signalAll();
+            }
+        } finally {
+            writersGate.unlock();
+        }
+    }
+
+    /**
+     * Захватывает семафор для операции чтения.
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public void startRead() throws InterruptedException {
+        if (policy == FairnessPolicy.READER_PREFERRING) {
+            readersMutex.lockInterruptibly();
+            try {
+                if (readersInside == 0) {
+                    // Первый читатель захватывает семафор для всей группы
+                    lock.writeLockInterruptibly();
+                }
+                readersInside++;
+            } finally {
+                readersMutex.unlock();
+            }
+            return;
+        }
+        if (writersGate != null) {
+            writersGate.lockInterruptibly();
+            try {
+                while (pendingWriters > 0) {
+                    noPendingWriters.await();
+                }
+            } finally {
+                writersGate.unlock();
+            }
+            lock.readLockInterruptibly();
+            return;
+        }
+        turnstile.lockInterruptibly();
+        try {
+            lock.readLockInterruptibly();
+        } finally {
+            turnstile.unlock();
+        }
+    }
+
+    /**
+     * Освобождает семафор после операции чтения.
+     * @throws IllegalMonitorStateException если семафор не был захвачен для чтения
+     */
+    public void endRead() {
+        if (policy == FairnessPolicy.READER_PREFERRING) {
+            readersMutex.lock();
+            try {
+                if (readersInside == 0) {
+                    throw new IllegalMonitorStateException("Семафор не захвачен для чтения");
+                }
+                readersInside--;
+                if (readersInside == 0) {
+                    lock.tryUnlockWrite(); // Последний читатель освобождает семафор
+                }
+            } finally {
+                readersMutex.unlock();
+            }
+            return;
+        }
+        if (!lock.tryUnlockRead()) {
+            throw new IllegalMonitorStateException("Семафор не захвачен для чтения");
+        }
+    }
+
+    /**
+     * Начинает оптимистичное чтение без захвата семафора.
+     * @return отметка для последующей проверки или 0, если семафор захвачен для записи
+     */
+    public long tryOptimisticRead() {
+        return lock.tryOptimisticRead();
+    }
+
+    /**
+     * Проверяет, что с момента получения отметки не выполнялась запись.
+     * @param stamp отметка, полученная из {@link #tryOptimisticRead()}
+     * @return true, если прочитанные данные согласованы
+     */
+    public boolean validate(long stamp) {
+        return stamp != 0 && lock.validate(stamp);
+    }
+
+    /**
+     * Выполняет чтение сначала оптимистично, а при обнаружении конкурирующей записи -
+     * повторно под захваченным семафором.
+     * @param reader операция чтения; не должна иметь побочных эффектов, так как может
+     * выполниться дважды и в первый раз увидеть несогласованные данные
+     * @param <T> тип результата чтения
+     * @return результат чтения согласованных данных
+     * @throws InterruptedException если поток был прерван во время ожидания семафора
+     */
+    public <T> T read(Supplier<T> reader) throws InterruptedException {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0) {
+            T value = reader.get();
+            if (validate(stamp)) {
+                return value;
+            }
+        }
+        startRead();
+        try {
+            return reader.get();
+        } finally {
+            endRead();
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package threads;
 
+import functions.CancellationToken;
 import functions.Function;
+import functions.basic.Log;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
 
 /**
  * Класс для хранения параметров задания на интегрирование.
@@ -14,6 +20,8 @@ public class Task {
     private boolean isReady; // Флаг готовности задания
     private volatile boolean generatorFinished; // Флаг завершения генератора
     private volatile boolean processed; // Флаг обработки задания
+    private final WaitQueue taskWaiters = new WaitQueue(); // Ожидающие появления задания
+    private final WaitQueue processedWaiters = new WaitQueue(); // Ожидающие обработки задания
 
     /**
      * Конструктор по умолчанию.
@@ -120,6 +128,7 @@ public class Task {
     public synchronized void setReady(boolean ready) {
         this.isReady = ready;
         notifyAll();
+        taskWaiters.signalAll();
     }
 
     /**
@@ -135,6 +144,7 @@ public class Task {
         this.rightBound = rightBound;
         this.step = step;
         this.isReady = true;
+        taskWaiters.signalAll();
     }
 
     /**
@@ -158,6 +168,8 @@ public class Task {
     public synchronized void setGeneratorFinished() {
         this.generatorFinished = true;
         notifyAll(); // Уведомляем ожидающие потоки
+        taskWaiters.signalAll();
+        processedWaiters.signalAll();
     }
 
     /**
@@ -167,6 +179,7 @@ public class Task {
     public synchronized void setProcessed(boolean processed) {
         this.processed = processed;
         notifyAll(); // Уведомляем ожидающие потоки
+        processedWaiters.signalAll();
     }
 
     /**
@@ -185,20 +198,132 @@ public class Task {
         return generatorFinished;
     }
 
+    /**
+     * Ожидает, пока задание будет готово к обработке или генератор завершит работу.
+     * Поток паркуется и будится ровно при публикации задания, без периодических проверок.
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public void awaitTaskAvailable() throws InterruptedException {
+        taskWaiters.await(() -> isReady() || isGeneratorFinished());
+    }
+
+    /**
+     * Ожидает, пока задание будет обработано интегратором.
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public void awaitProcessed() throws InterruptedException {
+        processedWaiters.await(this::isProcessed);
+    }
+
     /**
      * Внутренний класс для хранения данных задания.
+     * Объекты класса неизменяемы, поэтому их можно безопасно передавать между потоками.
      */
     public static class TaskData {
         public final Function function;
         public final double leftBound;
         public final double rightBound;
         public final double step;
+        /** Срок выполнения по часам {@link System#nanoTime()} или {@link #NO_DEADLINE}. */
+        public final long deadlineNanos;
+
+        /** Значение {@link #deadlineNanos} для задания без срока выполнения. */
+        public static final long NO_DEADLINE = CancellationToken.NO_DEADLINE;
 
         public TaskData(Function function, double leftBound, double rightBound, double step) {
+            this(function, leftBound, rightBound, step, NO_DEADLINE);
+        }
+
+        /**
+         * Создаёт задание со сроком выполнения.
+         * @param function функция
+         * @param leftBound левая граница интегрирования
+         * @param rightBound правая граница интегрирования
+         * @param step шаг дискретизации
+         * @param deadlineNanos срок выполнения по часам {@link System#nanoTime()}
+         * или {@link #NO_DEADLINE}
+         */
+        public TaskData(Function function, double leftBound, double rightBound, double step, long deadlineNanos) {
             this.function = function;
             this.leftBound = leftBound;
             this.rightBound = rightBound;
             this.step = step;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Проверяет, задан ли срок выполнения задания.
+         * @return true, если срок выполнения задан
+         */
+        public boolean hasDeadline() {
+            return deadlineNanos != NO_DEADLINE;
+        }
+
+        /**
+         * Возвращает копию задания с заданным сроком выполнения.
+         * @param deadlineNanos срок выполнения по часам {@link System#nanoTime()}
+         * @return данные задания
+         */
+        public TaskData withDeadline(long deadlineNanos) {
+            return new TaskData(function, leftBound, rightBound, step, deadlineNanos);
+        }
+
+        /**
+         * Оценивает стоимость задания количеством узлов сетки интегрирования.
+         * Время интегрирования пропорционально этой величине.
+         * @return оценка количества вычислений функции
+         */
+        public double getEstimatedCost() {
+            return (rightBound - leftBound) / step;
+        }
+
+        /**
+         * Создаёт случайное задание: логарифм со случайным основанием от 1 до 10,
+         * левая граница от 0 до 100, правая граница от 100 до 200, шаг от 0 до 1.
+         * @param random генератор случайных чисел
+         * @return данные задания
+         */
+        public static TaskData random(Random random) {
+            return random(random::nextDouble);
+        }
+
+        /**
+         * Создаёт случайное задание с теми же распределениями параметров,
+         * что и {@link #random(Random)}, по генератору {@link SplittableRandom}.
+         * @param random генератор случайных чисел
+         * @return данные задания
+         */
+        public static TaskData random(SplittableRandom random) {
+            return random(random::nextDouble);
+        }
+
+        private static TaskData random(DoubleSupplier random) {
+            // Основание должно быть > 1 и не равно 1
+            double base = 1.0 + 1e-10 + random.getAsDouble() * (10.0 - 1.0 - 1e-10);
+            Function logFunction = new Log(base);
+
+            // Левая граница: случайно от 0 до 100
+            double leftBound = random.getAsDouble() * 100.0;
+
+            // Правая граница: случайно от 100 до 200
+            double rightBound = 100.0 + random.getAsDouble() * 100.0;
+
+            // Убеждаемся, что правая граница больше левой
+            if (rightBound <= leftBound) {
+                rightBound = leftBound + 0.1;
+            }
+
+            // Шаг дискретизации: случайно от 0 до 1
+            double step = random.getAsDouble();
+            if (step == 0.0 || step < 1e-10) {
+                step = 1e-10;
+            }
+            // Убеждаемся, что шаг не больше длины интервала
+            double intervalLength = rightBound - leftBound;
+            if (step > intervalLength) {
+                step = intervalLength / 2.0;
+            }
+            return new TaskData(logFunction, leftBound, rightBound, step);
         }
     }
 }
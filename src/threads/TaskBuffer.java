@@ -0,0 +1,68 @@
+package threads;
+
+/**
+ * Ограниченный буфер заданий между генераторами и интеграторами.
+ *
+ * Определяет порядок работы, общий для {@link TaskQueue} (задания выдаются
+ * в порядке поступления) и {@link PriorityTaskScheduler} (задания выдаются
+ * в порядке приоритета): производители публикуют задания, пока буфер не закрыт,
+ * а потребители извлекают их до тех пор, пока {@link #take()} не вернёт null.
+ *
+ * @param <E> тип элементов буфера
+ */
+public interface TaskBuffer<E> {
+
+    /**
+     * Пытается добавить задание без ожидания.
+     * @param item задание
+     * @return true, если задание добавлено; false, если буфер заполнен
+     * @throws IllegalArgumentException если задание равно null
+     * @throws IllegalStateException если буфер закрыт
+     */
+    boolean offer(E item);
+
+    /**
+     * Пытается извлечь задание без ожидания.
+     * @return задание или null, если буфер пуст
+     */
+    E poll();
+
+    /**
+     * Добавляет задание, ожидая освобождения места.
+     * @param item задание
+     * @throws InterruptedException если поток был прерван во время ожидания
+     * @throws IllegalStateException если буфер закрыт
+     */
+    void put(E item) throws InterruptedException;
+
+    /**
+     * Извлекает задание, ожидая его появления.
+     * @return задание или null, если буфер закрыт и пуст
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    E take() throws InterruptedException;
+
+    /**
+     * Закрывает буфер: новые задания больше не принимаются, а потребители
+     * завершают работу после извлечения оставшихся заданий.
+     */
+    void close();
+
+    /**
+     * Проверяет, закрыт ли буфер.
+     * @return true, если буфер закрыт
+     */
+    boolean isClosed();
+
+    /**
+     * Возвращает приблизительное количество заданий в буфере.
+     * @return количество заданий
+     */
+    int size();
+
+    /**
+     * Возвращает вместимость буфера.
+     * @return вместимость буфера
+     */
+    int capacity();
+}
@@ -0,0 +1,92 @@
+package threads;
+
+import functions.Function;
+import functions.FunctionCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Чтение журнала заданий, записанного {@link TaskLogWriter}.
+ */
+public class TaskLogReader implements AutoCloseable {
+    private final DataInputStream in;
+
+    /**
+     * Открывает журнал и проверяет его заголовок.
+     * @param in поток, из которого читается журнал
+     * @throws IOException если возникает ошибка ввода-вывода или поток не является журналом заданий
+     */
+    public TaskLogReader(InputStream in) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException("InputStream must not be null");
+        }
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        if (this.in.readInt() != TaskLogWriter.MAGIC) {
+            throw new IOException("Поток не является журналом заданий");
+        }
+        int version = this.in.readInt();
+        if (version != TaskLogWriter.VERSION) {
+            throw new IOException("Неподдерживаемая версия журнала заданий: " + version);
+        }
+    }
+
+    /**
+     * Считывает следующую запись журнала.
+     * @return запись или null, если журнал закончился
+     * @throws IOException если возникает ошибка ввода-вывода или журнал повреждён
+     */
+    public Entry next() throws IOException {
+        long offsetNanos;
+        try {
+            offsetNanos = in.readLong();
+        } catch (EOFException e) {
+            return null; // Журнал закончился на границе записи
+        }
+        Function function = FunctionCodec.readFunction(in);
+        double leftBound = in.readDouble();
+        double rightBound = in.readDouble();
+        double step = in.readDouble();
+        return new Entry(new Task.TaskData(function, leftBound, rightBound, step), offsetNanos);
+    }
+
+    /**
+     * Считывает все записи журнала.
+     * @param in поток, из которого читается журнал
+     * @return записи в порядке записи
+     * @throws IOException если возникает ошибка ввода-вывода или журнал повреждён
+     */
+    public static List<Entry> readAll(InputStream in) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (TaskLogReader reader = new TaskLogReader(in)) {
+            Entry entry;
+            while ((entry = reader.next()) != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Запись журнала: задание и время его записи от начала журнала.
+     */
+    public static class Entry {
+        public final Task.TaskData task;
+        public final long offsetNanos;
+
+        public Entry(Task.TaskData task, long offsetNanos) {
+            this.task = task;
+            this.offsetNanos = offsetNanos;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package threads;
+
+import functions.FunctionCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Запись журнала заданий для последующего воспроизведения.
+ *
+ * Журнал начинается с заголовка (сигнатура и версия формата), за которым следуют
+ * записи заданий: время от начала записи журнала в наносекундах (long), функция
+ * в представлении {@link FunctionCodec}, левая и правая границы и шаг (double).
+ * Задание с логарифмом занимает 41 байт. Журнал читается {@link TaskLogReader}.
+ */
+public class TaskLogWriter implements AutoCloseable {
+    static final int MAGIC = 0x544C4F47; // "TLOG"
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private final long startNanos;
+    private long recordedTasks;
+
+    /**
+     * Создаёт журнал и записывает его заголовок.
+     * @param out поток, в который записывается журнал
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    public TaskLogWriter(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("OutputStream must not be null");
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(VERSION);
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Записывает задание в журнал. Может вызываться из нескольких генераторов одновременно.
+     * @param task данные задания
+     * @throws IllegalArgumentException если функция задания не может быть закодирована
+     * @throws UncheckedIOException если возникает ошибка ввода-вывода
+     */
+    public synchronized void record(Task.TaskData task) {
+        try {
+            out.writeLong(System.nanoTime() - startNanos);
+            FunctionCodec.writeFunction(task.function, out);
+            out.writeDouble(task.leftBound);
+            out.writeDouble(task.rightBound);
+            out.writeDouble(task.step);
+            recordedTasks++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи журнала заданий", e);
+        }
+    }
+
+    /**
+     * Возвращает количество записанных заданий.
+     * @return количество заданий
+     */
+    public synchronized long getRecordedTasks() {
+        return recordedTasks;
+    }
+
+    /**
+     * Записывает буферизованные данные и закрывает поток журнала.
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
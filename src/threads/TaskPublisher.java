@@ -0,0 +1,118 @@
+package threads;
+
+import java.util.Random;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Источник заданий на интегрирование в виде {@link Flow.Publisher}.
+ *
+ * Задания создаются только по запросу подписчика: каждое задание генерируется
+ * в ответ на {@link Flow.Subscription#request(long)}, поэтому генератор никогда
+ * не опережает потребителя и не накапливает задания в буфере. Каждый подписчик
+ * получает собственную последовательность из заданного количества заданий.
+ *
+ * Задания доставляются в потоке, вызвавшем request. Повторный вызов request
+ * из onNext не приводит к рекурсии: доставку продолжает уже работающий цикл.
+ */
+public class TaskPublisher implements Flow.Publisher<Task.TaskData> {
+    private final int tasksCount;
+    private final LongAdder generatedTasks = new LongAdder();
+
+    /**
+     * Конструктор класса TaskPublisher.
+     * @param tasksCount количество заданий для каждого подписчика
+     * @throws IllegalArgumentException если количество заданий отрицательно
+     */
+    public TaskPublisher(int tasksCount) {
+        if (tasksCount < 0) {
+            throw new IllegalArgumentException("Tasks count must not be negative");
+        }
+        this.tasksCount = tasksCount;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Task.TaskData> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        TaskSubscription subscription = new TaskSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * Возвращает количество сгенерированных заданий по всем подпискам.
+     * @return количество заданий
+     */
+    public long getGeneratedTasks() {
+        return generatedTasks.sum();
+    }
+
+    /**
+     * Подписка на последовательность заданий.
+     */
+    private final class TaskSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Task.TaskData> subscriber;
+        private final Random random = new Random();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        private int emitted;
+        private volatile boolean cancelled;
+        private boolean completed;
+
+        TaskSubscription(Flow.Subscriber<? super Task.TaskData> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("Запрошено неположительное количество заданий: " + n));
+                return;
+            }
+            // Суммируем запросы с насыщением, чтобы не переполнить счётчик
+            requested.accumulateAndGet(n, (current, added) -> {
+                long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Доставляет запрошенные задания. Цикл выполняет только один поток:
+         * остальные лишь увеличивают счётчик, и работающий цикл делает ещё один проход.
+         */
+        void drain() {
+            if (workInProgress.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!cancelled && !completed) {
+                    if (emitted == tasksCount) {
+                        completed = true;
+                        subscriber.onComplete();
+                        break;
+                    }
+                    if (requested.get() == 0) {
+                        break;
+                    }
+                    requested.decrementAndGet();
+                    emitted++;
+                    generatedTasks.increment();
+                    subscriber.onNext(Task.TaskData.random(random));
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package threads;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченная неблокирующая очередь заданий для нескольких производителей
+ * и нескольких потребителей (кольцевой буфер Д. Вьюкова).
+ *
+ * Каждая ячейка буфера хранит порядковый номер, по которому производитель и потребитель
+ * определяют, свободна ли ячейка. Позиции записи и чтения захватываются операцией
+ * compareAndSet, поэтому {@link #offer(Object)} и {@link #poll()} не используют блокировок.
+ * Блокирующие методы {@link #put(Object)} и {@link #take()} при заполненной или пустой
+ * очереди недолго крутятся в активном ожидании, а затем паркуются до сигнала
+ * о публикации или извлечении задания. Условием пробуждения служит порядковый номер
+ * ячейки в текущей позиции, а не {@link #size()}: размер учитывает ячейки, захваченные,
+ * но ещё не опубликованные, и по нему поток просыпался бы, не имея возможности
+ * извлечь или добавить задание.
+ *
+ * После вызова {@link #close()} новые задания не принимаются, а {@link #take()}
+ * возвращает null, как только очередь опустеет.
+ *
+ * @param <E> тип элементов очереди (неизменяемые записи заданий)
+ */
+public class TaskQueue<E> implements TaskBuffer<E> {
+    private static final int SPIN_LIMIT = 64;
+
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+    private volatile boolean closed;
+    private final WaitQueue notEmptyWaiters = new WaitQueue();
+    private final WaitQueue notFullWaiters = new WaitQueue();
+
+    /**
+     * Создаёт очередь заданной вместимости.
+     * @param capacity вместимость очереди (округляется вверх до степени двойки)
+     * @throws IllegalArgumentException если вместимость не положительна или слишком велика
+     */
+    public TaskQueue(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be in range [1, 2^30]");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.items = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Пытается добавить задание в очередь без ожидания.
+     * @param item задание
+     * @return true, если задание добавлено; false, если очередь заполнена
+     * @throws IllegalArgumentException если задание равно null
+     * @throws IllegalStateException если очередь закрыта
+     */
+    @Override
+    public boolean offer(E item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item must not be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("Очередь заданий закрыта");
+        }
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long difference = sequence - position;
+            if (difference == 0) {
+                // Ячейка свободна - пытаемся захватить позицию записи
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    items.set(index, item);
+                    sequences.set(index, position + 1); // Публикуем задание для потребителей
+                    notEmptyWaiters.signalAll();
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false; // Ячейка ещё не освобождена потребителем - очередь заполнена
+            } else {
+                position = enqueuePosition.get(); // Другой производитель опередил нас
+            }
+        }
+    }
+
+    /**
+     * Пытается извлечь задание из очереди без ожидания.
+     * @return задание или null, если очередь пуста
+     */
+    @Override
+    public E poll() {
+        long position = dequeuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long difference = sequence - (position + 1);
+            if (difference == 0) {
+                // Ячейка заполнена - пытаемся захватить позицию чтения
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    E item = items.get(index);
+                    items.set(index, null);
+                    sequences.set(index, position + mask + 1); // Освобождаем ячейку для следующего круга
+                    notFullWaiters.signalAll();
+                    return item;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                return null; // Задание в ячейку ещё не опубликовано - очередь пуста
+            } else {
+                position = dequeuePosition.get(); // Другой потребитель опередил нас
+            }
+        }
+    }
+
+    /**
+     * Добавляет задание в очередь, ожидая освобождения места.
+     * @param item задание
+     * @throws InterruptedException если поток был прерван во время ожидания
+     * @throws IllegalStateException если очередь закрыта
+     */
+    @Override
+    public void put(E item) throws InterruptedException {
+        int attempt = 0;
+        while (!offer(item)) {
+            if (attempt++ < SPIN_LIMIT) {
+                checkInterrupted();
+                Thread.onSpinWait();
+            } else {
+                notFullWaiters.await(() -> isTailFree() || closed);
+            }
+        }
+    }
+
+    /**
+     * Извлекает задание из очереди, ожидая его появления.
+     * @return задание или null, если очередь закрыта и пуста
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    @Override
+    public E take() throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            E item = poll();
+            if (item != null) {
+                return item;
+            }
+            if (closed) {
+                // Все задания, добавленные до закрытия, уже видны - проверяем ещё раз
+                return poll();
+            }
+            if (attempt++ < SPIN_LIMIT) {
+                checkInterrupted();
+                Thread.onSpinWait();
+            } else {
+                notEmptyWaiters.await(() -> isHeadPublished() || closed);
+            }
+        }
+    }
+
+    /**
+     * Закрывает очередь: новые задания больше не принимаются, а потребители
+     * завершают работу после извлечения оставшихся заданий.
+     * Вызывается после завершения всех производителей.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        notEmptyWaiters.signalAll();
+        notFullWaiters.signalAll();
+    }
+
+    /**
+     * Проверяет, закрыта ли очередь.
+     * @return true, если очередь закрыта
+     */
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Возвращает приблизительное количество заданий в очереди.
+     * @return количество заданий
+     */
+    @Override
+    public int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * Возвращает вместимость очереди.
+     * @return вместимость очереди
+     */
+    @Override
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Проверяет, опубликовано ли задание в ячейке текущей позиции чтения,
+     * то есть может ли {@link #poll()} его извлечь.
+     */
+    private boolean isHeadPublished() {
+        long position = dequeuePosition.get();
+        return sequences.get((int) (position & mask)) == position + 1;
+    }
+
+    /**
+     * Проверяет, освобождена ли потребителем ячейка текущей позиции записи,
+     * то есть может ли {@link #offer(Object)} её занять.
+     */
+    private boolean isTailFree() {
+        long position = enqueuePosition.get();
+        return sequences.get((int) (position & mask)) == position;
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Поток прерван во время ожидания очереди");
+        }
+    }
+}
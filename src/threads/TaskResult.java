@@ -0,0 +1,45 @@
+package threads;
+
+/**
+ * Результат обработки задания на интегрирование.
+ * Объекты класса неизменяемы, поэтому их можно безопасно передавать между потоками.
+ */
+public class TaskResult {
+    public final Task.TaskData task;
+    public final double value;
+    public final String error; // Сообщение об ошибке или null, если задание выполнено успешно
+
+    private TaskResult(Task.TaskData task, double value, String error) {
+        this.task = task;
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * Создаёт результат успешно выполненного задания.
+     * @param task данные задания
+     * @param value значение интеграла
+     * @return результат задания
+     */
+    public static TaskResult success(Task.TaskData task, double value) {
+        return new TaskResult(task, value, null);
+    }
+
+    /**
+     * Создаёт результат задания, при выполнении которого возникла ошибка.
+     * @param task данные задания
+     * @param error сообщение об ошибке
+     * @return результат задания
+     */
+    public static TaskResult failure(Task.TaskData task, String error) {
+        return new TaskResult(task, Double.NaN, error);
+    }
+
+    /**
+     * Проверяет, выполнено ли задание успешно.
+     * @return true, если ошибок не было
+     */
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
@@ -0,0 +1,113 @@
+package threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Одноместный буфер для передачи заданий от генератора интегратору.
+ *
+ * Выполняет ту же роль, что связка {@link Task} и {@link ReadWriteSemaphore}, но построен
+ * на {@link ReentrantLock} и {@link Condition} вместо synchronized и wait/notifyAll.
+ * Ожидание на условии освобождает поток-носитель, поэтому буфер можно использовать
+ * из виртуальных потоков, не закрепляя их за потоками платформы. Генератор будится
+ * только при освобождении буфера, интегратор - только при появлении задания.
+ *
+ * @param <E> тип передаваемых заданий
+ */
+public class TaskSlot<E> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private E item;
+    private boolean closed;
+
+    /**
+     * Помещает задание в буфер, ожидая, пока предыдущее задание будет забрано.
+     * @param newItem задание
+     * @throws InterruptedException если поток был прерван во время ожидания
+     * @throws IllegalStateException если буфер закрыт
+     */
+    public void put(E newItem) throws InterruptedException {
+        if (newItem == null) {
+            throw new IllegalArgumentException("Item must not be null");
+        }
+        lock.lockInterruptibly();
+        try {
+            while (item != null && !closed) {
+                notFull.await();
+            }
+            if (closed) {
+                throw new IllegalStateException("Буфер заданий закрыт");
+            }
+            item = newItem;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Забирает задание из буфера, ожидая его появления.
+     * @return задание или null, если буфер закрыт и пуст
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (item == null && !closed) {
+                notEmpty.await();
+            }
+            return extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Забирает задание из буфера, ожидая его появления не дольше заданного времени.
+     * @param timeout максимальное время ожидания
+     * @param unit единица измерения времени
+     * @return задание или null, если время истекло либо буфер закрыт и пуст
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public E take(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (item == null && !closed) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Закрывает буфер: ожидающий интегратор получит оставшееся задание,
+     * а затем null.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private E extract() {
+        E result = item;
+        if (result != null) {
+            item = null;
+            notFull.signal();
+        }
+        return result;
+    }
+}
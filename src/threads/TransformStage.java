@@ -0,0 +1,160 @@
+package threads;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Стадия конвейера, преобразующая каждый элемент в ровно один элемент результата.
+ *
+ * Спрос передаётся вверх по конвейеру: стадия держит не более bufferCapacity
+ * запрошенных у источника элементов и запрашивает следующий только после
+ * обработки очередного. Результаты публикуются в ограниченный буфер
+ * {@link SubmissionPublisher}; если подписчик не успевает, публикация блокируется,
+ * и стадия перестаёт запрашивать новые элементы. Поэтому ни одна стадия
+ * не буферизует больше заданного количества элементов.
+ *
+ * Элементы начинают запрашиваться только после появления подписчика у стадии,
+ * поэтому конвейер можно собирать в любом порядке.
+ *
+ * @param <T> тип входных элементов
+ * @param <R> тип результатов
+ */
+public abstract class TransformStage<T, R> extends SubmissionPublisher<R> implements Flow.Processor<T, R> {
+    private final String name;
+    private final int bufferCapacity;
+    private final LongAdder processedItems = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private Flow.Subscription subscription;
+    private boolean hasSubscriber;
+    private boolean demandStarted;
+
+    /**
+     * Создаёт стадию, доставляющую результаты через {@link ForkJoinPool#commonPool()}.
+     * @param name имя стадии для статистики
+     */
+    protected TransformStage(String name) {
+        this(name, ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * Создаёт стадию с заданным исполнителем и размером буфера.
+     * @param name имя стадии для статистики
+     * @param executor исполнитель, в котором результаты доставляются подписчикам
+     * @param bufferCapacity максимальное количество элементов в буфере стадии
+     */
+    protected TransformStage(String name, Executor executor, int bufferCapacity) {
+        super(executor, bufferCapacity);
+        this.name = name;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Преобразует входной элемент в результат.
+     * @param item входной элемент
+     * @return результат
+     */
+    protected abstract R transform(T item);
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        super.subscribe(subscriber);
+        synchronized (this) {
+            hasSubscriber = true;
+        }
+        startDemand();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            if (this.subscription != null) {
+                subscription.cancel(); // Стадия подписывается только на один источник
+                return;
+            }
+            this.subscription = subscription;
+        }
+        startDemand();
+    }
+
+    @Override
+    public void onNext(T item) {
+        long startTime = System.nanoTime();
+        R result = transform(item);
+        busyNanos.add(System.nanoTime() - startTime);
+        processedItems.increment();
+
+        submit(result); // Блокируется, если подписчики не успевают
+        if (getNumberOfSubscribers() == 0) {
+            subscription.cancel(); // Результаты больше никому не нужны
+            close();
+        } else {
+            subscription.request(1);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        close();
+    }
+
+    /**
+     * Возвращает статистику стадии.
+     * @return статистика стадии
+     */
+    public StageStatistics getStatistics() {
+        return new StageStatistics(name, processedItems.sum(), busyNanos.sum(), estimateMaximumLag());
+    }
+
+    private void startDemand() {
+        Flow.Subscription upstream;
+        synchronized (this) {
+            if (demandStarted || subscription == null || !hasSubscriber) {
+                return;
+            }
+            demandStarted = true;
+            upstream = subscription;
+        }
+        upstream.request(bufferCapacity);
+    }
+
+    /**
+     * Статистика стадии конвейера.
+     * Стадия с наибольшим временем обработки одного элемента ограничивает
+     * пропускную способность всего конвейера.
+     */
+    public static class StageStatistics {
+        public final String name;
+        public final long processedItems;
+        public final long busyNanos;
+        public final int maximumLag;
+
+        public StageStatistics(String name, long processedItems, long busyNanos, int maximumLag) {
+            this.name = name;
+            this.processedItems = processedItems;
+            this.busyNanos = busyNanos;
+            this.maximumLag = maximumLag;
+        }
+
+        /**
+         * Возвращает пропускную способность стадии без учёта ожидания.
+         * @return количество элементов в секунду времени обработки
+         */
+        public double getThroughput() {
+            return busyNanos == 0 ? 0.0 : processedItems * 1e9 / busyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: обработано %d, время обработки %.3f мс, %.0f элементов/с, в буфере %d",
+                    name, processedItems, busyNanos / 1e6, getThroughput(), maximumLag);
+        }
+    }
+}
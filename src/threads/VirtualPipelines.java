@@ -0,0 +1,74 @@
+package threads;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Запуск множества независимых небольших конвейеров "генератор - интегратор"
+ * в одной области {@link PipelineScope}. Каждый конвейер состоит из пары
+ * {@link SlotGenerator} и {@link SlotIntegrator}, связанных собственным {@link TaskSlot}.
+ *
+ * При поддержке средой выполнения конвейеры работают в виртуальных потоках,
+ * поэтому тысячи конвейеров не требуют тысяч потоков платформы.
+ */
+public class VirtualPipelines {
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров класса.
+     */
+    private VirtualPipelines() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    /**
+     * Запускает конвейеры в потоках фабрики {@link PipelineScope#defaultThreadFactory()}
+     * и ожидает их завершения.
+     * @param pipelinesCount количество конвейеров
+     * @param tasksPerPipeline количество заданий в каждом конвейере
+     * @param timeout максимальное время выполнения всех конвейеров
+     * @param unit единица измерения времени
+     * @return общее количество обработанных заданий
+     * @throws InterruptedException если поток был прерван во время ожидания
+     * @throws TimeoutException если конвейеры не завершились за отведённое время
+     */
+    public static int run(int pipelinesCount, int tasksPerPipeline, long timeout, TimeUnit unit)
+            throws InterruptedException, TimeoutException {
+        return run(PipelineScope.defaultThreadFactory(), pipelinesCount, tasksPerPipeline, timeout, unit);
+    }
+
+    /**
+     * Запускает конвейеры в потоках заданной фабрики и ожидает их завершения.
+     * По истечении времени все потоки конвейеров прерываются и дожидаются.
+     * @param threadFactory фабрика потоков
+     * @param pipelinesCount количество конвейеров
+     * @param tasksPerPipeline количество заданий в каждом конвейере
+     * @param timeout максимальное время выполнения всех конвейеров
+     * @param unit единица измерения времени
+     * @return общее количество обработанных заданий
+     * @throws InterruptedException если поток был прерван во время ожидания
+     * @throws TimeoutException если конвейеры не завершились за отведённое время
+     */
+    public static int run(ThreadFactory threadFactory, int pipelinesCount, int tasksPerPipeline,
+                          long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        if (pipelinesCount <= 0 || tasksPerPipeline <= 0) {
+            throw new IllegalArgumentException("Pipelines and tasks count must be positive");
+        }
+        SlotIntegrator[] integrators = new SlotIntegrator[pipelinesCount];
+        try (PipelineScope scope = new PipelineScope(threadFactory)) {
+            for (int i = 0; i < pipelinesCount; i++) {
+                TaskSlot<Task.TaskData> slot = new TaskSlot<>();
+                integrators[i] = new SlotIntegrator(slot);
+                scope.fork(integrators[i]);
+                scope.fork(new SlotGenerator(slot, tasksPerPipeline));
+            }
+            scope.join(timeout, unit);
+        }
+
+        int completed = 0;
+        for (SlotIntegrator integrator : integrators) {
+            completed += integrator.getCompletedTasks();
+        }
+        return completed;
+    }
+}
@@ -0,0 +1,53 @@
+package threads;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Очередь потоков, ожидающих выполнения условия, на основе {@link LockSupport#park(Object)}.
+ *
+ * Ожидающий поток сначала регистрируется в очереди и только затем проверяет условие,
+ * а сигналящий поток сначала изменяет состояние и только затем будит зарегистрированные
+ * потоки. Поэтому пробуждение не может быть потеряно, а поток просыпается ровно тогда,
+ * когда состояние изменилось, без периодических проверок по таймеру.
+ */
+final class WaitQueue {
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Ожидает выполнения условия.
+     * @param condition условие; должно читать состояние, изменения которого
+     * сопровождаются вызовом {@link #signalAll()}
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    void await(BooleanSupplier condition) throws InterruptedException {
+        if (condition.getAsBoolean()) {
+            return;
+        }
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            while (!condition.getAsBoolean()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Поток прерван во время ожидания");
+                }
+                LockSupport.park(this);
+            }
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    /**
+     * Будит все ожидающие потоки. Вызывается после изменения состояния.
+     */
+    void signalAll() {
+        if (waiters.isEmpty()) {
+            return; // Быстрый путь: никто не ждёт
+        }
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+}